@@ -0,0 +1,20 @@
+package com.tosan.client.http.core;
+
+/**
+ * Order in which the resolved addresses of a host are handed to the connection operator, which connects to the first
+ * reachable one.
+ */
+public enum AddressRotation {
+    /**
+     * order of the resolver
+     */
+    NONE,
+    /**
+     * each resolution starts with the next address
+     */
+    ROUND_ROBIN,
+    /**
+     * each resolution shuffles the addresses
+     */
+    RANDOM
+}
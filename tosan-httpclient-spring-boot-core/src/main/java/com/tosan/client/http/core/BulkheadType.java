@@ -0,0 +1,15 @@
+package com.tosan.client.http.core;
+
+/**
+ * Isolation of the concurrent calls to a service.
+ */
+public enum BulkheadType {
+    /**
+     * calls run on the caller thread once a permit of a semaphore is taken
+     */
+    SEMAPHORE,
+    /**
+     * calls run on a dedicated bounded pool with a bounded queue
+     */
+    THREAD_POOL
+}
@@ -14,6 +14,7 @@ public interface Constants {
     String MDC_CLIENT_IP = "clientIP";
     String MDC_REQUEST_ID = "requestId";
     String X_REQUEST_ID = "X-Request-ID";
+    String X_REQUEST_TIMEOUT = "X-Request-Timeout";
     String ACCEPT_HEADER = "Accept";
     String CONTENT_TYPE_HEADER = "Content-Type";
 }
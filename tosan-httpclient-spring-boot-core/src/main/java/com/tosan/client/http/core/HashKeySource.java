@@ -0,0 +1,19 @@
+package com.tosan.client.http.core;
+
+/**
+ * Part of a request the key of consistent hash routing is read from.
+ */
+public enum HashKeySource {
+    /**
+     * request header
+     */
+    HEADER,
+    /**
+     * variable of the request path, matched against a path pattern
+     */
+    PATH_VARIABLE,
+    /**
+     * MDC entry of the calling thread
+     */
+    MDC
+}
@@ -1,9 +1,17 @@
 package com.tosan.client.http.core;
 
 import org.apache.hc.client5.http.cookie.StandardCookieSpec;
+import org.apache.hc.core5.http.ConnectionClosedException;
+import org.apache.hc.core5.http.NoHttpResponseException;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.validation.annotation.Validated;
 
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author Ali Alimohammadi
  * @since 1/22/2021
@@ -12,6 +20,13 @@ import org.springframework.validation.annotation.Validated;
 public class HttpClientProperties {
 
     private String baseServiceUrl;
+    /**
+     * base urls of the instances of the service, balanced per request; request urls are built on
+     * {@code baseServiceUrl}, or on the first of these when it is not set
+     */
+    private List<String> baseServiceUrls = new ArrayList<>();
+    @NestedConfigurationProperty
+    private LoadBalancerConfiguration loadBalancer = new LoadBalancerConfiguration();
     @NestedConfigurationProperty
     private SSLConfiguration ssl = new SSLConfiguration();
     @NestedConfigurationProperty
@@ -20,8 +35,34 @@ public class HttpClientProperties {
     private ConnectionConfiguration connection = new ConnectionConfiguration();
     @NestedConfigurationProperty
     private AuthorizationConfiguration authorization = new AuthorizationConfiguration();
+    @NestedConfigurationProperty
+    private WarmupConfiguration warmup = new WarmupConfiguration();
+    @NestedConfigurationProperty
+    private AdaptivePoolConfiguration adaptivePool = new AdaptivePoolConfiguration();
+    @NestedConfigurationProperty
+    private DnsConfiguration dns = new DnsConfiguration();
+    @NestedConfigurationProperty
+    private RetryConfiguration retry = new RetryConfiguration();
+    @NestedConfigurationProperty
+    private HedgeConfiguration hedge = new HedgeConfiguration();
+    @NestedConfigurationProperty
+    private ConcurrencyLimitConfiguration concurrencyLimit = new ConcurrencyLimitConfiguration();
+    @NestedConfigurationProperty
+    private CircuitBreakerConfiguration circuitBreaker = new CircuitBreakerConfiguration();
+    @NestedConfigurationProperty
+    private BulkheadConfiguration bulkhead = new BulkheadConfiguration();
+    @NestedConfigurationProperty
+    private DeadlineConfiguration deadline = new DeadlineConfiguration();
+    /**
+     * per route overrides of the connection settings, keyed by {@code host:port}
+     */
+    private Map<String, RouteConfiguration> routes = new LinkedHashMap<>();
 
     public String getBaseServiceUrl() {
+        if ((baseServiceUrl == null || baseServiceUrl.isBlank()) && baseServiceUrls != null
+                && !baseServiceUrls.isEmpty()) {
+            return baseServiceUrls.get(0);
+        }
         return baseServiceUrl;
     }
 
@@ -29,6 +70,22 @@ public class HttpClientProperties {
         this.baseServiceUrl = baseServiceUrl;
     }
 
+    public List<String> getBaseServiceUrls() {
+        return baseServiceUrls;
+    }
+
+    public void setBaseServiceUrls(List<String> baseServiceUrls) {
+        this.baseServiceUrls = baseServiceUrls;
+    }
+
+    public LoadBalancerConfiguration getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public void setLoadBalancer(LoadBalancerConfiguration loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
     public SSLConfiguration getSsl() {
         return ssl;
     }
@@ -61,6 +118,86 @@ public class HttpClientProperties {
         this.authorization = authorization;
     }
 
+    public WarmupConfiguration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(WarmupConfiguration warmup) {
+        this.warmup = warmup;
+    }
+
+    public AdaptivePoolConfiguration getAdaptivePool() {
+        return adaptivePool;
+    }
+
+    public void setAdaptivePool(AdaptivePoolConfiguration adaptivePool) {
+        this.adaptivePool = adaptivePool;
+    }
+
+    public DnsConfiguration getDns() {
+        return dns;
+    }
+
+    public void setDns(DnsConfiguration dns) {
+        this.dns = dns;
+    }
+
+    public RetryConfiguration getRetry() {
+        return retry;
+    }
+
+    public void setRetry(RetryConfiguration retry) {
+        this.retry = retry;
+    }
+
+    public HedgeConfiguration getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(HedgeConfiguration hedge) {
+        this.hedge = hedge;
+    }
+
+    public ConcurrencyLimitConfiguration getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public void setConcurrencyLimit(ConcurrencyLimitConfiguration concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    public CircuitBreakerConfiguration getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerConfiguration circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public BulkheadConfiguration getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(BulkheadConfiguration bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    public DeadlineConfiguration getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(DeadlineConfiguration deadline) {
+        this.deadline = deadline;
+    }
+
+    public Map<String, RouteConfiguration> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, RouteConfiguration> routes) {
+        this.routes = routes;
+    }
+
     public static class ProxyConfiguration {
         private boolean enable;
         /**
@@ -127,7 +264,32 @@ public class HttpClientProperties {
          * Sets the SSLContext protocol algorithm name.
          */
         private String context = "TLSv1.2";
+        /**
+         * JSSE provider name or class name building the SSLContext, e.g. Conscrypt or org.conscrypt.OpenSSLProvider,
+         * falls back to the JDK provider when not available.
+         */
+        private String provider;
         private boolean checkValidity;
+        /**
+         * Reload keystore and truststore when their files change, without rebuilding the connection pool.
+         */
+        private boolean reload;
+        /**
+         * Enabled TLS protocols, e.g. TLSv1.3, defaults to the protocols of the SSLContext.
+         */
+        private List<String> protocols = new ArrayList<>();
+        /**
+         * Enabled cipher suites, defaults to the cipher suites of the SSLContext.
+         */
+        private List<String> cipherSuites = new ArrayList<>();
+        /**
+         * Max number of cached TLS sessions, 0 for unlimited, defaults to the JVM setting.
+         */
+        private Integer sessionCacheSize;
+        /**
+         * Seconds a cached TLS session can be resumed, 0 for unlimited, defaults to the JVM setting.
+         */
+        private Integer sessionTimeout;
         @NestedConfigurationProperty
         private KeystoreConfiguration keystore = new KeystoreConfiguration();
         @NestedConfigurationProperty
@@ -149,6 +311,14 @@ public class HttpClientProperties {
             this.context = context;
         }
 
+        public String getProvider() {
+            return provider;
+        }
+
+        public void setProvider(String provider) {
+            this.provider = provider;
+        }
+
         public boolean isCheckValidity() {
             return checkValidity;
         }
@@ -157,6 +327,46 @@ public class HttpClientProperties {
             this.checkValidity = checkValidity;
         }
 
+        public boolean isReload() {
+            return reload;
+        }
+
+        public void setReload(boolean reload) {
+            this.reload = reload;
+        }
+
+        public List<String> getProtocols() {
+            return protocols;
+        }
+
+        public void setProtocols(List<String> protocols) {
+            this.protocols = protocols;
+        }
+
+        public List<String> getCipherSuites() {
+            return cipherSuites;
+        }
+
+        public void setCipherSuites(List<String> cipherSuites) {
+            this.cipherSuites = cipherSuites;
+        }
+
+        public Integer getSessionCacheSize() {
+            return sessionCacheSize;
+        }
+
+        public void setSessionCacheSize(Integer sessionCacheSize) {
+            this.sessionCacheSize = sessionCacheSize;
+        }
+
+        public Integer getSessionTimeout() {
+            return sessionTimeout;
+        }
+
+        public void setSessionTimeout(Integer sessionTimeout) {
+            this.sessionTimeout = sessionTimeout;
+        }
+
         public KeystoreConfiguration getKeystore() {
             return keystore;
         }
@@ -274,11 +484,39 @@ public class HttpClientProperties {
          */
         public static final int DEFAULT_CONNECTION_TIMEOUT = 5000;
 
+        /**
+         * Default value for connection request (lease) timeout in milliseconds, the max time a request waits for a
+         * connection from an exhausted pool.
+         */
+        public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 3000;
+
         /**
          * Default value for connection timer repeat.
          */
         public static final int DEFAULT_CONNECTION_TIMER_REPEAT = 3000;
 
+        /**
+         * Default value for idle connection timeout in milliseconds.
+         * Pooled connections idle for longer than this value are closed by the connection eviction task.
+         * A value of zero or less disables idle connection eviction (expired connections are still evicted).
+         */
+        public static final long DEFAULT_IDLE_CONNECTION_TIMEOUT = 60000L;
+
+        /**
+         * Default value for the number of I/O dispatch threads of the async transport.
+         */
+        public static final int DEFAULT_IO_THREAD_COUNT = 1;
+
+        /**
+         * Default value for the max number of concurrent HTTP/2 streams per connection.
+         */
+        public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 100;
+
+        /**
+         * Default value for the HTTP/2 initial flow-control window size in bytes.
+         */
+        public static final int DEFAULT_INITIAL_WINDOW_SIZE = 65535;
+
         /**
          * Default value for socket timeout in milliseconds.
          * A timeout value of zero is interpreted as an infinite timeout.
@@ -296,12 +534,51 @@ public class HttpClientProperties {
 
         private int connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
 
+        private int connectionRequestTimeout = DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+
+        /**
+         * Max number of requests waiting for a pooled connection, further requests fail fast with
+         * {@code ConnectionPoolExhaustedException}. Zero or less means unbounded.
+         */
+        private int maxPendingLeases;
+
         private int connectionTimerRepeat = DEFAULT_CONNECTION_TIMER_REPEAT;
 
+        private long idleConnectionTimeout = DEFAULT_IDLE_CONNECTION_TIMEOUT;
+
         private int socketTimeout = DEFAULT_SOCKET_TIMEOUT;
 
         private String cookieSpecPolicy = StandardCookieSpec.IGNORE;
 
+        /**
+         * Use the non-blocking async transport ({@code CloseableHttpAsyncClient}) instead of the classic one.
+         */
+        private boolean async;
+
+        /**
+         * Number of I/O dispatch threads of the async transport.
+         */
+        private int ioThreadCount = DEFAULT_IO_THREAD_COUNT;
+
+        /**
+         * Protocol version. HTTP/2 variants multiplex requests over shared connections and imply the async transport.
+         */
+        private HttpProtocol protocol = HttpProtocol.HTTP_1_1;
+
+        /**
+         * Max number of concurrent HTTP/2 streams per connection.
+         */
+        private int maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+
+        /**
+         * HTTP/2 initial flow-control window size in bytes.
+         */
+        private int initialWindowSize = DEFAULT_INITIAL_WINDOW_SIZE;
+
+        /**
+         * Run {@code invokeAsync} tasks of the service invoker on virtual threads (Java 21+).
+         */
+        private boolean virtualThreads = true;
 
         public int getMaxConnections() {
             return maxConnections;
@@ -346,6 +623,22 @@ public class HttpClientProperties {
             this.connectionTimeout = connectionTimeout;
         }
 
+        public int getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public int getMaxPendingLeases() {
+            return maxPendingLeases;
+        }
+
+        public void setMaxPendingLeases(int maxPendingLeases) {
+            this.maxPendingLeases = maxPendingLeases;
+        }
+
         public int getConnectionTimerRepeat() {
             return connectionTimerRepeat;
         }
@@ -354,6 +647,14 @@ public class HttpClientProperties {
             this.connectionTimerRepeat = connectionTimerRepeat;
         }
 
+        public long getIdleConnectionTimeout() {
+            return idleConnectionTimeout;
+        }
+
+        public void setIdleConnectionTimeout(long idleConnectionTimeout) {
+            this.idleConnectionTimeout = idleConnectionTimeout;
+        }
+
         public int getSocketTimeout() {
             return socketTimeout;
         }
@@ -369,6 +670,108 @@ public class HttpClientProperties {
         public void setCookieSpecPolicy(String cookieSpecPolicy) {
             this.cookieSpecPolicy = cookieSpecPolicy;
         }
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getIoThreadCount() {
+            return ioThreadCount;
+        }
+
+        public void setIoThreadCount(int ioThreadCount) {
+            this.ioThreadCount = ioThreadCount;
+        }
+
+        public HttpProtocol getProtocol() {
+            return protocol;
+        }
+
+        public void setProtocol(HttpProtocol protocol) {
+            this.protocol = protocol;
+        }
+
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+
+        public int getInitialWindowSize() {
+            return initialWindowSize;
+        }
+
+        public void setInitialWindowSize(int initialWindowSize) {
+            this.initialWindowSize = initialWindowSize;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    /**
+     * Connection settings of a single route; unset values fall back to {@link ConnectionConfiguration}
+     */
+    public static class RouteConfiguration {
+        private Integer maxConnections;
+        private Integer connectionTimeout;
+        private Integer socketTimeout;
+        private Long timeToLive;
+        /**
+         * period of inactivity in milliseconds after which pooled connections are validated before reuse
+         */
+        private Long validateAfterInactivity;
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Integer getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Integer connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Integer getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Integer socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Long getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Long getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Long validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
     }
 
     public static class AuthorizationConfiguration {
@@ -406,4 +809,1157 @@ public class HttpClientProperties {
             this.password = password;
         }
     }
+
+    public static class WarmupConfiguration {
+
+        /**
+         * Default value for the number of connections opened at startup.
+         */
+        public static final int DEFAULT_CONNECTIONS = 1;
+
+        /**
+         * Default value for the warm-up time budget in milliseconds.
+         */
+        public static final long DEFAULT_TIMEOUT = 5000L;
+
+        private boolean enable;
+        /**
+         * number of connections opened (including TLS handshake) to the base service url at startup
+         */
+        private int connections = DEFAULT_CONNECTIONS;
+        /**
+         * optional path requested with GET on every warmed connection
+         */
+        private String path;
+        /**
+         * total time budget of the warm-up in milliseconds
+         */
+        private long timeout = DEFAULT_TIMEOUT;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            this.connections = connections;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class AdaptivePoolConfiguration {
+
+        /**
+         * Default value for the lower bound of connections per route.
+         */
+        public static final int DEFAULT_MIN_CONNECTIONS_PER_ROUTE = 10;
+
+        /**
+         * Default value for the upper bound of connections per route.
+         */
+        public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 200;
+
+        /**
+         * Default value for the sampling interval in milliseconds.
+         */
+        public static final long DEFAULT_INTERVAL = 5000L;
+
+        /**
+         * Default value for the number of connections added or removed per decision.
+         */
+        public static final int DEFAULT_STEP = 5;
+
+        private boolean enable;
+        /**
+         * floor of the adapted max connections per route
+         */
+        private int minConnectionsPerRoute = DEFAULT_MIN_CONNECTIONS_PER_ROUTE;
+        /**
+         * ceiling of the adapted max connections per route, still bounded by {@code connection.maxConnections}
+         */
+        private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        /**
+         * pool sampling interval in milliseconds
+         */
+        private long interval = DEFAULT_INTERVAL;
+        /**
+         * connections added or removed per decision
+         */
+        private int step = DEFAULT_STEP;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getMinConnectionsPerRoute() {
+            return minConnectionsPerRoute;
+        }
+
+        public void setMinConnectionsPerRoute(int minConnectionsPerRoute) {
+            this.minConnectionsPerRoute = minConnectionsPerRoute;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public void setStep(int step) {
+            this.step = step;
+        }
+    }
+
+    public static class DnsConfiguration {
+
+        /**
+         * Default value for the time resolved addresses are cached in milliseconds.
+         */
+        public static final long DEFAULT_TTL = 30000L;
+
+        /**
+         * Default value for the time failed resolutions are cached in milliseconds.
+         */
+        public static final long DEFAULT_NEGATIVE_TTL = 5000L;
+
+        private boolean enable;
+        /**
+         * time resolved addresses are cached in milliseconds, zero or less to resolve every time
+         */
+        private long ttl = DEFAULT_TTL;
+        /**
+         * time failed resolutions are cached in milliseconds, zero or less to not cache failures
+         */
+        private long negativeTtl = DEFAULT_NEGATIVE_TTL;
+        /**
+         * order of the addresses of multi address hosts
+         */
+        private AddressRotation rotation = AddressRotation.ROUND_ROBIN;
+        /**
+         * static ip addresses per host name, never resolved
+         */
+        private Map<String, List<String>> hosts = new LinkedHashMap<>();
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(long negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+
+        public AddressRotation getRotation() {
+            return rotation;
+        }
+
+        public void setRotation(AddressRotation rotation) {
+            this.rotation = rotation;
+        }
+
+        public Map<String, List<String>> getHosts() {
+            return hosts;
+        }
+
+        public void setHosts(Map<String, List<String>> hosts) {
+            this.hosts = hosts;
+        }
+    }
+
+    public static class LoadBalancerConfiguration {
+
+        /**
+         * Default value for the weight of the latest response time in the moving average.
+         */
+        public static final double DEFAULT_LATENCY_WEIGHT = 0.2;
+
+        /**
+         * Default value for the utilization of the caller zone above which requests spill over to other zones.
+         */
+        public static final double DEFAULT_ZONE_UTILIZATION_THRESHOLD = 0.8;
+
+        /**
+         * Default value for the bound of the requests in flight of an endpoint relative to the average.
+         */
+        public static final double DEFAULT_HASH_LOAD_FACTOR = 1.25;
+
+        /**
+         * Default value for the virtual nodes of an endpoint on the hash ring.
+         */
+        public static final int DEFAULT_HASH_REPLICAS = 100;
+
+        /**
+         * selection of the endpoint per request
+         */
+        private LoadBalancerType type = LoadBalancerType.ROUND_ROBIN;
+        /**
+         * weight of the latest response time in the moving average of an endpoint, between 0 and 1
+         */
+        private double latencyWeight = DEFAULT_LATENCY_WEIGHT;
+        /**
+         * availability zone of the caller, requests prefer endpoints of this zone when set
+         */
+        private String zone;
+        /**
+         * availability zone of each base service url
+         */
+        private Map<String, String> endpointZones = new LinkedHashMap<>();
+        /**
+         * requests in flight per allowed connection of the caller zone endpoints above which requests spill over
+         * to other zones, in proportion to the excess
+         */
+        private double zoneUtilizationThreshold = DEFAULT_ZONE_UTILIZATION_THRESHOLD;
+        /**
+         * part of the request the key of consistent hash routing is read from
+         */
+        private HashKeySource hashKeySource = HashKeySource.HEADER;
+        /**
+         * name of the header, path variable or MDC entry holding the key of consistent hash routing
+         */
+        private String hashKeyName;
+        /**
+         * path pattern declaring the path variable holding the key, relative to the base service url
+         */
+        private String hashKeyPathPattern;
+        /**
+         * bound of the requests in flight of an endpoint relative to the average before its keys move to the next
+         * endpoint of the ring, at least 1
+         */
+        private double hashLoadFactor = DEFAULT_HASH_LOAD_FACTOR;
+        /**
+         * virtual nodes of each endpoint on the hash ring
+         */
+        private int hashReplicas = DEFAULT_HASH_REPLICAS;
+        @NestedConfigurationProperty
+        private OutlierDetectionConfiguration outlierDetection = new OutlierDetectionConfiguration();
+
+        public LoadBalancerType getType() {
+            return type;
+        }
+
+        public void setType(LoadBalancerType type) {
+            this.type = type;
+        }
+
+        public double getLatencyWeight() {
+            return latencyWeight;
+        }
+
+        public void setLatencyWeight(double latencyWeight) {
+            this.latencyWeight = latencyWeight;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public void setZone(String zone) {
+            this.zone = zone;
+        }
+
+        public Map<String, String> getEndpointZones() {
+            return endpointZones;
+        }
+
+        public void setEndpointZones(Map<String, String> endpointZones) {
+            this.endpointZones = endpointZones;
+        }
+
+        public double getZoneUtilizationThreshold() {
+            return zoneUtilizationThreshold;
+        }
+
+        public void setZoneUtilizationThreshold(double zoneUtilizationThreshold) {
+            this.zoneUtilizationThreshold = zoneUtilizationThreshold;
+        }
+
+        public HashKeySource getHashKeySource() {
+            return hashKeySource;
+        }
+
+        public void setHashKeySource(HashKeySource hashKeySource) {
+            this.hashKeySource = hashKeySource;
+        }
+
+        public String getHashKeyName() {
+            return hashKeyName;
+        }
+
+        public void setHashKeyName(String hashKeyName) {
+            this.hashKeyName = hashKeyName;
+        }
+
+        public String getHashKeyPathPattern() {
+            return hashKeyPathPattern;
+        }
+
+        public void setHashKeyPathPattern(String hashKeyPathPattern) {
+            this.hashKeyPathPattern = hashKeyPathPattern;
+        }
+
+        public double getHashLoadFactor() {
+            return hashLoadFactor;
+        }
+
+        public void setHashLoadFactor(double hashLoadFactor) {
+            this.hashLoadFactor = hashLoadFactor;
+        }
+
+        public int getHashReplicas() {
+            return hashReplicas;
+        }
+
+        public void setHashReplicas(int hashReplicas) {
+            this.hashReplicas = hashReplicas;
+        }
+
+        public OutlierDetectionConfiguration getOutlierDetection() {
+            return outlierDetection;
+        }
+
+        public void setOutlierDetection(OutlierDetectionConfiguration outlierDetection) {
+            this.outlierDetection = outlierDetection;
+        }
+    }
+
+    public static class OutlierDetectionConfiguration {
+
+        /**
+         * Default value for the consecutive failures ejecting an endpoint.
+         */
+        public static final int DEFAULT_CONSECUTIVE_FAILURES = 5;
+
+        /**
+         * Default value for the ratio of the response time of an endpoint to the median of its peers ejecting it.
+         */
+        public static final double DEFAULT_LATENCY_FACTOR = 3.0;
+
+        /**
+         * Default value for the first ejection period in milliseconds.
+         */
+        public static final long DEFAULT_BASE_EJECTION_TIME = 30000L;
+
+        /**
+         * Default value for the longest ejection period in milliseconds.
+         */
+        public static final long DEFAULT_MAX_EJECTION_TIME = 300000L;
+
+        /**
+         * Default value for the percentage of the endpoints ejected at the same time.
+         */
+        public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+        private boolean enable;
+        /**
+         * consecutive 5xx responses or connect failures ejecting an endpoint
+         */
+        private int consecutiveFailures = DEFAULT_CONSECUTIVE_FAILURES;
+        /**
+         * ratio of the moving average response time of an endpoint to the median of its peers ejecting it,
+         * 0 disables latency ejection
+         */
+        private double latencyFactor = DEFAULT_LATENCY_FACTOR;
+        /**
+         * first ejection period in milliseconds, doubled by each further ejection
+         */
+        private long baseEjectionTime = DEFAULT_BASE_EJECTION_TIME;
+        /**
+         * longest ejection period in milliseconds
+         */
+        private long maxEjectionTime = DEFAULT_MAX_EJECTION_TIME;
+        /**
+         * percentage of the endpoints ejected at the same time
+         */
+        private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public double getLatencyFactor() {
+            return latencyFactor;
+        }
+
+        public void setLatencyFactor(double latencyFactor) {
+            this.latencyFactor = latencyFactor;
+        }
+
+        public long getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(long baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public long getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        public void setMaxEjectionTime(long maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+    }
+
+    public static class RetryConfiguration {
+
+        /**
+         * Default value for the attempts of a request, including the first one.
+         */
+        public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+        /**
+         * Default value for the backoff before the first retry in milliseconds.
+         */
+        public static final long DEFAULT_INITIAL_BACKOFF = 100L;
+
+        /**
+         * Default value for the longest backoff in milliseconds.
+         */
+        public static final long DEFAULT_MAX_BACKOFF = 2000L;
+
+        /**
+         * Default value for the growth of the backoff per retry.
+         */
+        public static final double DEFAULT_MULTIPLIER = 2.0;
+
+        /**
+         * Default value for the share of the backoff randomly taken off.
+         */
+        public static final double DEFAULT_JITTER = 0.5;
+
+        /**
+         * Default value for the retries allowed per hundred requests.
+         */
+        public static final int DEFAULT_BUDGET_PERCENT = 20;
+
+        /**
+         * Default value for the burst of retries allowed by the budget.
+         */
+        public static final int DEFAULT_BUDGET_CAPACITY = 10;
+
+        private boolean enable;
+        /**
+         * attempts of a request, including the first one
+         */
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        /**
+         * idempotent http methods which are retried
+         */
+        private List<String> methods = new ArrayList<>(List.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+        /**
+         * response status codes which are retried
+         */
+        private List<Integer> statusCodes = new ArrayList<>(List.of(502, 503, 504));
+        /**
+         * exception types which are retried, matched along the cause chain
+         */
+        private List<Class<? extends Throwable>> exceptions = new ArrayList<>(List.of(SocketException.class,
+                NoHttpResponseException.class, ConnectionClosedException.class));
+        /**
+         * backoff before the first retry in milliseconds
+         */
+        private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+        /**
+         * longest backoff in milliseconds
+         */
+        private long maxBackoff = DEFAULT_MAX_BACKOFF;
+        /**
+         * growth of the backoff per retry
+         */
+        private double multiplier = DEFAULT_MULTIPLIER;
+        /**
+         * share of the backoff randomly taken off, between 0 and 1
+         */
+        private double jitter = DEFAULT_JITTER;
+        /**
+         * retries allowed per hundred requests of the service
+         */
+        private int budgetPercent = DEFAULT_BUDGET_PERCENT;
+        /**
+         * burst of retries allowed by the budget after a quiet period
+         */
+        private int budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<Integer> getStatusCodes() {
+            return statusCodes;
+        }
+
+        public void setStatusCodes(List<Integer> statusCodes) {
+            this.statusCodes = statusCodes;
+        }
+
+        public List<Class<? extends Throwable>> getExceptions() {
+            return exceptions;
+        }
+
+        public void setExceptions(List<Class<? extends Throwable>> exceptions) {
+            this.exceptions = exceptions;
+        }
+
+        public long getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(long initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public long getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(long maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getBudgetCapacity() {
+            return budgetCapacity;
+        }
+
+        public void setBudgetCapacity(int budgetCapacity) {
+            this.budgetCapacity = budgetCapacity;
+        }
+    }
+
+    public static class HedgeConfiguration {
+
+        /**
+         * Default value for the percentile of the response times used as hedge delay.
+         */
+        public static final double DEFAULT_PERCENTILE = 0.95;
+
+        /**
+         * Default value for the response times observed before hedging on the percentile.
+         */
+        public static final int DEFAULT_MIN_SAMPLES = 100;
+
+        /**
+         * Default value for the shortest hedge delay in milliseconds.
+         */
+        public static final long DEFAULT_MIN_DELAY = 10L;
+
+        /**
+         * Default value for the hedges allowed per hundred requests.
+         */
+        public static final int DEFAULT_BUDGET_PERCENT = 10;
+
+        /**
+         * Default value for the burst of hedges allowed by the budget.
+         */
+        public static final int DEFAULT_BUDGET_CAPACITY = 5;
+
+        /**
+         * Default value for the pool threads running the attempts of blocking hedged requests.
+         */
+        public static final int DEFAULT_MAX_THREADS = 50;
+
+        private boolean enable;
+        /**
+         * http methods which are hedged, sent a second time when slow
+         */
+        private List<String> methods = new ArrayList<>(List.of("GET", "HEAD"));
+        /**
+         * fixed delay in milliseconds before a request is hedged, 0 to use the observed percentile
+         */
+        private long delay = 0L;
+        /**
+         * percentile of the recent response times used as hedge delay, between 0 and 1
+         */
+        private double percentile = DEFAULT_PERCENTILE;
+        /**
+         * response times observed before requests are hedged on the percentile
+         */
+        private int minSamples = DEFAULT_MIN_SAMPLES;
+        /**
+         * shortest hedge delay in milliseconds
+         */
+        private long minDelay = DEFAULT_MIN_DELAY;
+        /**
+         * hedges allowed per hundred hedged requests of the service
+         */
+        private int budgetPercent = DEFAULT_BUDGET_PERCENT;
+        /**
+         * burst of hedges allowed by the budget after a quiet period
+         */
+        private int budgetCapacity = DEFAULT_BUDGET_CAPACITY;
+        /**
+         * pool threads running the attempts of blocking hedged requests, requests over it are not hedged
+         */
+        private int maxThreads = DEFAULT_MAX_THREADS;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public long getDelay() {
+            return delay;
+        }
+
+        public void setDelay(long delay) {
+            this.delay = delay;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public long getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(long minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getBudgetCapacity() {
+            return budgetCapacity;
+        }
+
+        public void setBudgetCapacity(int budgetCapacity) {
+            this.budgetCapacity = budgetCapacity;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+    }
+
+    public static class ConcurrencyLimitConfiguration {
+
+        /**
+         * Default value for the concurrency limit before any response time is known.
+         */
+        public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+        /**
+         * Default value for the lowest concurrency limit.
+         */
+        public static final int DEFAULT_MIN_LIMIT = 5;
+
+        /**
+         * Default value for the highest concurrency limit.
+         */
+        public static final int DEFAULT_MAX_LIMIT = 200;
+
+        /**
+         * Default value for the growth of the response time over the no-load response time tolerated before the limit shrinks.
+         */
+        public static final double DEFAULT_RTT_TOLERANCE = 1.5;
+
+        /**
+         * Default value for the share of a new estimate taken into the limit.
+         */
+        public static final double DEFAULT_SMOOTHING = 0.2;
+
+        /**
+         * Default value for the responses averaged into the no-load response time.
+         */
+        public static final int DEFAULT_LONG_WINDOW = 600;
+
+        private boolean enable;
+        /**
+         * concurrency limit before any response time is known
+         */
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        /**
+         * lowest concurrency limit
+         */
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        /**
+         * highest concurrency limit
+         */
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+        /**
+         * growth of the response time over the no-load response time tolerated before the limit shrinks
+         */
+        private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+        /**
+         * share of a new estimate taken into the limit, between 0 and 1
+         */
+        private double smoothing = DEFAULT_SMOOTHING;
+        /**
+         * responses averaged into the no-load response time
+         */
+        private int longWindow = DEFAULT_LONG_WINDOW;
+        /**
+         * longest wait in milliseconds for a permit while the limit is reached, 0 to reject right away
+         */
+        private long maxWait = 0L;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    public static class CircuitBreakerConfiguration {
+
+        /**
+         * Default value for the calls, or seconds, of the sliding window.
+         */
+        public static final int DEFAULT_WINDOW_SIZE = 100;
+
+        /**
+         * Default value for the calls in the window before the rates are evaluated.
+         */
+        public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+        /**
+         * Default value for the percentage of failed calls opening the circuit.
+         */
+        public static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+        /**
+         * Default value for the percentage of slow calls opening the circuit.
+         */
+        public static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+
+        /**
+         * Default value for the duration in milliseconds above which a call is slow.
+         */
+        public static final long DEFAULT_SLOW_CALL_DURATION = 5000L;
+
+        /**
+         * Default value for the time in milliseconds the circuit stays open before probing.
+         */
+        public static final long DEFAULT_OPEN_DURATION = 30000L;
+
+        /**
+         * Default value for the probe calls deciding whether a half open circuit closes.
+         */
+        public static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+        private boolean enable;
+        /**
+         * unit of the sliding window, calls or seconds
+         */
+        private SlidingWindowType windowType = SlidingWindowType.COUNT_BASED;
+        /**
+         * calls, or seconds, of the sliding window
+         */
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        /**
+         * calls in the window before the rates are evaluated
+         */
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+        /**
+         * percentage of failed calls opening the circuit
+         */
+        private int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        /**
+         * percentage of slow calls opening the circuit
+         */
+        private int slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        /**
+         * duration in milliseconds above which a call is slow
+         */
+        private long slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+        /**
+         * time in milliseconds the circuit stays open before letting probe calls through
+         */
+        private long openDuration = DEFAULT_OPEN_DURATION;
+        /**
+         * probe calls deciding whether a half open circuit closes
+         */
+        private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+        /**
+         * response status codes recorded as failures, besides exceptions
+         */
+        private List<Integer> failureStatusCodes = new ArrayList<>(List.of(500, 502, 503, 504));
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public SlidingWindowType getWindowType() {
+            return windowType;
+        }
+
+        public void setWindowType(SlidingWindowType windowType) {
+            this.windowType = windowType;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(long slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public long getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(long openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public List<Integer> getFailureStatusCodes() {
+            return failureStatusCodes;
+        }
+
+        public void setFailureStatusCodes(List<Integer> failureStatusCodes) {
+            this.failureStatusCodes = failureStatusCodes;
+        }
+    }
+
+    public static class BulkheadConfiguration {
+
+        /**
+         * Default value for the calls running at the same time.
+         */
+        public static final int DEFAULT_MAX_CONCURRENT_CALLS = 25;
+
+        /**
+         * Default value for the calls queued for the dedicated pool.
+         */
+        public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+        private boolean enable;
+        /**
+         * isolation of the calls, on the caller thread or on a dedicated pool
+         */
+        private BulkheadType type = BulkheadType.SEMAPHORE;
+        /**
+         * calls running at the same time, the threads of the dedicated pool
+         */
+        private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+        /**
+         * longest wait in milliseconds for a semaphore permit, 0 to reject right away
+         */
+        private long maxWait = 0L;
+        /**
+         * calls queued for the dedicated pool, 0 to reject when all threads are busy
+         */
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public BulkheadType getType() {
+            return type;
+        }
+
+        public void setType(BulkheadType type) {
+            this.type = type;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class DeadlineConfiguration {
+
+        private boolean enable;
+        /**
+         * send the remaining budget downstream in the X-Request-Timeout header
+         */
+        private boolean propagate = true;
+
+        public boolean isEnable() {
+            return enable;
+        }
+
+        public void setEnable(boolean enable) {
+            this.enable = enable;
+        }
+
+        public boolean isPropagate() {
+            return propagate;
+        }
+
+        public void setPropagate(boolean propagate) {
+            this.propagate = propagate;
+        }
+    }
 }
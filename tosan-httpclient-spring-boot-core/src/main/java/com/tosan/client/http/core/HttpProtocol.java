@@ -0,0 +1,28 @@
+package com.tosan.client.http.core;
+
+/**
+ * HTTP protocol version used to talk to an external service.
+ * HTTP/2 variants are served by the async transport only.
+ */
+public enum HttpProtocol {
+    /**
+     * HTTP/1.1 only
+     */
+    HTTP_1_1,
+    /**
+     * HTTP/2 over TLS, negotiated via ALPN
+     */
+    HTTP_2,
+    /**
+     * HTTP/2 over plain text with prior knowledge
+     */
+    H2C,
+    /**
+     * HTTP/2 if the server agrees during the TLS handshake, HTTP/1.1 otherwise
+     */
+    NEGOTIATE;
+
+    public boolean isHttp2Capable() {
+        return this != HTTP_1_1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tosan.client.http.core;
+
+/**
+ * Selection of the endpoint of a service with more than one base service url, made per request.
+ */
+public enum LoadBalancerType {
+    /**
+     * endpoints in turn
+     */
+    ROUND_ROBIN,
+    /**
+     * the endpoint with less requests in flight out of two random ones
+     */
+    POWER_OF_TWO_CHOICES,
+    /**
+     * the endpoint with the lowest moving average of response time, weighted by its requests in flight
+     */
+    LEAST_LATENCY,
+    /**
+     * the endpoint owning the key of the request on a hash ring, moving on while it is loaded above the bound
+     */
+    CONSISTENT_HASH
+}
@@ -0,0 +1,15 @@
+package com.tosan.client.http.core;
+
+/**
+ * Unit of the sliding window a circuit breaker computes its failure and slow call rates over.
+ */
+public enum SlidingWindowType {
+    /**
+     * last {@code windowSize} calls
+     */
+    COUNT_BASED,
+    /**
+     * calls of the last {@code windowSize} seconds
+     */
+    TIME_BASED
+}
@@ -0,0 +1,99 @@
+package com.tosan.client.http.core.balancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash ring with a number of virtual nodes per endpoint, selecting endpoints with bounded loads: the endpoint owning a
+ * key is skipped while its requests in flight reach {@code loadFactor} times the average of the candidates, and the
+ * key moves on to the next endpoint of the ring. Keys of an endpoint which leaves or joins the candidates move
+ * to or from its neighbours only.
+ */
+public class ConsistentHashRing {
+    private final long[] hashes;
+    private final ServiceEndpoint[] owners;
+    private final int[] ownerIndexes;
+    private final Map<ServiceEndpoint, Integer> indexes = new IdentityHashMap<>();
+
+    /**
+     * @param endpoints endpoints placed on the ring
+     * @param replicas  virtual nodes per endpoint
+     */
+    public ConsistentHashRing(List<ServiceEndpoint> endpoints, int replicas) {
+        int nodes = Math.max(1, replicas);
+        long[][] points = new long[endpoints.size() * nodes][];
+        for (int i = 0; i < endpoints.size(); i++) {
+            for (int j = 0; j < nodes; j++) {
+                points[i * nodes + j] = new long[]{hash(endpoints.get(i).getUrl() + "#" + j), i};
+            }
+        }
+        Arrays.sort(points, (a, b) -> Long.compare(a[0], b[0]));
+        this.hashes = new long[points.length];
+        this.owners = new ServiceEndpoint[points.length];
+        this.ownerIndexes = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            hashes[i] = points[i][0];
+            ownerIndexes[i] = (int) points[i][1];
+            owners[i] = endpoints.get(ownerIndexes[i]);
+        }
+        for (int i = 0; i < endpoints.size(); i++) {
+            indexes.put(endpoints.get(i), i);
+        }
+    }
+
+    /**
+     * @param key        key of the request
+     * @param candidates endpoints the request may be sent to, all placed on the ring
+     * @param loadFactor bound of the requests in flight of an endpoint relative to the average, at least 1
+     * @return first candidate clockwise from the key with room under the bound
+     */
+    public ServiceEndpoint choose(String key, List<ServiceEndpoint> candidates, double loadFactor) {
+        int inFlight = 0;
+        boolean[] allowed = new boolean[indexes.size()];
+        for (ServiceEndpoint endpoint : candidates) {
+            inFlight += endpoint.getInFlight();
+            Integer endpointIndex = indexes.get(endpoint);
+            if (endpointIndex != null) {
+                allowed[endpointIndex] = true;
+            }
+        }
+        double capacity = Math.ceil(Math.max(1, loadFactor) * (inFlight + 1) / candidates.size());
+        int index = Arrays.binarySearch(hashes, hash(key));
+        int start = index >= 0 ? index : -index - 1;
+        ServiceEndpoint owner = null;
+        for (int i = 0; i < hashes.length; i++) {
+            int point = (start + i) % hashes.length;
+            if (!allowed[ownerIndexes[point]]) {
+                continue;
+            }
+            ServiceEndpoint endpoint = owners[point];
+            if (endpoint.getInFlight() + 1 <= capacity) {
+                return endpoint;
+            }
+            if (owner == null) {
+                owner = endpoint;
+            }
+        }
+        return owner != null ? owner : candidates.get(0);
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer, spreading similar keys over the ring.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tosan.client.http.core.balancer;
+
+import com.tosan.client.http.core.HashKeySource;
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+import org.slf4j.MDC;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.function.Function;
+
+/**
+ * Reads the key of consistent hash routing from a header, a path variable or an MDC entry.
+ * <p>
+ * Path patterns are matched against the start of the request path relative to the base service url, so
+ * {@code /customers/{customerId}} also matches {@code /customers/42/orders}.
+ */
+public class HashKeyExtractor {
+    private final HashKeySource source;
+    private final String name;
+    private final PathPattern pathPattern;
+
+    public HashKeyExtractor(HttpClientProperties.LoadBalancerConfiguration configuration) {
+        this.source = configuration.getHashKeySource();
+        this.name = configuration.getHashKeyName();
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("Hash key name is required for consistent hash routing");
+        }
+        if (source == HashKeySource.PATH_VARIABLE) {
+            if (StringUtils.isBlank(configuration.getHashKeyPathPattern())) {
+                throw new IllegalArgumentException("Hash key path pattern is required for path variable keys");
+            }
+            this.pathPattern = PathPatternParser.defaultInstance.parse(configuration.getHashKeyPathPattern());
+        } else {
+            this.pathPattern = null;
+        }
+    }
+
+    /**
+     * @param path    request path relative to the base service url, may include the query
+     * @param headers first value of a request header by name
+     * @return key of the request, or null when the request has none
+     */
+    public String extract(String path, Function<String, String> headers) {
+        String key = switch (source) {
+            case HEADER -> headers.apply(name);
+            case PATH_VARIABLE -> extractPathVariable(path);
+            case MDC -> MDC.get(name);
+        };
+        return StringUtils.isEmpty(key) ? null : key;
+    }
+
+    private String extractPathVariable(String path) {
+        if (path == null) {
+            return null;
+        }
+        String pathOnly = StringUtils.substringBefore(StringUtils.substringBefore(path, "?"), "#");
+        PathPattern.PathRemainingMatchInfo match = pathPattern.matchStartOfPath(
+                PathContainer.parsePath(Strings.CS.prependIfMissing(pathOnly, "/")));
+        return match == null ? null : match.getUriVariables().get(name);
+    }
+}
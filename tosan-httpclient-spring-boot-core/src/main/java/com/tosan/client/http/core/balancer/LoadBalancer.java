@@ -0,0 +1,321 @@
+package com.tosan.client.http.core.balancer;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.LoadBalancerType;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Client side load balancer over the base service urls of a service, selecting an endpoint per request.
+ * <p>
+ * Request urls are built on the base service url (the first endpoint unless {@code baseServiceUrl} is set) and
+ * rewritten with {@link #rewrite(String, ServiceEndpoint)} to the selected endpoint, so callers keep generating urls
+ * the same way with or without balancing.
+ * <p>
+ * When the zone of the caller is configured, requests stay on the endpoints of that zone while their utilization
+ * (requests in flight per connection allowed to an endpoint) is below the threshold. Above it, the share of requests
+ * sent to the other zones grows in proportion to the excess, up to all of them at full utilization.
+ * <p>
+ * With {@link LoadBalancerType#CONSISTENT_HASH} requests with the same key go to the same endpoint as long as its
+ * load stays bounded, keeping the caches of the endpoints warm. Requests without a key are sent in turn.
+ * <p>
+ * Endpoints ejected by the {@link OutlierDetector} are left out before any of the above.
+ */
+public class LoadBalancer {
+    private final String baseUrl;
+    private final List<ServiceEndpoint> endpoints;
+    private final LoadBalancerType type;
+    private final String zone;
+    private final double zoneUtilizationThreshold;
+    private final int endpointCapacity;
+    private final List<ServiceEndpoint> localEndpoints;
+    private final List<ServiceEndpoint> remoteEndpoints;
+    private final HashKeyExtractor hashKeyExtractor;
+    private final ConsistentHashRing hashRing;
+    private final double hashLoadFactor;
+    private final OutlierDetector outlierDetector;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * @param baseUrl       url request urls are built on
+     * @param urls          base urls of the instances of the service
+     * @param configuration selection type, latency weight and zones
+     */
+    public LoadBalancer(String baseUrl, List<String> urls, HttpClientProperties.LoadBalancerConfiguration configuration) {
+        this(baseUrl, urls, configuration, HttpClientProperties.ConnectionConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+    }
+
+    /**
+     * @param endpointCapacity connections allowed to each endpoint, the base of the zone utilization
+     */
+    public LoadBalancer(String baseUrl, List<String> urls, HttpClientProperties.LoadBalancerConfiguration configuration,
+                        int endpointCapacity) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one service url is required");
+        }
+        this.baseUrl = trimTrailingSlash(baseUrl);
+        this.type = configuration.getType();
+        this.zone = StringUtils.trimToNull(configuration.getZone());
+        this.zoneUtilizationThreshold = configuration.getZoneUtilizationThreshold();
+        this.endpointCapacity = Math.max(1, endpointCapacity);
+        Map<String, String> endpointZones = new HashMap<>();
+        configuration.getEndpointZones().forEach((url, endpointZone) ->
+                endpointZones.put(trimTrailingSlash(url), endpointZone));
+        List<ServiceEndpoint> endpoints = new ArrayList<>();
+        List<ServiceEndpoint> localEndpoints = new ArrayList<>();
+        List<ServiceEndpoint> remoteEndpoints = new ArrayList<>();
+        for (String url : urls) {
+            String endpointUrl = trimTrailingSlash(url);
+            ServiceEndpoint endpoint = new ServiceEndpoint(endpointUrl, endpointZones.get(endpointUrl),
+                    configuration.getLatencyWeight());
+            endpoints.add(endpoint);
+            if (zone != null && zone.equals(endpoint.getZone())) {
+                localEndpoints.add(endpoint);
+            } else {
+                remoteEndpoints.add(endpoint);
+            }
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.localEndpoints = List.copyOf(localEndpoints);
+        this.remoteEndpoints = List.copyOf(remoteEndpoints);
+        if (type == LoadBalancerType.CONSISTENT_HASH) {
+            this.hashKeyExtractor = new HashKeyExtractor(configuration);
+            this.hashRing = new ConsistentHashRing(this.endpoints, configuration.getHashReplicas());
+        } else {
+            this.hashKeyExtractor = null;
+            this.hashRing = null;
+        }
+        this.hashLoadFactor = configuration.getHashLoadFactor();
+        this.outlierDetector = configuration.getOutlierDetection().isEnable() ?
+                new OutlierDetector(this.endpoints, configuration.getOutlierDetection()) : null;
+    }
+
+    /**
+     * @return balancer over {@code baseServiceUrls}, or null when the service has a single base service url
+     */
+    public static LoadBalancer create(HttpClientProperties properties) {
+        if (properties.getBaseServiceUrls() == null || properties.getBaseServiceUrls().isEmpty()) {
+            return null;
+        }
+        return new LoadBalancer(properties.getBaseServiceUrl(), properties.getBaseServiceUrls(),
+                properties.getLoadBalancer(), properties.getConnection().getMaxConnectionsPerRoute());
+    }
+
+    /**
+     * @return endpoint to send the next request to
+     */
+    public ServiceEndpoint choose() {
+        return choose(null, name -> null);
+    }
+
+    /**
+     * @param url     url of the request, absolute or relative to the base url
+     * @param headers first value of a request header by name
+     * @return endpoint to send the request to
+     */
+    public ServiceEndpoint choose(String url, Function<String, String> headers) {
+        List<ServiceEndpoint> candidates = selectCandidates();
+        if (hashRing != null) {
+            String key = hashKeyExtractor.extract(relativePath(url), headers);
+            if (key != null) {
+                return hashRing.choose(key, candidates, hashLoadFactor);
+            }
+        }
+        return choose(candidates);
+    }
+
+    private List<ServiceEndpoint> selectCandidates() {
+        if (outlierDetector == null) {
+            return selectZone(endpoints, localEndpoints, remoteEndpoints);
+        }
+        List<ServiceEndpoint> available = outlierDetector.filter(endpoints);
+        if (available == endpoints) {
+            return selectZone(endpoints, localEndpoints, remoteEndpoints);
+        }
+        return selectZone(available, outlierDetector.filter(localEndpoints), outlierDetector.filter(remoteEndpoints));
+    }
+
+    private List<ServiceEndpoint> selectZone(List<ServiceEndpoint> all, List<ServiceEndpoint> local,
+                                             List<ServiceEndpoint> remote) {
+        if (local.isEmpty() || remote.isEmpty()) {
+            return all;
+        }
+        double utilization = getUtilization(local);
+        if (utilization <= zoneUtilizationThreshold) {
+            return local;
+        }
+        double spill = zoneUtilizationThreshold >= 1 ? 1 :
+                (utilization - zoneUtilizationThreshold) / (1 - zoneUtilizationThreshold);
+        return ThreadLocalRandom.current().nextDouble() < spill ? remote : local;
+    }
+
+    /**
+     * @return requests in flight to the endpoints of the caller zone per connection allowed to them
+     */
+    public double getLocalUtilization() {
+        return localEndpoints.isEmpty() ? 0 : getUtilization(localEndpoints);
+    }
+
+    private double getUtilization(List<ServiceEndpoint> zoneEndpoints) {
+        int inFlight = 0;
+        for (ServiceEndpoint endpoint : zoneEndpoints) {
+            inFlight += endpoint.getInFlight();
+        }
+        return inFlight / (double) (zoneEndpoints.size() * endpointCapacity);
+    }
+
+    private ServiceEndpoint choose(List<ServiceEndpoint> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        return switch (type) {
+            case POWER_OF_TWO_CHOICES -> choosePowerOfTwo(candidates);
+            case LEAST_LATENCY -> chooseLeastLatency(candidates);
+            default -> candidates.get(Math.floorMod(counter.getAndIncrement(), candidates.size()));
+        };
+    }
+
+    private ServiceEndpoint choosePowerOfTwo(List<ServiceEndpoint> candidates) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceEndpoint a = candidates.get(first);
+        ServiceEndpoint b = candidates.get(second);
+        return b.getInFlight() < a.getInFlight() ? b : a;
+    }
+
+    private ServiceEndpoint chooseLeastLatency(List<ServiceEndpoint> candidates) {
+        ServiceEndpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        int offset = Math.floorMod(counter.getAndIncrement(), candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            ServiceEndpoint endpoint = candidates.get((offset + i) % candidates.size());
+            double latency = endpoint.getLatencyEwma();
+            if (latency < 0) {
+                return endpoint;
+            }
+            double score = latency * (endpoint.getInFlight() + 1);
+            if (score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Moves a request built for one endpoint to a newly selected one, for retries and hedges.
+     *
+     * @param url     url of the request on one of the endpoints
+     * @param headers first value of a request header by name
+     * @return {@code url} on the selected endpoint, or {@code url} when it is not on an endpoint
+     */
+    public String reroute(String url, Function<String, String> headers) {
+        ServiceEndpoint current = findEndpoint(url);
+        if (current == null) {
+            return url;
+        }
+        String path = url.substring(current.getUrl().length());
+        return choose(baseUrl + path, headers).getUrl() + path;
+    }
+
+    /**
+     * @return {@code url} with the base url replaced by the url of {@code endpoint}, unchanged when not built on the
+     * base url
+     */
+    public String rewrite(String url, ServiceEndpoint endpoint) {
+        if (!isPrefix(baseUrl, url)) {
+            return url;
+        }
+        return endpoint.getUrl() + url.substring(baseUrl.length());
+    }
+
+    /**
+     * @see #rewrite(String, ServiceEndpoint)
+     */
+    public URI rewrite(URI uri, ServiceEndpoint endpoint) {
+        String url = uri.toString();
+        String rewritten = rewrite(url, endpoint);
+        return rewritten.equals(url) ? uri : URI.create(rewritten);
+    }
+
+    /**
+     * @return endpoint whose url {@code url} starts with, or null
+     */
+    public ServiceEndpoint findEndpoint(String url) {
+        if (url == null) {
+            return null;
+        }
+        ServiceEndpoint found = null;
+        for (ServiceEndpoint endpoint : endpoints) {
+            if (isPrefix(endpoint.getUrl(), url)
+                    && (found == null || endpoint.getUrl().length() > found.getUrl().length())) {
+                found = endpoint;
+            }
+        }
+        return found;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public List<ServiceEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return outlier detector of the endpoints, or null when outlier detection is disabled
+     */
+    public OutlierDetector getOutlierDetector() {
+        return outlierDetector;
+    }
+
+    /**
+     * @return zone of the caller, or null when routing is not zone aware
+     */
+    public String getZone() {
+        return zone;
+    }
+
+    private String relativePath(String url) {
+        if (url == null) {
+            return null;
+        }
+        if (isPrefix(baseUrl, url)) {
+            return url.substring(baseUrl.length());
+        }
+        ServiceEndpoint endpoint = findEndpoint(url);
+        if (endpoint != null) {
+            return url.substring(endpoint.getUrl().length());
+        }
+        return url;
+    }
+
+    private static boolean isPrefix(String prefix, String url) {
+        if (url == null || !url.startsWith(prefix)) {
+            return false;
+        }
+        if (url.length() == prefix.length()) {
+            return true;
+        }
+        char next = url.charAt(prefix.length());
+        return next == '/' || next == '?' || next == '#';
+    }
+
+    private static String trimTrailingSlash(String url) {
+        return Strings.CS.removeEnd(url, "/");
+    }
+}
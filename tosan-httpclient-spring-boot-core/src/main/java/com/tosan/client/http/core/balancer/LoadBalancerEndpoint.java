@@ -0,0 +1,53 @@
+package com.tosan.client.http.core.balancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator view of the endpoints of every load balanced service, with their load and outlier ejection state.
+ */
+@Endpoint(id = LoadBalancerEndpoint.ID)
+public class LoadBalancerEndpoint {
+    public static final String ID = "httpclientloadbalancers";
+
+    private final LoadBalancerRegistry registry;
+
+    public LoadBalancerEndpoint(LoadBalancerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> loadBalancers() {
+        Map<String, List<Map<String, Object>>> services = new LinkedHashMap<>();
+        registry.getAll().forEach((name, loadBalancer) -> services.put(name, describe(loadBalancer)));
+        return services;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> loadBalancer(@Selector String name) {
+        LoadBalancer loadBalancer = registry.get(name);
+        return loadBalancer == null ? null : describe(loadBalancer);
+    }
+
+    private List<Map<String, Object>> describe(LoadBalancer loadBalancer) {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (ServiceEndpoint endpoint : loadBalancer.getEndpoints()) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("url", endpoint.getUrl());
+            description.put("zone", endpoint.getZone());
+            description.put("inFlight", endpoint.getInFlight());
+            description.put("latency", endpoint.getLatencyEwma());
+            description.put("ejected", endpoint.isEjected());
+            description.put("ejections", endpoint.getEjectionCount());
+            description.put("consecutiveFailures", endpoint.getConsecutiveFailures());
+            endpoints.add(description);
+        }
+        return endpoints;
+    }
+}
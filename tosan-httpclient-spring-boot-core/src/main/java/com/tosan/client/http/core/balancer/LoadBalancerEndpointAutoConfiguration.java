@@ -0,0 +1,21 @@
+package com.tosan.client.http.core.balancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link LoadBalancerEndpoint} when Spring Boot Actuator is on the classpath.
+ */
+@AutoConfiguration(after = LoadBalancerRegistryAutoConfiguration.class)
+@ConditionalOnClass(Endpoint.class)
+public class LoadBalancerEndpointAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LoadBalancerEndpoint loadBalancerEndpoint(LoadBalancerRegistry loadBalancerRegistry) {
+        return new LoadBalancerEndpoint(loadBalancerRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tosan.client.http.core.balancer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the requests in flight, moving average response time and outlier ejections of every endpoint of a
+ * {@link LoadBalancer}, tagged with {@value #CLIENT_NAME_TAG} (the external service name) and {@value #ENDPOINT_TAG}.
+ */
+public class LoadBalancerMetrics implements MeterBinder {
+    public static final String METER_PREFIX = "http.client.lb.endpoint.";
+    public static final String CLIENT_NAME_TAG = "client.name";
+    public static final String ENDPOINT_TAG = "endpoint";
+
+    private final String clientName;
+    private final LoadBalancer loadBalancer;
+
+    public LoadBalancerMetrics(String clientName, LoadBalancer loadBalancer) {
+        this.clientName = clientName;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ServiceEndpoint endpoint : loadBalancer.getEndpoints()) {
+            Tags tags = Tags.of(CLIENT_NAME_TAG, clientName, ENDPOINT_TAG, endpoint.getUrl());
+            Gauge.builder(METER_PREFIX + "inflight", endpoint, ServiceEndpoint::getInFlight)
+                    .description("Requests in flight to the endpoint")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder(METER_PREFIX + "latency", endpoint, e -> Math.max(0, e.getLatencyEwma()))
+                    .description("Moving average response time of the endpoint")
+                    .baseUnit("milliseconds")
+                    .tags(tags)
+                    .register(registry);
+            if (loadBalancer.getOutlierDetector() != null) {
+                Gauge.builder(METER_PREFIX + "ejected", endpoint, e -> e.isEjected() ? 1 : 0)
+                        .description("Whether the endpoint is ejected by outlier detection")
+                        .tags(tags)
+                        .register(registry);
+                FunctionCounter.builder(METER_PREFIX + "ejections", endpoint, ServiceEndpoint::getEjectionCount)
+                        .description("Ejections of the endpoint by outlier detection")
+                        .tags(tags)
+                        .register(registry);
+            }
+        }
+    }
+}
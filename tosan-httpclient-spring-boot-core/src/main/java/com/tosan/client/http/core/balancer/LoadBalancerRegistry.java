@@ -0,0 +1,31 @@
+package com.tosan.client.http.core.balancer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Load balancers of the application context by external service name, read by {@link LoadBalancerEndpoint}. Client
+ * configurations register into the {@link LoadBalancerRegistryAutoConfiguration registry bean}.
+ */
+public class LoadBalancerRegistry {
+    private final Map<String, LoadBalancer> loadBalancers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name external service name, replacing an earlier balancer of the same name
+     */
+    public void register(String name, LoadBalancer loadBalancer) {
+        loadBalancers.put(name, loadBalancer);
+    }
+
+    public LoadBalancer get(String name) {
+        return loadBalancers.get(name);
+    }
+
+    /**
+     * @return registered balancers sorted by name
+     */
+    public Map<String, LoadBalancer> getAll() {
+        return new TreeMap<>(loadBalancers);
+    }
+}
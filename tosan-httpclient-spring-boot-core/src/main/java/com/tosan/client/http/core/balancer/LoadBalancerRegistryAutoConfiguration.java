@@ -0,0 +1,18 @@
+package com.tosan.client.http.core.balancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the {@link LoadBalancerRegistry} the client configurations of the context register their balancers into.
+ */
+@AutoConfiguration
+public class LoadBalancerRegistryAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LoadBalancerRegistry loadBalancerRegistry() {
+        return new LoadBalancerRegistry();
+    }
+}
@@ -0,0 +1,132 @@
+package com.tosan.client.http.core.balancer;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passive outlier detection over the endpoints of a {@link LoadBalancer}, judging each endpoint on the outcomes of
+ * the requests it serves.
+ * <p>
+ * An endpoint is ejected after {@code consecutiveFailures} 5xx responses or connect failures in a row, or when its
+ * moving average response time exceeds {@code latencyFactor} times the median of its peers. It sits out for
+ * {@code baseEjectionTime}, doubled for every further ejection up to {@code maxEjectionTime}, and then takes
+ * requests again: the first outcome is the probe, a failure ejects it right away. The doubling resets once the
+ * endpoint stays healthy for {@code maxEjectionTime}. At most {@code maxEjectionPercent} of the endpoints are
+ * ejected at the same time, and when every candidate is ejected the ejections are ignored.
+ */
+public class OutlierDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutlierDetector.class);
+    private static final int MAX_EJECTION_LEVEL = 30;
+
+    private final List<ServiceEndpoint> endpoints;
+    private final HttpClientProperties.OutlierDetectionConfiguration configuration;
+
+    /**
+     * @param endpoints     endpoints judged, each reporting its outcomes to this detector
+     * @param configuration thresholds and ejection periods
+     */
+    public OutlierDetector(List<ServiceEndpoint> endpoints,
+                           HttpClientProperties.OutlierDetectionConfiguration configuration) {
+        this.endpoints = endpoints;
+        this.configuration = configuration;
+        endpoints.forEach(endpoint -> endpoint.setOutlierDetector(this));
+    }
+
+    /**
+     * @param candidates endpoints eligible for a request
+     * @return candidates not ejected, or all candidates when every one is ejected
+     */
+    public List<ServiceEndpoint> filter(List<ServiceEndpoint> candidates) {
+        long now = System.nanoTime();
+        List<ServiceEndpoint> available = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            ServiceEndpoint endpoint = candidates.get(i);
+            if (!endpoint.isAvailable(now)) {
+                if (available == null) {
+                    available = new ArrayList<>(candidates.subList(0, i));
+                }
+            } else if (available != null) {
+                available.add(endpoint);
+            }
+        }
+        return available == null || available.isEmpty() ? candidates : available;
+    }
+
+    /**
+     * @return number of endpoints currently ejected
+     */
+    public int getEjectedCount() {
+        long now = System.nanoTime();
+        int ejected = 0;
+        for (ServiceEndpoint endpoint : endpoints) {
+            if (!endpoint.isAvailable(now)) {
+                ejected++;
+            }
+        }
+        return ejected;
+    }
+
+    void onComplete(ServiceEndpoint endpoint, boolean failure) {
+        if (!endpoint.isAvailable(System.nanoTime())) {
+            return;
+        }
+        if (failure) {
+            int failures = endpoint.recordFailure();
+            if (endpoint.isProbing()) {
+                eject(endpoint, "failed probe");
+            } else if (failures >= configuration.getConsecutiveFailures()) {
+                eject(endpoint, failures + " consecutive failures");
+            }
+        } else {
+            endpoint.recordSuccess();
+            if (isSlow(endpoint)) {
+                eject(endpoint, "response time " + Math.round(endpoint.getLatencyEwma()) + " ms");
+            }
+        }
+    }
+
+    private boolean isSlow(ServiceEndpoint endpoint) {
+        double latency = endpoint.getLatencyEwma();
+        if (configuration.getLatencyFactor() <= 0 || latency < 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        List<Double> peers = new ArrayList<>();
+        for (ServiceEndpoint peer : endpoints) {
+            if (peer != endpoint && peer.getLatencyEwma() >= 0 && peer.isAvailable(now)) {
+                peers.add(peer.getLatencyEwma());
+            }
+        }
+        if (peers.isEmpty()) {
+            return false;
+        }
+        peers.sort(null);
+        int middle = peers.size() / 2;
+        double median = peers.size() % 2 == 1 ? peers.get(middle) : (peers.get(middle - 1) + peers.get(middle)) / 2;
+        return latency > configuration.getLatencyFactor() * median;
+    }
+
+    private synchronized void eject(ServiceEndpoint endpoint, String reason) {
+        long now = System.nanoTime();
+        if (!endpoint.isAvailable(now)) {
+            return;
+        }
+        int maxEjected = endpoints.size() * configuration.getMaxEjectionPercent() / 100;
+        if (getEjectedCount() >= maxEjected) {
+            LOGGER.debug("Endpoint '{}' not ejected after {}, {} endpoint(s) already ejected", endpoint, reason,
+                    maxEjected);
+            return;
+        }
+        long maxEjectionNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getMaxEjectionTime());
+        int level = now - endpoint.getEjectedUntil() > maxEjectionNanos ? 0 : endpoint.getEjectionLevel();
+        long ejectionMillis = Math.min(configuration.getMaxEjectionTime(),
+                configuration.getBaseEjectionTime() << Math.min(level, MAX_EJECTION_LEVEL));
+        endpoint.eject(now + TimeUnit.MILLISECONDS.toNanos(ejectionMillis), level + 1);
+        LOGGER.warn("Endpoint '{}' ejected for {} ms after {}", endpoint, ejectionMillis, reason);
+    }
+}
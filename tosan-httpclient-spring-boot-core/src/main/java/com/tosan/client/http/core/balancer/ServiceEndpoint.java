@@ -0,0 +1,176 @@
+package com.tosan.client.http.core.balancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base url of one instance of a service with the load statistics the {@link LoadBalancer} selects on.
+ * <p>
+ * Every request sent to the endpoint is bracketed by {@link #start()} and {@link #complete(long, boolean)}, which
+ * maintain the requests in flight and an exponentially weighted moving average of the response time. With outlier
+ * detection, the outcome of each request is reported to the {@link OutlierDetector} of the balancer, which ejects the
+ * endpoint for a period.
+ */
+public class ServiceEndpoint {
+    private final String url;
+    private final String zone;
+    private final double latencyWeight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile double latencyEwma = -1;
+    private volatile OutlierDetector outlierDetector;
+    private volatile long ejectedUntil = System.nanoTime();
+    private volatile boolean ejected;
+    private volatile boolean probing;
+    private volatile int ejectionLevel;
+    private volatile long ejectionCount;
+
+    /**
+     * @param url           base url of the instance, without trailing slash
+     * @param latencyWeight weight of the latest response time in the moving average, between 0 and 1
+     */
+    public ServiceEndpoint(String url, double latencyWeight) {
+        this(url, null, latencyWeight);
+    }
+
+    /**
+     * @param zone availability zone of the instance, or null when unknown
+     */
+    public ServiceEndpoint(String url, String zone, double latencyWeight) {
+        this.url = url;
+        this.zone = zone;
+        this.latencyWeight = latencyWeight;
+    }
+
+    /**
+     * @return start time to pass to {@link #complete(long, boolean)}
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * @param startNanos value returned by {@link #start()}
+     * @param responded  whether a response was received, failed requests do not update the response time
+     */
+    public void complete(long startNanos, boolean responded) {
+        complete(startNanos, responded, false);
+    }
+
+    /**
+     * @param serverError whether the response is a 5xx, counted as a failure by outlier detection
+     */
+    public void complete(long startNanos, boolean responded, boolean serverError) {
+        inFlight.decrementAndGet();
+        if (responded) {
+            recordLatency(System.nanoTime() - startNanos);
+        }
+        OutlierDetector detector = outlierDetector;
+        if (detector != null) {
+            detector.onComplete(this, !responded || serverError);
+        }
+    }
+
+    /**
+     * Ends a request that was not sent, such as one whose deadline had passed, without recording an outcome.
+     *
+     * @param startNanos value returned by {@link #start()}
+     */
+    public void cancel(long startNanos) {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        latencyEwma = latencyEwma < 0 ? millis : latencyEwma + latencyWeight * (millis - latencyEwma);
+    }
+
+    void setOutlierDetector(OutlierDetector outlierDetector) {
+        this.outlierDetector = outlierDetector;
+    }
+
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        probing = false;
+    }
+
+    /**
+     * Takes the endpoint out of selection until {@code until}, after which its first outcome decides whether it
+     * stays. The response time average restarts so the probe is judged on its own latency.
+     */
+    synchronized void eject(long until, int level) {
+        ejectedUntil = until;
+        ejectionLevel = level;
+        ejectionCount++;
+        ejected = true;
+        probing = true;
+        consecutiveFailures.set(0);
+        latencyEwma = -1;
+    }
+
+    boolean isAvailable(long nanoTime) {
+        if (ejected && nanoTime - ejectedUntil >= 0) {
+            ejected = false;
+        }
+        return !ejected;
+    }
+
+    long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    int getEjectionLevel() {
+        return ejectionLevel;
+    }
+
+    boolean isProbing() {
+        return probing;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return moving average of the response time in milliseconds, or -1 before the first response
+     */
+    public double getLatencyEwma() {
+        return latencyEwma;
+    }
+
+    /**
+     * @return whether the endpoint is currently ejected by outlier detection
+     */
+    public boolean isEjected() {
+        return !isAvailable(System.nanoTime());
+    }
+
+    /**
+     * @return number of times the endpoint was ejected by outlier detection
+     */
+    public long getEjectionCount() {
+        return ejectionCount;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -13,8 +13,12 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.security.*;
 import java.security.cert.CertificateException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Loader for certificate (trust/keystore) related stuff
@@ -24,6 +28,7 @@ import java.security.cert.CertificateException;
  */
 public class CertificateLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(CertificateLoader.class);
+    private static final Map<String, Optional<Provider>> PROVIDERS = new ConcurrentHashMap<>();
 
     private CertificateLoader() {
     }
@@ -38,7 +43,7 @@ public class CertificateLoader {
                                              KeyManagerFactory keyManagerFactory,
                                              TrustManagerFactory trustManagerFactory) {
         try {
-            SSLContext sslContext = SSLContext.getInstance(sslConfiguration.getContext());
+            SSLContext sslContext = createSSLContextInstance(sslConfiguration);
             sslContext.init(keyManagerFactory != null ? keyManagerFactory.getKeyManagers() : null,
                     trustManagerFactory != null ? trustManagerFactory.getTrustManagers() : null,
                     null);
@@ -49,25 +54,97 @@ public class CertificateLoader {
         return null;
     }
 
+    /**
+     * @return {@link SSLContext} shared with every client configured with the same stores, or null
+     * @see SSLMaterialCache
+     */
     public static SSLContext buildSSLContext(HttpClientProperties.SSLConfiguration sslConfiguration,
                                              KeyStore keyStore,
                                              KeyStore trustStore) {
+        String password = sslConfiguration.getKeystore().getPassword();
+        Provider provider = getProvider(sslConfiguration);
         try {
-            TrustStrategy trustStrategy = null;
-            if (!sslConfiguration.isCheckValidity()) {
-                trustStrategy = (chain, authType) -> true;
-            }
-            String password = sslConfiguration.getKeystore().getPassword();
-            return SSLContexts.custom().setProtocol(sslConfiguration.getContext())
-                    .loadKeyMaterial(keyStore, password != null ?
-                            sslConfiguration.getKeystore().getPassword().toCharArray() : null)
-                    .loadTrustMaterial(trustStore, trustStrategy).build();
-        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException | UnrecoverableKeyException ex) {
+            return SSLMaterialCache.getSharedInstance().getSSLContext(keyStore, trustStore,
+                    sslConfiguration.getContext(), provider != null ? provider.getName() : null,
+                    sslConfiguration.isCheckValidity(), password, sslConfiguration.getSessionCacheSize(),
+                    sslConfiguration.getSessionTimeout(),
+                    () -> createSSLContext(sslConfiguration, keyStore, trustStore, password));
+        } catch (GeneralSecurityException ex) {
             LOGGER.error("Could not build SSLContext, skipping", ex);
         }
         return null;
     }
 
+    private static SSLContext createSSLContext(HttpClientProperties.SSLConfiguration sslConfiguration,
+                                               KeyStore keyStore, KeyStore trustStore, String password)
+            throws GeneralSecurityException {
+        TrustStrategy trustStrategy = null;
+        if (!sslConfiguration.isCheckValidity()) {
+            trustStrategy = (chain, authType) -> true;
+        }
+        Provider provider = getProvider(sslConfiguration);
+        if (provider != null) {
+            try {
+                return SSLContexts.custom().setProtocol(sslConfiguration.getContext()).setProvider(provider)
+                        .loadKeyMaterial(keyStore, password != null ? password.toCharArray() : null)
+                        .loadTrustMaterial(trustStore, trustStrategy).build();
+            } catch (NoSuchAlgorithmException ex) {
+                LOGGER.warn("Provider '{}' does not support '{}', using the JDK provider", provider.getName(),
+                        sslConfiguration.getContext());
+            }
+        }
+        return SSLContexts.custom().setProtocol(sslConfiguration.getContext())
+                .loadKeyMaterial(keyStore, password != null ? password.toCharArray() : null)
+                .loadTrustMaterial(trustStore, trustStrategy).build();
+    }
+
+    /**
+     * @return {@link SSLContext} instance of the configured protocol from the configured provider, or from the JDK
+     * when no provider is configured or available
+     */
+    public static SSLContext createSSLContextInstance(HttpClientProperties.SSLConfiguration sslConfiguration)
+            throws NoSuchAlgorithmException {
+        Provider provider = getProvider(sslConfiguration);
+        if (provider != null) {
+            try {
+                return SSLContext.getInstance(sslConfiguration.getContext(), provider);
+            } catch (NoSuchAlgorithmException ex) {
+                LOGGER.warn("Provider '{}' does not support '{}', using the JDK provider", provider.getName(),
+                        sslConfiguration.getContext());
+            }
+        }
+        return SSLContext.getInstance(sslConfiguration.getContext());
+    }
+
+    /**
+     * Resolves the configured JSSE provider by registered name or by class name, e.g.
+     * {@code org.conscrypt.OpenSSLProvider}. Providers are resolved once and not registered in {@link Security}.
+     *
+     * @return configured provider, or null when none is configured or it is not available
+     */
+    public static Provider getProvider(HttpClientProperties.SSLConfiguration sslConfiguration) {
+        String name = sslConfiguration.getProvider();
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+        return PROVIDERS.computeIfAbsent(name, CertificateLoader::loadProvider).orElse(null);
+    }
+
+    private static Optional<Provider> loadProvider(String name) {
+        Provider provider = Security.getProvider(name);
+        if (provider != null) {
+            return Optional.of(provider);
+        }
+        try {
+            provider = (Provider) Class.forName(name).getDeclaredConstructor().newInstance();
+            LOGGER.info("JSSE provider '{}' loaded", provider.getName());
+            return Optional.of(provider);
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError ex) {
+            LOGGER.warn("JSSE provider '{}' is not available, using the JDK provider: {}", name, ex.toString());
+            return Optional.empty();
+        }
+    }
+
     /**
      * @param sslConfiguration ssl configuration of http client
      * @return configured {@link TrustManagerFactory} or JVMs default Trust Managers
@@ -131,12 +208,12 @@ public class CertificateLoader {
             LOGGER.debug("Keystore Configuration incomplete, skipping");
             return null;
         }
-        try (FileInputStream is = new FileInputStream(ResourceUtils.getFile(path))) {
-            KeyStore keyStore = KeyStore.getInstance(type);
-            keyStore.load(is, password.toCharArray());
+        try {
+            byte[] content = Files.readAllBytes(ResourceUtils.getFile(path).toPath());
+            KeyStore keyStore = SSLMaterialCache.getSharedInstance().getStore(path, content, password, type);
             LOGGER.debug("Keystore initialized successfully");
             return keyStore;
-        } catch (KeyStoreException | NoSuchAlgorithmException | CertificateException | IOException ex) {
+        } catch (GeneralSecurityException | IOException ex) {
             LOGGER.error("Keystore could not be loaded, skipping", ex);
             return null;
         }
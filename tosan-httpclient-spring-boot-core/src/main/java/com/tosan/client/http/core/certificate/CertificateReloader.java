@@ -0,0 +1,288 @@
+package com.tosan.client.http.core.certificate;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ResourceUtils;
+
+import javax.net.ssl.*;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.*;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds {@link SSLContext}s whose key and trust managers are reloaded when the store files change, using one shared
+ * {@link WatchService} thread.
+ * <p>
+ * On a change of a watched directory the stores of every context are read again through {@link CertificateLoader}
+ * (content addressed, so unchanged files are not decrypted again) and the managers are swapped when the content
+ * changed. New handshakes use the new material, pooled connections keep theirs until their time to live expires.
+ * A store that cannot be loaded is logged and the previous material stays in use; a key store missing at startup starts
+ * with no client certificate and is picked up once the file appears.
+ */
+public class CertificateReloader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CertificateReloader.class);
+    private static final String THREAD_NAME = "tosan-httpclient-certificate-reloader";
+    private static final CertificateReloader SHARED_INSTANCE = new CertificateReloader();
+
+    private final Map<String, ReloadableMaterial> materials = new ConcurrentHashMap<>();
+    private final Map<Path, List<ReloadableMaterial>> watchedDirectories = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * @return reloader shared by all clients of the application
+     */
+    public static CertificateReloader getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * @return reloading {@link SSLContext}, shared with every client configured with the same stores and settings
+     */
+    public SSLContext getSSLContext(HttpClientProperties.SSLConfiguration sslConfiguration)
+            throws GeneralSecurityException, IOException {
+        String key = String.join("|", sslConfiguration.getContext(),
+                String.valueOf(sslConfiguration.getProvider()), String.valueOf(sslConfiguration.isCheckValidity()),
+                String.valueOf(sslConfiguration.getKeystore().getPath()),
+                String.valueOf(sslConfiguration.getTruststore().getPath()),
+                String.valueOf(sslConfiguration.getSessionCacheSize()),
+                String.valueOf(sslConfiguration.getSessionTimeout()));
+        ReloadableMaterial material = materials.get(key);
+        if (material == null) {
+            synchronized (this) {
+                material = materials.get(key);
+                if (material == null) {
+                    material = new ReloadableMaterial(sslConfiguration);
+                    watch(material);
+                    materials.put(key, material);
+                }
+            }
+        }
+        return material.sslContext;
+    }
+
+    /**
+     * Reloads the stores of every context, swapping the managers of the changed ones.
+     *
+     * @return number of contexts whose material changed
+     */
+    public int reloadAll() {
+        int reloaded = 0;
+        for (ReloadableMaterial material : materials.values()) {
+            if (material.reload()) {
+                reloaded++;
+            }
+        }
+        return reloaded;
+    }
+
+    /**
+     * Stops watching and forgets all contexts, contexts in use keep their current material.
+     */
+    public synchronized void shutdown() {
+        if (watchThread != null) {
+            watchThread.interrupt();
+            watchThread = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close certificate watch service", e);
+            }
+            watchService = null;
+        }
+        watchedDirectories.clear();
+        materials.clear();
+    }
+
+    private void watch(ReloadableMaterial material) throws IOException {
+        for (Path path : material.getPaths()) {
+            Path directory = path.toAbsolutePath().getParent();
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                watchThread = new Thread(this::processEvents, THREAD_NAME);
+                watchThread.setDaemon(true);
+                watchThread.start();
+            }
+            if (!watchedDirectories.containsKey(directory)) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                LOGGER.info("Watching '{}' for certificate changes", directory);
+            }
+            watchedDirectories.computeIfAbsent(directory, d -> new CopyOnWriteArrayList<>()).add(material);
+        }
+    }
+
+    private void processEvents() {
+        WatchService service = watchService;
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey watchKey;
+            try {
+                watchKey = service.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) watchKey.watchable();
+            watchKey.pollEvents();
+            watchKey.reset();
+            Set<ReloadableMaterial> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+            changed.addAll(watchedDirectories.getOrDefault(directory, List.of()));
+            changed.forEach(ReloadableMaterial::reload);
+        }
+    }
+
+    private static X509ExtendedKeyManager createKeyManager(KeyStore keyStore, String password)
+            throws GeneralSecurityException {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, password.toCharArray());
+        for (KeyManager keyManager : kmf.getKeyManagers()) {
+            if (keyManager instanceof X509ExtendedKeyManager x509KeyManager) {
+                return x509KeyManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509 key manager available");
+    }
+
+    private static KeyStore createEmptyKeyStore() throws GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try {
+            keyStore.load(null, null);
+        } catch (IOException e) {
+            throw new GeneralSecurityException("Could not create empty keystore", e);
+        }
+        return keyStore;
+    }
+
+    private static X509ExtendedTrustManager createTrustManager(KeyStore trustStore, boolean checkValidity)
+            throws GeneralSecurityException {
+        if (!checkValidity) {
+            return TrustAllManager.INSTANCE;
+        }
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(trustStore);
+        for (TrustManager trustManager : tmf.getTrustManagers()) {
+            if (trustManager instanceof X509ExtendedTrustManager x509TrustManager) {
+                return x509TrustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509 trust manager available");
+    }
+
+    private static class ReloadableMaterial {
+        private final HttpClientProperties.SSLConfiguration sslConfiguration;
+        private final SSLContext sslContext;
+        private ReloadableX509KeyManager keyManager;
+        private final ReloadableX509TrustManager trustManager;
+        private KeyStore keyStore;
+        private KeyStore trustStore;
+
+        private ReloadableMaterial(HttpClientProperties.SSLConfiguration sslConfiguration)
+                throws GeneralSecurityException {
+            this.sslConfiguration = sslConfiguration;
+            keyStore = CertificateLoader.getKeyStore(sslConfiguration);
+            trustStore = CertificateLoader.getTrustStore(sslConfiguration);
+            HttpClientProperties.KeystoreConfiguration keystoreConfiguration = sslConfiguration.getKeystore();
+            if (keyStore != null) {
+                keyManager = new ReloadableX509KeyManager(createKeyManager(keyStore,
+                        keystoreConfiguration.getPassword()));
+            } else if (StringUtils.isNoneBlank(keystoreConfiguration.getPath(), keystoreConfiguration.getPassword())) {
+                LOGGER.warn("Keystore '{}' is not available, client certificate is sent once it is loaded",
+                        keystoreConfiguration.getPath());
+                keyManager = new ReloadableX509KeyManager(createKeyManager(createEmptyKeyStore(),
+                        keystoreConfiguration.getPassword()));
+            }
+            trustManager = new ReloadableX509TrustManager(createTrustManager(trustStore,
+                    sslConfiguration.isCheckValidity()));
+            sslContext = CertificateLoader.createSSLContextInstance(sslConfiguration);
+            sslContext.init(keyManager != null ? new KeyManager[]{keyManager} : null,
+                    new TrustManager[]{trustManager}, null);
+        }
+
+        private List<Path> getPaths() {
+            List<Path> paths = new ArrayList<>();
+            for (String path : Arrays.asList(sslConfiguration.getKeystore().getPath(),
+                    sslConfiguration.getTruststore().getPath())) {
+                if (StringUtils.isBlank(path)) {
+                    continue;
+                }
+                try {
+                    paths.add(ResourceUtils.getFile(path).toPath());
+                } catch (IOException e) {
+                    LOGGER.warn("Store '{}' is not a file, it will not be reloaded", path);
+                }
+            }
+            return paths;
+        }
+
+        private synchronized boolean reload() {
+            KeyStore newKeyStore = CertificateLoader.getKeyStore(sslConfiguration);
+            KeyStore newTrustStore = CertificateLoader.getTrustStore(sslConfiguration);
+            boolean keyStoreChanged = newKeyStore != null && newKeyStore != keyStore && keyManager != null;
+            boolean trustStoreChanged = newTrustStore != null && newTrustStore != trustStore;
+            if (!keyStoreChanged && !trustStoreChanged) {
+                return false;
+            }
+            try {
+                if (keyStoreChanged) {
+                    keyManager.setDelegate(createKeyManager(newKeyStore, sslConfiguration.getKeystore().getPassword()));
+                    keyStore = newKeyStore;
+                }
+                if (trustStoreChanged) {
+                    trustManager.setDelegate(createTrustManager(newTrustStore, sslConfiguration.isCheckValidity()));
+                    trustStore = newTrustStore;
+                }
+                LOGGER.info("Reloaded certificates of keystore '{}' and truststore '{}'",
+                        sslConfiguration.getKeystore().getPath(), sslConfiguration.getTruststore().getPath());
+                return true;
+            } catch (GeneralSecurityException e) {
+                LOGGER.warn("Certificate reload failed, keeping previous material: {}", e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static final class TrustAllManager extends X509ExtendedTrustManager {
+        private static final TrustAllManager INSTANCE = new TrustAllManager();
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) {
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
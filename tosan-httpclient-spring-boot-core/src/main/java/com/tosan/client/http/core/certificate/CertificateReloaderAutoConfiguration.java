@@ -0,0 +1,18 @@
+package com.tosan.client.http.core.certificate;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Exposes the shared {@link CertificateReloader} as a bean, so its watch thread is stopped when the context closes.
+ */
+@AutoConfiguration
+public class CertificateReloaderAutoConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public CertificateReloader certificateReloader() {
+        return CertificateReloader.getSharedInstance();
+    }
+}
@@ -0,0 +1,220 @@
+package com.tosan.client.http.core.certificate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content addressed cache of parsed key/trust stores and of the {@link SSLContext}s built from them, shared by all
+ * clients of the application.
+ * <p>
+ * Stores are keyed by path and type and validated by a SHA-256 digest of the file content and password, so clients
+ * configured with the same material share one {@link KeyStore} and one {@link SSLContext} (and with it the TLS session
+ * cache), while a changed file is loaded again and replaces the stale store and the contexts built from it. Passwords
+ * are only kept as digests. Store loads are timed in {@value #STORE_LOAD_METER} and lookups are counted in
+ * {@value #CACHE_METER}.
+ */
+public class SSLMaterialCache {
+    public static final String STORE_LOAD_METER = "http.client.ssl.store.load";
+    public static final String CACHE_METER = "http.client.ssl.cache";
+    private static final Logger LOGGER = LoggerFactory.getLogger(SSLMaterialCache.class);
+    private static final SSLMaterialCache SHARED_INSTANCE = new SSLMaterialCache(Metrics.globalRegistry);
+
+    private final Map<String, StoreEntry> stores = new ConcurrentHashMap<>();
+    private final Map<ContextKey, SSLContext> contexts = new ConcurrentHashMap<>();
+    private final Timer storeLoadTimer;
+    private final Counter storeHits;
+    private final Counter storeMisses;
+    private final Counter contextHits;
+    private final Counter contextMisses;
+
+    public SSLMaterialCache(MeterRegistry meterRegistry) {
+        storeLoadTimer = Timer.builder(STORE_LOAD_METER)
+                .description("Time to read and decrypt a key or trust store")
+                .register(meterRegistry);
+        storeHits = meterRegistry.counter(CACHE_METER, "cache", "store", "result", "hit");
+        storeMisses = meterRegistry.counter(CACHE_METER, "cache", "store", "result", "miss");
+        contextHits = meterRegistry.counter(CACHE_METER, "cache", "context", "result", "hit");
+        contextMisses = meterRegistry.counter(CACHE_METER, "cache", "context", "result", "miss");
+    }
+
+    /**
+     * @return cache shared by all clients of the application, publishing to the global meter registry
+     */
+    public static SSLMaterialCache getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * @param path     store path, used in the cache key and for logging
+     * @param content  raw store file content
+     * @param password store password
+     * @param type     store type, e.g. JKS or PKCS12
+     * @return parsed store, shared with every caller passing the same content, password and type
+     */
+    public KeyStore getStore(String path, byte[] content, String password, String type)
+            throws GeneralSecurityException, IOException {
+        String key = path + "|" + type;
+        String digest = digest(content, password.getBytes(StandardCharsets.UTF_8));
+        StoreEntry entry = stores.get(key);
+        if (entry != null && entry.digest.equals(digest)) {
+            storeHits.increment();
+            return entry.keyStore;
+        }
+        storeMisses.increment();
+        long start = System.nanoTime();
+        KeyStore keyStore = KeyStore.getInstance(type);
+        keyStore.load(new ByteArrayInputStream(content), password.toCharArray());
+        storeLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        LOGGER.debug("Store '{}' loaded in {} ms", path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        StoreEntry loaded = new StoreEntry(digest, keyStore);
+        StoreEntry current = stores.merge(key, loaded,
+                (previous, replacement) -> previous.digest.equals(digest) ? previous : replacement);
+        if (entry != null && current != entry) {
+            contexts.keySet().removeIf(contextKey -> contextKey.uses(entry.keyStore));
+        }
+        return current.keyStore;
+    }
+
+    /**
+     * @param factory builds the context on a cache miss, a null result is not cached
+     * @return context shared with every caller passing the same stores (by identity) and settings
+     */
+    public SSLContext getSSLContext(KeyStore keyStore, KeyStore trustStore, String protocol, boolean checkValidity,
+                                    String keyPassword, SSLContextFactory factory) throws GeneralSecurityException {
+        return getSSLContext(keyStore, trustStore, protocol, null, checkValidity, keyPassword, factory);
+    }
+
+    /**
+     * @param provider name of the JSSE provider building the context, or null for the JDK default
+     * @see #getSSLContext(KeyStore, KeyStore, String, boolean, String, SSLContextFactory)
+     */
+    public SSLContext getSSLContext(KeyStore keyStore, KeyStore trustStore, String protocol, String provider,
+                                    boolean checkValidity, String keyPassword, SSLContextFactory factory)
+            throws GeneralSecurityException {
+        return getSSLContext(keyStore, trustStore, protocol, provider, checkValidity, keyPassword, null, null, factory);
+    }
+
+    /**
+     * @param sessionCacheSize size of the client session cache the caller applies to the context, or null
+     * @param sessionTimeout   client session timeout in seconds the caller applies to the context, or null
+     * @see #getSSLContext(KeyStore, KeyStore, String, String, boolean, String, SSLContextFactory)
+     */
+    public SSLContext getSSLContext(KeyStore keyStore, KeyStore trustStore, String protocol, String provider,
+                                    boolean checkValidity, String keyPassword, Integer sessionCacheSize,
+                                    Integer sessionTimeout, SSLContextFactory factory)
+            throws GeneralSecurityException {
+        ContextKey key = new ContextKey(keyStore, trustStore, protocol, provider, checkValidity,
+                keyPassword != null ? digest(keyPassword.getBytes(StandardCharsets.UTF_8)) : null,
+                sessionCacheSize, sessionTimeout);
+        SSLContext sslContext = contexts.get(key);
+        if (sslContext != null) {
+            contextHits.increment();
+            return sslContext;
+        }
+        contextMisses.increment();
+        sslContext = factory.create();
+        if (sslContext == null) {
+            return null;
+        }
+        SSLContext existing = contexts.putIfAbsent(key, sslContext);
+        return existing != null ? existing : sslContext;
+    }
+
+    /**
+     * Drops all cached stores and contexts.
+     */
+    public void clear() {
+        stores.clear();
+        contexts.clear();
+    }
+
+    private String digest(byte[]... parts) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (byte[] part : parts) {
+            digest.update(part);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @FunctionalInterface
+    public interface SSLContextFactory {
+        SSLContext create() throws GeneralSecurityException;
+    }
+
+    private static final class StoreEntry {
+        private final String digest;
+        private final KeyStore keyStore;
+
+        private StoreEntry(String digest, KeyStore keyStore) {
+            this.digest = digest;
+            this.keyStore = keyStore;
+        }
+    }
+
+    private static final class ContextKey {
+        private final KeyStore keyStore;
+        private final KeyStore trustStore;
+        private final String protocol;
+        private final String provider;
+        private final boolean checkValidity;
+        private final String keyPasswordDigest;
+        private final Integer sessionCacheSize;
+        private final Integer sessionTimeout;
+
+        private ContextKey(KeyStore keyStore, KeyStore trustStore, String protocol, String provider,
+                           boolean checkValidity, String keyPasswordDigest, Integer sessionCacheSize,
+                           Integer sessionTimeout) {
+            this.keyStore = keyStore;
+            this.trustStore = trustStore;
+            this.protocol = protocol;
+            this.provider = provider;
+            this.checkValidity = checkValidity;
+            this.keyPasswordDigest = keyPasswordDigest;
+            this.sessionCacheSize = sessionCacheSize;
+            this.sessionTimeout = sessionTimeout;
+        }
+
+        private boolean uses(KeyStore store) {
+            return keyStore == store || trustStore == store;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContextKey that)) {
+                return false;
+            }
+            return keyStore == that.keyStore && trustStore == that.trustStore && checkValidity == that.checkValidity
+                    && Objects.equals(protocol, that.protocol) && Objects.equals(provider, that.provider)
+                    && Objects.equals(keyPasswordDigest, that.keyPasswordDigest)
+                    && Objects.equals(sessionCacheSize, that.sessionCacheSize)
+                    && Objects.equals(sessionTimeout, that.sessionTimeout);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(keyStore), System.identityHashCode(trustStore), protocol,
+                    provider, checkValidity, keyPasswordDigest, sessionCacheSize, sessionTimeout);
+        }
+    }
+}
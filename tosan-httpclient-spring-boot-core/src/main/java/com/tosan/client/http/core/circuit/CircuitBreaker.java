@@ -0,0 +1,271 @@
+package com.tosan.client.http.core.circuit;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.SlidingWindowType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker of a service shared by the Feign and RestClient adapters of the starters.
+ * <p>
+ * Outcomes are recorded in a sliding window of the last {@code windowSize} calls, or of the calls of the last
+ * {@code windowSize} seconds, kept in per call or per second buckets with running totals. Once the window holds
+ * {@code minimumCalls}, a failure rate of {@code failureRateThreshold} percent or a rate of calls slower than
+ * {@code slowCallDuration} of {@code slowCallRateThreshold} percent opens the circuit: calls fail fast with
+ * {@link CircuitBreakerOpenException} for {@code openDuration}. The circuit then turns half open and lets
+ * {@code halfOpenCalls} probe calls through, whose rates close it again or reopen it.
+ * <p>
+ * A permit is the start time of the call, so recording takes no allocation. The state, rates and rejected calls are
+ * published once {@link #bindTo(MeterRegistry, Tags)} is called.
+ */
+public class CircuitBreaker {
+    public static final String STATE_METER = "http.client.circuit.state";
+    public static final String FAILURE_RATE_METER = "http.client.circuit.failure.rate";
+    public static final String SLOW_CALL_RATE_METER = "http.client.circuit.slow.rate";
+    public static final String REJECTED_METER = "http.client.circuit.rejected";
+    public static final String STATE_TAG = "state";
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final HttpClientProperties.CircuitBreakerConfiguration configuration;
+    private final Set<Integer> failureStatusCodes;
+    private final boolean timeBased;
+    private final long slowCallNanos;
+    private final int[] calls;
+    private final int[] failures;
+    private final int[] slowCalls;
+    private final LongAdder rejected = new LongAdder();
+    private long windowPosition;
+    private int totalCalls;
+    private int totalFailures;
+    private int totalSlowCalls;
+    private volatile State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenPermits;
+    private int halfOpenCalls;
+    private int halfOpenFailures;
+    private int halfOpenSlowCalls;
+
+    /**
+     * @param name external service name, used in the log
+     */
+    public CircuitBreaker(String name, HttpClientProperties.CircuitBreakerConfiguration configuration) {
+        this.name = name;
+        this.configuration = configuration;
+        this.failureStatusCodes = new HashSet<>(configuration.getFailureStatusCodes());
+        this.timeBased = configuration.getWindowType() == SlidingWindowType.TIME_BASED;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getSlowCallDuration());
+        int size = Math.max(1, configuration.getWindowSize());
+        this.calls = new int[size];
+        this.failures = new int[size];
+        this.slowCalls = new int[size];
+        this.windowPosition = timeBased ? TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) : 0;
+    }
+
+    /**
+     * @return start time of the call, to pass to {@link #onResult(long, int)} or {@link #onError(long)}
+     * @throws CircuitBreakerOpenException when the call is not permitted
+     */
+    public synchronized long acquirePermission() throws CircuitBreakerOpenException {
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openUntil < 0) {
+                throw reject();
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= configuration.getHalfOpenCalls()) {
+                throw reject();
+            }
+            halfOpenPermits++;
+        }
+        return now;
+    }
+
+    /**
+     * Records a response, failed when its status is one of {@code failureStatusCodes}.
+     */
+    public void onResult(long start, int status) {
+        record(start, failureStatusCodes.contains(status));
+    }
+
+    /**
+     * Records a call failed with an exception.
+     */
+    public void onError(long start) {
+        record(start, true);
+    }
+
+    /**
+     * Ends a permitted call that was not sent, such as one whose deadline had passed, without recording it; a half
+     * open permit is handed back.
+     */
+    public synchronized void onCancel(long start) {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return percentage of failed calls in the window, or -1 below {@code minimumCalls}
+     */
+    public synchronized float getFailureRate() {
+        evictExpired(System.nanoTime());
+        return rate(totalFailures, totalCalls, configuration.getMinimumCalls());
+    }
+
+    /**
+     * @return percentage of slow calls in the window, or -1 below {@code minimumCalls}
+     */
+    public synchronized float getSlowCallRate() {
+        evictExpired(System.nanoTime());
+        return rate(totalSlowCalls, totalCalls, configuration.getMinimumCalls());
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        for (State value : State.values()) {
+            Gauge.builder(STATE_METER, this, breaker -> breaker.getState() == value ? 1 : 0)
+                    .description("Whether the circuit breaker is in the state")
+                    .tags(tags.and(STATE_TAG, value.name().toLowerCase(Locale.ROOT)))
+                    .register(registry);
+        }
+        Gauge.builder(FAILURE_RATE_METER, this, CircuitBreaker::getFailureRate)
+                .description("Percentage of failed calls in the sliding window")
+                .baseUnit("percent")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(SLOW_CALL_RATE_METER, this, CircuitBreaker::getSlowCallRate)
+                .description("Percentage of slow calls in the sliding window")
+                .baseUnit("percent")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(REJECTED_METER, rejected, LongAdder::sum)
+                .description("Calls rejected while the circuit was open")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private synchronized void record(long start, boolean failure) {
+        long now = System.nanoTime();
+        boolean slow = now - start > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            halfOpenCalls++;
+            halfOpenFailures += failure ? 1 : 0;
+            halfOpenSlowCalls += slow ? 1 : 0;
+            if (halfOpenCalls >= configuration.getHalfOpenCalls()) {
+                transition(exceedsThresholds(halfOpenFailures, halfOpenSlowCalls, halfOpenCalls, halfOpenCalls) ?
+                        State.OPEN : State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            int bucket = nextBucket(now);
+            calls[bucket]++;
+            failures[bucket] += failure ? 1 : 0;
+            slowCalls[bucket] += slow ? 1 : 0;
+            totalCalls++;
+            totalFailures += failure ? 1 : 0;
+            totalSlowCalls += slow ? 1 : 0;
+            if (exceedsThresholds(totalFailures, totalSlowCalls, totalCalls, configuration.getMinimumCalls())) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * @return bucket of a call recorded now, cleared of the call it held in a count based window
+     */
+    private int nextBucket(long now) {
+        if (timeBased) {
+            evictExpired(now);
+            return bucketOf(windowPosition);
+        }
+        int bucket = bucketOf(windowPosition++);
+        clear(bucket);
+        return bucket;
+    }
+
+    /**
+     * Clears the seconds which left a time based window.
+     */
+    private void evictExpired(long now) {
+        if (!timeBased) {
+            return;
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(now);
+        long expired = Math.min(calls.length, second - windowPosition);
+        for (long i = 1; i <= expired; i++) {
+            clear(bucketOf(windowPosition + i));
+        }
+        windowPosition = Math.max(windowPosition, second);
+    }
+
+    private int bucketOf(long position) {
+        return (int) Math.floorMod(position, (long) calls.length);
+    }
+
+    private void clear(int bucket) {
+        totalCalls -= calls[bucket];
+        totalFailures -= failures[bucket];
+        totalSlowCalls -= slowCalls[bucket];
+        calls[bucket] = 0;
+        failures[bucket] = 0;
+        slowCalls[bucket] = 0;
+    }
+
+    private boolean exceedsThresholds(int failed, int slow, int total, int minimumCalls) {
+        return total > 0 && total >= minimumCalls
+                && (rate(failed, total, 0) >= configuration.getFailureRateThreshold()
+                || rate(slow, total, 0) >= configuration.getSlowCallRateThreshold());
+    }
+
+    private static float rate(int count, int total, int minimumCalls) {
+        if (total == 0 || total < minimumCalls) {
+            return -1;
+        }
+        return count * 100f / total;
+    }
+
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        halfOpenPermits = 0;
+        halfOpenCalls = 0;
+        halfOpenFailures = 0;
+        halfOpenSlowCalls = 0;
+        if (next == State.OPEN) {
+            openUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.getOpenDuration());
+            LOGGER.warn("Circuit breaker of '{}' opened from {} for {} ms", name, previous,
+                    configuration.getOpenDuration());
+        } else {
+            if (next == State.CLOSED) {
+                for (int i = 0; i < calls.length; i++) {
+                    clear(i);
+                }
+            }
+            LOGGER.info("Circuit breaker of '{}' changed from {} to {}", name, previous, next);
+        }
+    }
+
+    private CircuitBreakerOpenException reject() {
+        rejected.increment();
+        return new CircuitBreakerOpenException("Circuit breaker of '" + name + "' is " + state);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tosan.client.http.core.circuit;
+
+import java.io.IOException;
+
+/**
+ * Thrown without sending the request while the circuit breaker of the service is open, or half open with all probe
+ * calls taken.
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
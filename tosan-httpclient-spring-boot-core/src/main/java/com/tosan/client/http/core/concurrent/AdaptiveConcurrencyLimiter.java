@@ -0,0 +1,240 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the requests in flight to a service to a limit estimated from their response times, after the gradient
+ * algorithm of Netflix concurrency-limits.
+ * <p>
+ * A short and a long moving average of the response times are kept, the long one standing for the no-load response
+ * time. Their ratio, scaled by {@code rttTolerance} and bounded to [0.5, 1], shrinks the limit while requests queue up
+ * at the service, and a headroom of the square root of the limit lets it grow while they do not. The limit only moves
+ * while at least half of it is used, and a timed out request cuts it by a tenth.
+ * <p>
+ * Requests over the limit wait up to {@code maxWait} for a permit and are then rejected with
+ * {@link ConcurrencyLimitExceededException}. The limit, requests in flight and rejections are published once
+ * {@link #bindTo(MeterRegistry, Tags)} is called.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final String LIMIT_METER = "http.client.limit";
+    public static final String INFLIGHT_METER = "http.client.limit.inflight";
+    public static final String REJECTED_METER = "http.client.limit.rejected";
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+    private static final int SHORT_WINDOW = 10;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_FACTOR = 0.9;
+
+    private final HttpClientProperties.ConcurrencyLimitConfiguration configuration;
+    private final double shortAlpha;
+    private final double longAlpha;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LongAdder rejected = new LongAdder();
+    private int inFlight;
+    private double estimatedLimit;
+    private double shortRtt = -1;
+    private double longRtt = -1;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(HttpClientProperties.ConcurrencyLimitConfiguration configuration) {
+        this.configuration = configuration;
+        this.shortAlpha = 2.0 / (SHORT_WINDOW + 1);
+        this.longAlpha = 2.0 / (Math.max(SHORT_WINDOW, configuration.getLongWindow()) + 1);
+        this.estimatedLimit = clamp(configuration.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Takes a permit, waiting up to {@code maxWait} while the limit is reached.
+     *
+     * @return permit to complete once the response is received
+     * @throws ConcurrencyLimitExceededException when no permit was released in time
+     * @throws InterruptedIOException            when interrupted while waiting
+     */
+    public Permit acquire() throws ConcurrencyLimitExceededException, InterruptedIOException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(configuration.getMaxWait());
+        lock.lock();
+        try {
+            while (inFlight >= limit) {
+                if (remaining <= 0) {
+                    throw reject();
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            return new Permit(++inFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a concurrency permit");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire()} for async clients.
+     *
+     * @throws ConcurrencyLimitExceededException when the limit is reached
+     */
+    public Permit tryAcquire() throws ConcurrencyLimitExceededException {
+        lock.lock();
+        try {
+            if (inFlight >= limit) {
+                throw reject();
+            }
+            return new Permit(++inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        Gauge.builder(LIMIT_METER, this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Estimated concurrency limit of the service")
+                .baseUnit("requests")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(INFLIGHT_METER, this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests in flight within the concurrency limit")
+                .baseUnit("requests")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(REJECTED_METER, rejected, LongAdder::sum)
+                .description("Requests rejected by the concurrency limit")
+                .tags(tags)
+                .register(registry);
+    }
+
+    void onSample(long rttNanos, int inFlightAtStart) {
+        lock.lock();
+        try {
+            double rtt = rttNanos;
+            shortRtt = shortRtt < 0 ? rtt : shortRtt + shortAlpha * (rtt - shortRtt);
+            longRtt = longRtt < 0 ? rtt : longRtt + longAlpha * (rtt - longRtt);
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+            if (inFlightAtStart < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, configuration.getRttTolerance() * longRtt / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            update(estimatedLimit * (1 - configuration.getSmoothing()) + newLimit * configuration.getSmoothing());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onDropped() {
+        lock.lock();
+        try {
+            update(estimatedLimit * DROP_FACTOR);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double newLimit) {
+        int previous = limit;
+        estimatedLimit = clamp(newLimit);
+        limit = (int) estimatedLimit;
+        if (limit > previous) {
+            released.signalAll();
+        } else if (limit < previous) {
+            LOGGER.debug("Concurrency limit lowered to {}", limit);
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(configuration.getMinLimit(), Math.min(configuration.getMaxLimit(), value));
+    }
+
+    private ConcurrencyLimitExceededException reject() {
+        rejected.increment();
+        return new ConcurrencyLimitExceededException("Concurrency limit of " + limit + " requests reached");
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slot of one request, completed exactly once by one of {@link #success()}, {@link #dropped()},
+     * {@link #ignore()} and {@link #failure(Throwable)}.
+     */
+    public class Permit {
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Response received, its time is sampled.
+         */
+        public void success() {
+            release();
+            onSample(System.nanoTime() - start, inFlightAtStart);
+        }
+
+        /**
+         * Request timed out, the limit is lowered.
+         */
+        public void dropped() {
+            release();
+            onDropped();
+        }
+
+        /**
+         * Request failed without saying anything about the load of the service.
+         */
+        public void ignore() {
+            release();
+        }
+
+        /**
+         * Request failed, {@link #dropped()} when timed out and {@link #ignore()} otherwise.
+         */
+        public void failure(Throwable failure) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SocketTimeoutException) {
+                    dropped();
+                    return;
+                }
+            }
+            ignore();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.BulkheadType;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.deadline.Deadline;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the concurrent calls to a service, so a slow service cannot take every thread of the application.
+ * <p>
+ * With {@link BulkheadType#SEMAPHORE} isolation, calls run on the caller thread once one of
+ * {@code maxConcurrentCalls} permits is taken, waiting up to {@code maxWait} for one. With
+ * {@link BulkheadType#THREAD_POOL} isolation, calls run on a dedicated pool of {@code maxConcurrentCalls} daemon
+ * threads with a queue of {@code queueCapacity} calls, propagating the MDC of the caller. Idle pool threads time out,
+ * so the pool needs no shutdown; thread bound state of the transport, like the request timings, stays on the pool
+ * thread. The caller waits for a pooled call no longer than the call timeout and the remaining budget of its
+ * {@link DeadlineContext deadline}, then cancels it; the pool thread is freed once the transport times out. Async
+ * clients take permits without waiting in both modes. Calls over the limit fail with {@link BulkheadFullException}.
+ * <p>
+ * Active calls, queued calls and rejections are published once {@link #bindTo(MeterRegistry, Tags)} is called.
+ */
+public class Bulkhead {
+    public static final String ACTIVE_METER = "http.client.bulkhead.active";
+    public static final String QUEUED_METER = "http.client.bulkhead.queued";
+    public static final String REJECTED_METER = "http.client.bulkhead.rejected";
+
+    private final String name;
+    private final HttpClientProperties.BulkheadConfiguration configuration;
+    private final Semaphore permits;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timeout callTimeout;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Blocking call run within the bulkhead.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T execute() throws IOException;
+    }
+
+    /**
+     * @param name external service name, prefix of the pool thread names
+     */
+    public Bulkhead(String name, HttpClientProperties.BulkheadConfiguration configuration) {
+        this(name, configuration, null);
+    }
+
+    /**
+     * @param callTimeout longest wait of the caller for a pooled call, or null to wait for the deadline only
+     */
+    public Bulkhead(String name, HttpClientProperties.BulkheadConfiguration configuration, Timeout callTimeout) {
+        this.name = name;
+        this.configuration = configuration;
+        this.callTimeout = callTimeout;
+        int maxConcurrentCalls = Math.max(1, configuration.getMaxConcurrentCalls());
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        if (configuration.getType() == BulkheadType.THREAD_POOL) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(maxConcurrentCalls);
+            executor.setMaxPoolSize(maxConcurrentCalls);
+            executor.setQueueCapacity(Math.max(0, configuration.getQueueCapacity()));
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setDaemon(true);
+            executor.setThreadNamePrefix(name + "-bulkhead-");
+            executor.setTaskDecorator(InvocationExecutors.createTaskDecorator());
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * @throws BulkheadFullException when no permit or pool slot is available in time
+     */
+    public <T> T execute(Call<T> call) throws IOException {
+        if (executor != null) {
+            return executeOnPool(call);
+        }
+        acquire();
+        try {
+            return call.execute();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Takes a permit without waiting, for async clients; {@link #release()} once the call completes.
+     *
+     * @throws BulkheadFullException when all permits are taken
+     */
+    public void tryAcquire() throws BulkheadFullException {
+        if (!permits.tryAcquire()) {
+            throw reject();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActiveCount() {
+        return executor != null ? executor.getActiveCount() :
+                Math.max(1, configuration.getMaxConcurrentCalls()) - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return executor != null ? executor.getQueueSize() : waiting.get();
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        Gauge.builder(ACTIVE_METER, this, Bulkhead::getActiveCount)
+                .description("Calls running within the bulkhead")
+                .baseUnit("calls")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(QUEUED_METER, this, Bulkhead::getQueuedCount)
+                .description("Calls waiting for the bulkhead")
+                .baseUnit("calls")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(REJECTED_METER, rejected, LongAdder::sum)
+                .description("Calls rejected by a full bulkhead")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void acquire() throws IOException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (configuration.getMaxWait() <= 0) {
+            throw reject();
+        }
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(configuration.getMaxWait(), TimeUnit.MILLISECONDS)) {
+                throw reject();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the bulkhead of '" + name + "'");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private <T> T executeOnPool(Call<T> call) throws IOException {
+        Future<T> future;
+        try {
+            future = executor.submit(call::execute);
+        } catch (TaskRejectedException e) {
+            throw reject();
+        }
+        Deadline deadline = DeadlineContext.current();
+        long wait = callTimeout != null && !callTimeout.isDisabled() ? callTimeout.toMilliseconds() : -1;
+        boolean deadlineBound = false;
+        if (deadline != null) {
+            long remaining = Math.max(0, deadline.getRemainingMillis());
+            deadlineBound = wait < 0 || remaining <= wait;
+            wait = deadlineBound ? remaining : wait;
+        }
+        try {
+            return wait < 0 ? future.get() : future.get(wait, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (deadlineBound) {
+                throw new DeadlineExceededException("Deadline exceeded while waiting for the bulkhead of '"
+                        + name + "'");
+            }
+            throw new SocketTimeoutException("Call within the bulkhead of '" + name + "' timed out after "
+                    + wait + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the bulkhead of '" + name + "'");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private BulkheadFullException reject() {
+        rejected.increment();
+        return new BulkheadFullException("Bulkhead of '" + name + "' is full");
+    }
+}
@@ -0,0 +1,14 @@
+package com.tosan.client.http.core.concurrent;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call finds the bulkhead of its service full, all permits taken or the queue of the dedicated pool
+ * full.
+ */
+public class BulkheadFullException extends IOException {
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
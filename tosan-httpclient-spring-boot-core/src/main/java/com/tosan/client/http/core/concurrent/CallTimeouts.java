@@ -0,0 +1,57 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Upper bounds of the time a caller waits for a request it handed to another thread, derived from the connection and
+ * retry configuration of the service.
+ */
+public final class CallTimeouts {
+
+    private CallTimeouts() {
+    }
+
+    /**
+     * @return longest wait for one attempt: the lease, connect and socket timeouts of the slowest route, or null when
+     * one of them is infinite
+     */
+    public static Timeout responseWait(HttpClientProperties properties) {
+        HttpClientProperties.ConnectionConfiguration connection = properties.getConnection();
+        long connectTimeout = connection.getConnectionTimeout();
+        long socketTimeout = connection.getSocketTimeout();
+        for (HttpClientProperties.RouteConfiguration route : properties.getRoutes().values()) {
+            if (route.getConnectionTimeout() != null) {
+                connectTimeout = longestTimeout(connectTimeout, route.getConnectionTimeout());
+            }
+            if (route.getSocketTimeout() != null) {
+                socketTimeout = longestTimeout(socketTimeout, route.getSocketTimeout());
+            }
+        }
+        if (connection.getConnectionRequestTimeout() <= 0 || connectTimeout <= 0 || socketTimeout <= 0) {
+            return null;
+        }
+        return Timeout.ofMilliseconds(connection.getConnectionRequestTimeout() + connectTimeout + socketTimeout);
+    }
+
+    /**
+     * @return longest wait for a call including its retries and their backoffs, or null when an attempt is unbounded
+     */
+    public static Timeout callTimeout(HttpClientProperties properties) {
+        Timeout responseWait = responseWait(properties);
+        if (responseWait == null) {
+            return null;
+        }
+        HttpClientProperties.RetryConfiguration retry = properties.getRetry();
+        if (!retry.isEnable() || retry.getMaxAttempts() <= 1) {
+            return responseWait;
+        }
+        int retries = retry.getMaxAttempts() - 1;
+        return Timeout.ofMilliseconds(responseWait.toMilliseconds() * retry.getMaxAttempts()
+                + Math.max(0, retry.getMaxBackoff()) * retries);
+    }
+
+    private static long longestTimeout(long timeout, long routeTimeout) {
+        return timeout <= 0 || routeTimeout <= 0 ? 0 : Math.max(timeout, routeTimeout);
+    }
+}
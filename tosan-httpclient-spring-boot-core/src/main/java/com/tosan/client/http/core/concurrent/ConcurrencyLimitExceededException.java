@@ -0,0 +1,14 @@
+package com.tosan.client.http.core.concurrent;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request finds the adaptive concurrency limit of its service reached and no permit is released within
+ * {@code concurrencyLimit.maxWait}.
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
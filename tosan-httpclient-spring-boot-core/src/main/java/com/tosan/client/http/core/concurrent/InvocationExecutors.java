@@ -0,0 +1,76 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.deadline.DeadlineTaskDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+/**
+ * Factory for the executors running blocking client invocations off the caller thread
+ */
+public class InvocationExecutors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InvocationExecutors.class);
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    private InvocationExecutors() {
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= VIRTUAL_THREADS_JAVA_VERSION;
+    }
+
+    /**
+     * Creates a thread-per-task executor propagating the MDC and the deadline of the submitting thread.
+     * Lease waits of the Apache connection pools are based on {@link java.util.concurrent.locks.ReentrantLock}
+     * and do not pin the carrier thread of a virtual thread.
+     *
+     * @param name           prefix of the created thread names
+     * @param virtualThreads use virtual threads, ignored with a warning on runtimes older than Java 21
+     * @return executor which should be closed when the owning client is destroyed
+     */
+    public static SimpleAsyncTaskExecutor create(String name, boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-invoker-");
+        if (virtualThreads) {
+            if (isVirtualThreadSupported()) {
+                executor.setVirtualThreads(true);
+            } else {
+                LOGGER.warn("Virtual threads require Java {}, '{}' invocations will use platform threads",
+                        VIRTUAL_THREADS_JAVA_VERSION, name);
+            }
+        }
+        executor.setTaskDecorator(createTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Creates a pool of up to {@code maxThreads} reused daemon threads without a queue, propagating the MDC and the
+     * deadline of the submitting thread. Idle threads time out; tasks over the limit are rejected.
+     *
+     * @param name prefix of the created thread names
+     * @return executor which should be shut down when the owning client is destroyed
+     */
+    public static ThreadPoolTaskExecutor createPool(String name, int maxThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, maxThreads));
+        executor.setMaxPoolSize(Math.max(1, maxThreads));
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setTaskDecorator(createTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * @return decorator copying the MDC and the deadline of the submitting thread into the task
+     */
+    public static TaskDecorator createTaskDecorator() {
+        return new CompositeTaskDecorator(List.of(new MdcTaskDecorator(), new DeadlineTaskDecorator()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.tosan.client.http.core.connection;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Adapts the max connections per route of every registered connection pool to the observed load using one shared
+ * scheduler thread.
+ * <p>
+ * A route grows by {@code step} connections while requests wait for a lease with every connection leased, and shrinks
+ * by {@code step} while no request waits and less than half of its connections are leased. Every decision is counted
+ * in the {@value #RESIZE_METER} meter and the current limit is published as {@value #MAX_PER_ROUTE_METER}, once
+ * {@link Registration#bindTo(MeterRegistry, Tags)} is called.
+ */
+public class AdaptivePoolSizer {
+    public static final String RESIZE_METER = "http.client.pool.resize";
+    public static final String MAX_PER_ROUTE_METER = "http.client.pool.max.per.route";
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+    private static final String THREAD_NAME = "tosan-httpclient-adaptive-pool-sizer";
+    private static final double SHRINK_UTILIZATION = 0.5;
+    private static final AdaptivePoolSizer SHARED_INSTANCE = new AdaptivePoolSizer();
+
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private ScheduledThreadPoolExecutor executor;
+
+    /**
+     * @return sizer shared by all clients of the application
+     */
+    public static AdaptivePoolSizer getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * @param name              name of the pool, used for logging
+     * @param connectionManager connection manager to resize
+     * @param configuration     floor, ceiling, interval and step of the sizing
+     * @param fixedRoutes       routes with an explicitly configured limit, never resized
+     * @return registration which deregisters the pool when closed
+     */
+    public Registration register(String name, PoolingHttpClientConnectionManager connectionManager,
+                                 HttpClientProperties.AdaptivePoolConfiguration configuration,
+                                 Set<HttpRoute> fixedRoutes) {
+        return register(name, connectionManager, connectionManager::isClosed, configuration, fixedRoutes);
+    }
+
+    /**
+     * @see #register(String, PoolingHttpClientConnectionManager, HttpClientProperties.AdaptivePoolConfiguration, Set)
+     */
+    public Registration register(String name, PoolingAsyncClientConnectionManager connectionManager,
+                                 HttpClientProperties.AdaptivePoolConfiguration configuration,
+                                 Set<HttpRoute> fixedRoutes) {
+        return register(name, connectionManager, connectionManager::isClosed, configuration, fixedRoutes);
+    }
+
+    private synchronized Registration register(String name, ConnPoolControl<HttpRoute> connectionManager,
+                                               BooleanSupplier closed,
+                                               HttpClientProperties.AdaptivePoolConfiguration configuration,
+                                               Set<HttpRoute> fixedRoutes) {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        Registration registration = new Registration(name, connectionManager, closed, configuration, fixedRoutes);
+        registrations.add(registration);
+        registration.future = executor.scheduleWithFixedDelay(registration::resize, configuration.getInterval(),
+                configuration.getInterval(), TimeUnit.MILLISECONDS);
+        LOGGER.debug("Connection pool '{}' registered for adaptive sizing", name);
+        return registration;
+    }
+
+    /**
+     * @return number of pools currently resized
+     */
+    public int getRegisteredPoolCount() {
+        return registrations.size();
+    }
+
+    /**
+     * Cancels all registrations and stops the scheduler thread.
+     */
+    public synchronized void shutdown() {
+        registrations.forEach(registration -> registration.future.cancel(false));
+        registrations.clear();
+        stopExecutor();
+    }
+
+    private synchronized void deregister(Registration registration) {
+        if (registrations.remove(registration) && registration.future != null) {
+            registration.future.cancel(false);
+            LOGGER.debug("Connection pool '{}' deregistered from adaptive sizing", registration.name);
+        }
+        if (registrations.isEmpty()) {
+            stopExecutor();
+        }
+    }
+
+    private void stopExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public class Registration implements Closeable {
+        private final String name;
+        private final ConnPoolControl<HttpRoute> connectionManager;
+        private final BooleanSupplier closed;
+        private final HttpClientProperties.AdaptivePoolConfiguration configuration;
+        private final Set<HttpRoute> fixedRoutes;
+        private volatile ScheduledFuture<?> future;
+        private volatile MeterRegistry meterRegistry;
+        private volatile Tags tags;
+
+        private Registration(String name, ConnPoolControl<HttpRoute> connectionManager, BooleanSupplier closed,
+                             HttpClientProperties.AdaptivePoolConfiguration configuration,
+                             Set<HttpRoute> fixedRoutes) {
+            this.name = name;
+            this.connectionManager = connectionManager;
+            this.closed = closed;
+            this.configuration = configuration;
+            this.fixedRoutes = fixedRoutes;
+        }
+
+        /**
+         * Publishes the meters of the pool with the given tags, the routes known by then at once and later routes
+         * on their first sample.
+         */
+        public void bindTo(MeterRegistry registry, Tags tags) {
+            this.tags = tags;
+            this.meterRegistry = registry;
+            connectionManager.getRoutes().forEach(this::bindGauge);
+        }
+
+        /**
+         * Samples the route statistics of the pool and adjusts the max connections of each route.
+         *
+         * @return number of routes resized by this run
+         */
+        public int resize() {
+            if (closed.getAsBoolean()) {
+                close();
+                return 0;
+            }
+            int decisions = 0;
+            try {
+                for (HttpRoute route : connectionManager.getRoutes()) {
+                    bindGauge(route);
+                    if (!fixedRoutes.contains(route) && resize(route)) {
+                        decisions++;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Adaptive sizing failed for pool '{}'", name, ex);
+            }
+            return decisions;
+        }
+
+        private boolean resize(HttpRoute route) {
+            PoolStats stats = connectionManager.getStats(route);
+            int max = stats.getMax();
+            int target = max;
+            if (stats.getPending() > 0 && stats.getLeased() >= max) {
+                target = max + configuration.getStep();
+            } else if (stats.getPending() == 0 && stats.getLeased() < max * SHRINK_UTILIZATION) {
+                target = max - configuration.getStep();
+            }
+            target = Math.max(configuration.getMinConnectionsPerRoute(),
+                    Math.min(configuration.getMaxConnectionsPerRoute(), target));
+            if (target == max) {
+                return false;
+            }
+            connectionManager.setMaxPerRoute(route, target);
+            String routeName = route.getTargetHost().toURI();
+            String action = target > max ? "grow" : "shrink";
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                Counter.builder(RESIZE_METER)
+                        .description("Max connections per route adapted to the load")
+                        .tags(tags.and(ConnectionPoolMetrics.ROUTE_TAG, routeName).and("action", action))
+                        .register(registry)
+                        .increment();
+            }
+            LOGGER.debug("Pool '{}' route '{}' max connections {} -> {} (leased {}, pending {})", name, routeName, max,
+                    target, stats.getLeased(), stats.getPending());
+            return true;
+        }
+
+        /**
+         * Publishes the limit of a route, from the binding of the pool or the first sample of the route.
+         */
+        private void bindGauge(HttpRoute route) {
+            MeterRegistry registry = meterRegistry;
+            if (registry == null || fixedRoutes.contains(route)) {
+                return;
+            }
+            Gauge.builder(MAX_PER_ROUTE_METER, connectionManager, pool -> pool.getMaxPerRoute(route))
+                    .description("Max connections per route set by adaptive sizing")
+                    .baseUnit("connections")
+                    .tags(tags.and(ConnectionPoolMetrics.ROUTE_TAG, route.getTargetHost().toURI()))
+                    .register(registry);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            deregister(this);
+        }
+    }
+}
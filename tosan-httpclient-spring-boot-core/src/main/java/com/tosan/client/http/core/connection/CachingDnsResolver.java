@@ -0,0 +1,139 @@
+package com.tosan.client.http.core.connection;
+
+import com.tosan.client.http.core.AddressRotation;
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.hc.client5.http.DnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DnsResolver} caching the addresses of each host for a fixed time independent of the JVM wide DNS cache,
+ * with static host overrides and rotation of multi address hosts.
+ * <p>
+ * Failed resolutions are cached for the negative ttl, a ttl of zero or less disables the respective cache. Overridden
+ * hosts are never resolved.
+ */
+public class CachingDnsResolver implements DnsResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDnsResolver.class);
+
+    private final DnsResolver delegate;
+    private final long ttl;
+    private final long negativeTtl;
+    private final AddressRotation rotation;
+    private final Map<String, InetAddress[]> overrides = new HashMap<>();
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate      resolver queried on cache misses
+     * @param configuration ttls, host overrides and rotation
+     * @throws IllegalArgumentException when an override is not an ip address
+     */
+    public CachingDnsResolver(DnsResolver delegate, HttpClientProperties.DnsConfiguration configuration) {
+        this.delegate = delegate;
+        this.ttl = configuration.getTtl();
+        this.negativeTtl = configuration.getNegativeTtl();
+        this.rotation = configuration.getRotation();
+        configuration.getHosts().forEach((host, addresses) ->
+                overrides.put(host.toLowerCase(Locale.ROOT), toAddresses(host, addresses)));
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase(Locale.ROOT);
+        InetAddress[] override = overrides.get(key);
+        if (override != null) {
+            return rotate(override, null);
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(key);
+        if (entry == null || entry.expiry <= now) {
+            entry = lookup(host, now);
+            if (entry.expiry > now) {
+                cache.put(key, entry);
+            } else {
+                cache.remove(key);
+            }
+        }
+        if (entry.failure != null) {
+            throw entry.failure;
+        }
+        return rotate(entry.addresses, entry.counter);
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    /**
+     * Drops all cached resolutions, overrides are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private Entry lookup(String host, long now) {
+        try {
+            InetAddress[] addresses = delegate.resolve(host);
+            LOGGER.debug("Resolved '{}' to {}", host, Arrays.toString(addresses));
+            return new Entry(addresses, null, now + ttl);
+        } catch (UnknownHostException e) {
+            LOGGER.debug("Could not resolve '{}': {}", host, e.getMessage());
+            return new Entry(null, e, now + negativeTtl);
+        }
+    }
+
+    private InetAddress[] rotate(InetAddress[] addresses, AtomicInteger counter) {
+        if (addresses.length < 2 || rotation == AddressRotation.NONE) {
+            return addresses.clone();
+        }
+        InetAddress[] rotated = new InetAddress[addresses.length];
+        if (rotation == AddressRotation.RANDOM) {
+            List<InetAddress> shuffled = new ArrayList<>(Arrays.asList(addresses));
+            Collections.shuffle(shuffled, ThreadLocalRandom.current());
+            return shuffled.toArray(rotated);
+        }
+        int offset = counter != null ? Math.floorMod(counter.getAndIncrement(), addresses.length) :
+                ThreadLocalRandom.current().nextInt(addresses.length);
+        for (int i = 0; i < addresses.length; i++) {
+            rotated[i] = addresses[(offset + i) % addresses.length];
+        }
+        return rotated;
+    }
+
+    private static InetAddress[] toAddresses(String host, List<String> ips) {
+        InetAddress[] addresses = new InetAddress[ips.size()];
+        for (int i = 0; i < ips.size(); i++) {
+            String ip = ips.get(i).trim();
+            if (ip.isEmpty() || !Character.isDigit(ip.charAt(0)) && ip.indexOf(':') < 0) {
+                throw new IllegalArgumentException("DNS override of '" + host + "' is not an ip address: " + ip);
+            }
+            try {
+                addresses[i] = InetAddress.getByAddress(host, InetAddress.getByName(ip).getAddress());
+            } catch (UnknownHostException e) {
+                throw new IllegalArgumentException("DNS override of '" + host + "' is not an ip address: " + ip, e);
+            }
+        }
+        return addresses;
+    }
+
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final UnknownHostException failure;
+        private final long expiry;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private Entry(InetAddress[] addresses, UnknownHostException failure, long expiry) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expiry = expiry;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.nio.AsyncClientConnectionManager;
+import org.apache.hc.client5.http.nio.AsyncConnectionEndpoint;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.ConnectionInitiator;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures the time requests wait for a pooled connection and rejects requests while too many are already waiting.
+ * <p>
+ * The wait is recorded in the {@value #LEASE_WAIT_METER} histogram and rejections in the {@value #LEASE_REJECTED_METER}
+ * counter once {@link #bindTo(MeterRegistry, Tags)} is called, which keeps pool waits apart from server latency in the
+ * {@code http.client.requests} observations. The pending check runs before the lease, so concurrent requests may
+ * exceed the bound by the number of requests entering at the same moment.
+ */
+public class ConnectionLeaseMonitor {
+    public static final String LEASE_WAIT_METER = "http.client.pool.lease.wait";
+    public static final String LEASE_REJECTED_METER = "http.client.pool.lease.rejected";
+    public static final String EXEC_INTERCEPTOR_NAME = "connection-lease-monitor";
+
+    private final ConnPoolControl<HttpRoute> connectionPool;
+    private final int maxPendingLeases;
+    private volatile Timer leaseWaitTimer;
+    private volatile Counter leaseRejectedCounter;
+
+    /**
+     * @param connectionPool   pool of which pending leases are checked
+     * @param maxPendingLeases max requests waiting for a connection, zero or less for unbounded
+     */
+    public ConnectionLeaseMonitor(ConnPoolControl<HttpRoute> connectionPool, int maxPendingLeases) {
+        this.connectionPool = connectionPool;
+        this.maxPendingLeases = maxPendingLeases;
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        leaseWaitTimer = Timer.builder(LEASE_WAIT_METER)
+                .description("Time requests waited for a pooled connection")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        leaseRejectedCounter = Counter.builder(LEASE_REJECTED_METER)
+                .description("Requests rejected because too many requests were waiting for a connection")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * @throws ConnectionPoolExhaustedException when {@code maxPendingLeases} requests are already waiting
+     */
+    public void checkPendingLeases() throws ConnectionPoolExhaustedException {
+        if (maxPendingLeases <= 0) {
+            return;
+        }
+        int pending = connectionPool.getTotalStats().getPending();
+        if (pending >= maxPendingLeases) {
+            Counter counter = leaseRejectedCounter;
+            if (counter != null) {
+                counter.increment();
+            }
+            throw new ConnectionPoolExhaustedException("Connection pool exhausted, " + pending +
+                    " requests already waiting for a connection");
+        }
+    }
+
+    /**
+     * @return interceptor rejecting requests of the classic client, to be added first to the exec chain
+     */
+    public ExecChainHandler createExecInterceptor() {
+        return (request, scope, chain) -> {
+            checkPendingLeases();
+            return chain.proceed(request, scope);
+        };
+    }
+
+    /**
+     * @return interceptor rejecting requests of the async client, to be added first to the exec chain
+     */
+    public AsyncExecChainHandler createAsyncExecInterceptor() {
+        return (request, entityProducer, scope, chain, callback) -> {
+            checkPendingLeases();
+            chain.proceed(request, entityProducer, scope, callback);
+        };
+    }
+
+    /**
+     * @return connection manager recording the lease wait of {@code connectionManager}
+     */
+    public HttpClientConnectionManager monitor(HttpClientConnectionManager connectionManager) {
+        return new MonitoredConnectionManager(connectionManager);
+    }
+
+    /**
+     * @return connection manager recording the lease wait of {@code connectionManager}
+     */
+    public AsyncClientConnectionManager monitor(AsyncClientConnectionManager connectionManager) {
+        return new MonitoredAsyncConnectionManager(connectionManager);
+    }
+
+    private void recordLeaseWait(long startNanos) {
+        Timer timer = leaseWaitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private class MonitoredConnectionManager implements HttpClientConnectionManager {
+        private final HttpClientConnectionManager delegate;
+
+        private MonitoredConnectionManager(HttpClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest leaseRequest = delegate.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return leaseRequest.get(timeout);
+                    } finally {
+                        recordLeaseWait(start);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return leaseRequest.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context)
+                throws IOException {
+            delegate.connect(endpoint, connectTimeout, context);
+        }
+
+        @Override
+        public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+            delegate.upgrade(endpoint, context);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private class MonitoredAsyncConnectionManager implements AsyncClientConnectionManager {
+        private final AsyncClientConnectionManager delegate;
+
+        private MonitoredAsyncConnectionManager(AsyncClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> lease(String id, HttpRoute route, Object state, Timeout requestTimeout,
+                                                     FutureCallback<AsyncConnectionEndpoint> callback) {
+            long start = System.nanoTime();
+            return delegate.lease(id, route, state, requestTimeout, new FutureCallback<>() {
+                @Override
+                public void completed(AsyncConnectionEndpoint result) {
+                    recordLeaseWait(start);
+                    if (callback != null) {
+                        callback.completed(result);
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    recordLeaseWait(start);
+                    if (callback != null) {
+                        callback.failed(ex);
+                    }
+                }
+
+                @Override
+                public void cancelled() {
+                    if (callback != null) {
+                        callback.cancelled();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void release(AsyncConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public Future<AsyncConnectionEndpoint> connect(AsyncConnectionEndpoint endpoint,
+                                                       ConnectionInitiator connectionInitiator, Timeout connectTimeout,
+                                                       Object attachment, HttpContext context,
+                                                       FutureCallback<AsyncConnectionEndpoint> callback) {
+            return delegate.connect(endpoint, connectionInitiator, connectTimeout, attachment, context, callback);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context) {
+            delegate.upgrade(endpoint, attachment, context);
+        }
+
+        @Override
+        public void upgrade(AsyncConnectionEndpoint endpoint, Object attachment, HttpContext context,
+                            FutureCallback<AsyncConnectionEndpoint> callback) {
+            delegate.upgrade(endpoint, attachment, context, callback);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
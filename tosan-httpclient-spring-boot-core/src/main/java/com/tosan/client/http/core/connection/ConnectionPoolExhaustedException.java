@@ -0,0 +1,14 @@
+package com.tosan.client.http.core.connection;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+/**
+ * Thrown without waiting when the number of requests already waiting for a pooled connection reached
+ * {@code connection.maxPendingLeases}.
+ */
+public class ConnectionPoolExhaustedException extends ConnectionRequestTimeoutException {
+
+    public ConnectionPoolExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Publishes leased, available, pending and max connections of a connection pool, in total and for the known routes.
+ * Meters are tagged with {@value #CLIENT_NAME_TAG} (the external service name) and hold the pool weakly.
+ * The lease wait and rejection meters of {@link ConnectionLeaseMonitor}, the handshake meters of
+ * {@link TlsHandshakeMonitor} and the sizing meters of an {@link AdaptivePoolSizer.Registration} are bound along.
+ */
+public class ConnectionPoolMetrics implements MeterBinder {
+    public static final String TOTAL_METER_PREFIX = "http.client.pool.";
+    public static final String ROUTE_METER_PREFIX = "http.client.pool.route.";
+    public static final String CLIENT_NAME_TAG = "client.name";
+    public static final String ROUTE_TAG = "route";
+
+    private final String clientName;
+    private final ConnPoolControl<HttpRoute> connectionPool;
+    private final List<HttpRoute> routes;
+    private final ConnectionLeaseMonitor connectionLeaseMonitor;
+    private final TlsHandshakeMonitor tlsHandshakeMonitor;
+    private final AdaptivePoolSizer.Registration adaptivePoolRegistration;
+
+    /**
+     * @param clientName     external service name
+     * @param connectionPool classic or async connection manager
+     * @param routes         routes published individually
+     */
+    public ConnectionPoolMetrics(String clientName, ConnPoolControl<HttpRoute> connectionPool,
+                                 Collection<HttpRoute> routes) {
+        this(clientName, connectionPool, routes, null);
+    }
+
+    /**
+     * @param connectionLeaseMonitor lease monitor of the pool whose meters are bound with the same tags, or null
+     */
+    public ConnectionPoolMetrics(String clientName, ConnPoolControl<HttpRoute> connectionPool,
+                                 Collection<HttpRoute> routes, ConnectionLeaseMonitor connectionLeaseMonitor) {
+        this(clientName, connectionPool, routes, connectionLeaseMonitor, null);
+    }
+
+    /**
+     * @param tlsHandshakeMonitor handshake monitor of the pool whose meters are bound with the same tags, or null
+     */
+    public ConnectionPoolMetrics(String clientName, ConnPoolControl<HttpRoute> connectionPool,
+                                 Collection<HttpRoute> routes, ConnectionLeaseMonitor connectionLeaseMonitor,
+                                 TlsHandshakeMonitor tlsHandshakeMonitor) {
+        this(clientName, connectionPool, routes, connectionLeaseMonitor, tlsHandshakeMonitor, null);
+    }
+
+    /**
+     * @param adaptivePoolRegistration adaptive sizing of the pool whose meters are bound with the same tags, or null
+     */
+    public ConnectionPoolMetrics(String clientName, ConnPoolControl<HttpRoute> connectionPool,
+                                 Collection<HttpRoute> routes, ConnectionLeaseMonitor connectionLeaseMonitor,
+                                 TlsHandshakeMonitor tlsHandshakeMonitor,
+                                 AdaptivePoolSizer.Registration adaptivePoolRegistration) {
+        this.clientName = clientName;
+        this.connectionPool = connectionPool;
+        this.routes = List.copyOf(routes);
+        this.connectionLeaseMonitor = connectionLeaseMonitor;
+        this.tlsHandshakeMonitor = tlsHandshakeMonitor;
+        this.adaptivePoolRegistration = adaptivePoolRegistration;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of(CLIENT_NAME_TAG, clientName);
+        bindStats(registry, TOTAL_METER_PREFIX, tags, ConnPoolControl::getTotalStats);
+        for (HttpRoute route : routes) {
+            bindStats(registry, ROUTE_METER_PREFIX, tags.and(ROUTE_TAG, route.getTargetHost().toURI()),
+                    pool -> pool.getStats(route));
+        }
+        if (connectionLeaseMonitor != null) {
+            connectionLeaseMonitor.bindTo(registry, tags);
+        }
+        if (tlsHandshakeMonitor != null) {
+            tlsHandshakeMonitor.bindTo(registry, tags);
+        }
+        if (adaptivePoolRegistration != null) {
+            adaptivePoolRegistration.bindTo(registry, tags);
+        }
+    }
+
+    private void bindStats(MeterRegistry registry, String prefix, Tags tags,
+                           Function<ConnPoolControl<HttpRoute>, PoolStats> stats) {
+        bindGauge(registry, prefix + "leased", "Connections leased to requests", tags,
+                pool -> stats.apply(pool).getLeased());
+        bindGauge(registry, prefix + "available", "Idle connections available for lease", tags,
+                pool -> stats.apply(pool).getAvailable());
+        bindGauge(registry, prefix + "pending", "Requests waiting for a connection", tags,
+                pool -> stats.apply(pool).getPending());
+        bindGauge(registry, prefix + "max", "Max connections", tags,
+                pool -> stats.apply(pool).getMax());
+    }
+
+    private void bindGauge(MeterRegistry registry, String name, String description, Tags tags,
+                           ToIntFunction<ConnPoolControl<HttpRoute>> value) {
+        Gauge.builder(name, connectionPool, pool -> value.applyAsInt(pool))
+                .description(description)
+                .baseUnit("connections")
+                .tags(tags)
+                .register(registry);
+    }
+}
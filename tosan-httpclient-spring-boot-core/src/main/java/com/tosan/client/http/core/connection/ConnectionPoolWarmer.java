@@ -0,0 +1,112 @@
+package com.tosan.client.http.core.connection;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.Deadline;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-opens pooled connections (TCP connect and TLS handshake) to the base service url so the first requests after
+ * startup do not pay the connection setup cost.
+ * Failures are logged and never propagated, a cold pool is still usable.
+ */
+public class ConnectionPoolWarmer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolWarmer.class);
+    private final HttpRequestExecutor requestExecutor = new HttpRequestExecutor();
+
+    /**
+     * @param connectionManager pool to populate
+     * @param baseServiceUrl    absolute url of the service
+     * @param warmupConfig      number of connections, optional request path and time budget
+     * @param keepAlive         keep-alive of the warmed connections once released to the pool
+     * @return number of connections opened
+     */
+    public int warmUp(PoolingHttpClientConnectionManager connectionManager, String baseServiceUrl,
+                      HttpClientProperties.WarmupConfiguration warmupConfig, TimeValue keepAlive) {
+        Deadline deadline = Deadline.calculate(TimeValue.ofMilliseconds(warmupConfig.getTimeout()));
+        HttpHost target;
+        HttpRoute route;
+        try {
+            target = HttpHost.create(URI.create(baseServiceUrl));
+            route = new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE)
+                    .determineRoute(target, createRequest(target, warmupConfig.getPath()), HttpClientContext.create());
+        } catch (Exception e) {
+            LOGGER.warn("Connection warm-up skipped, invalid url '{}': {}", baseServiceUrl, e.getMessage());
+            return 0;
+        }
+        List<ConnectionEndpoint> endpoints = new ArrayList<>();
+        ConnectionEndpoint current = null;
+        try {
+            for (int i = 0; i < warmupConfig.getConnections() && !deadline.isExpired(); i++) {
+                current = connectionManager.lease("warmup-" + i, route, remaining(deadline), null)
+                        .get(remaining(deadline));
+                endpoints.add(current);
+                if (!current.isConnected()) {
+                    connectionManager.connect(current, remaining(deadline), HttpClientContext.create());
+                }
+                if (StringUtils.isNotBlank(warmupConfig.getPath())) {
+                    sendRequest(current, target, warmupConfig.getPath(), i);
+                }
+                current = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Connection warm-up of '{}' interrupted", baseServiceUrl);
+        } catch (Exception e) {
+            LOGGER.warn("Connection warm-up of '{}' stopped: {}", baseServiceUrl, e.getMessage());
+        }
+        int opened = 0;
+        for (ConnectionEndpoint endpoint : endpoints) {
+            if (endpoint == current) {
+                // the connection of a failed warm-up is in an unknown state and must not be reused
+                endpoint.close(CloseMode.IMMEDIATE);
+                connectionManager.release(endpoint, null, TimeValue.ZERO_MILLISECONDS);
+                continue;
+            }
+            if (endpoint.isConnected()) {
+                opened++;
+            }
+            connectionManager.release(endpoint, null, keepAlive);
+        }
+        LOGGER.info("Warmed up {} connection(s) to '{}'", opened, baseServiceUrl);
+        return opened;
+    }
+
+    private void sendRequest(ConnectionEndpoint endpoint, HttpHost target, String path, int index) throws Exception {
+        BasicClassicHttpRequest request = createRequest(target, path);
+        request.setHeader(HttpHeaders.HOST, target.toHostString());
+        try (ClassicHttpResponse response = endpoint.execute("warmup-" + index, request, requestExecutor::execute,
+                HttpClientContext.create())) {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    private BasicClassicHttpRequest createRequest(HttpHost target, String path) {
+        return new BasicClassicHttpRequest(Method.GET, target, StringUtils.defaultIfBlank(path, "/"));
+    }
+
+    private Timeout remaining(Deadline deadline) {
+        return Timeout.ofMilliseconds(Math.max(1L, deadline.remaining()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.tosan.client.http.core.connection;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Evicts expired and idle connections of every registered connection pool using one shared scheduler thread.
+ * <p>
+ * The scheduler thread is started when the first pool registers and stopped when the last pool deregisters,
+ * so closed clients (e.g. on context refresh) do not leave timer threads or pools behind.
+ */
+public class IdleConnectionEvictor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdleConnectionEvictor.class);
+    private static final String THREAD_NAME = "tosan-httpclient-idle-connection-evictor";
+    private static final IdleConnectionEvictor SHARED_INSTANCE = new IdleConnectionEvictor();
+
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private final AtomicLong evictedConnections = new AtomicLong();
+    private ScheduledThreadPoolExecutor executor;
+
+    /**
+     * @return evictor shared by all clients of the application
+     */
+    public static IdleConnectionEvictor getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * @param name              name of the pool, used for logging
+     * @param connectionManager connection manager to sweep
+     * @param initialDelay      delay before the first sweep in milliseconds
+     * @param period            sweep interval in milliseconds
+     * @param idleTimeout       idle time after which connections are closed in milliseconds, not positive to only
+     *                          close expired connections
+     * @return registration which deregisters the pool when closed
+     */
+    public Registration register(String name, PoolingHttpClientConnectionManager connectionManager,
+                                 long initialDelay, long period, long idleTimeout) {
+        return register(name, connectionManager, connectionManager::isClosed, initialDelay, period, idleTimeout);
+    }
+
+    /**
+     * @see #register(String, PoolingHttpClientConnectionManager, long, long, long)
+     */
+    public Registration register(String name, PoolingAsyncClientConnectionManager connectionManager,
+                                 long initialDelay, long period, long idleTimeout) {
+        return register(name, connectionManager, connectionManager::isClosed, initialDelay, period, idleTimeout);
+    }
+
+    private synchronized Registration register(String name, ConnPoolControl<?> connectionManager, BooleanSupplier closed,
+                                               long initialDelay, long period, long idleTimeout) {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        Registration registration = new Registration(name, connectionManager, closed, idleTimeout);
+        registrations.add(registration);
+        registration.future = executor.scheduleWithFixedDelay(registration::sweep, initialDelay, period,
+                TimeUnit.MILLISECONDS);
+        LOGGER.debug("Connection pool '{}' registered for idle connection eviction", name);
+        return registration;
+    }
+
+    /**
+     * @return number of pools currently swept
+     */
+    public int getRegisteredPoolCount() {
+        return registrations.size();
+    }
+
+    /**
+     * @return total number of connections evicted since startup
+     */
+    public long getEvictedConnectionCount() {
+        return evictedConnections.get();
+    }
+
+    /**
+     * Cancels all registrations and stops the scheduler thread.
+     */
+    public synchronized void shutdown() {
+        registrations.forEach(registration -> registration.future.cancel(false));
+        registrations.clear();
+        stopExecutor();
+    }
+
+    private synchronized void deregister(Registration registration) {
+        if (registrations.remove(registration) && registration.future != null) {
+            registration.future.cancel(false);
+            LOGGER.debug("Connection pool '{}' deregistered from idle connection eviction", registration.name);
+        }
+        if (registrations.isEmpty()) {
+            stopExecutor();
+        }
+    }
+
+    private void stopExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public class Registration implements Closeable {
+        private final String name;
+        private final ConnPoolControl<?> connectionManager;
+        private final BooleanSupplier closed;
+        private final TimeValue idleTimeout;
+        private volatile ScheduledFuture<?> future;
+
+        private Registration(String name, ConnPoolControl<?> connectionManager, BooleanSupplier closed,
+                             long idleTimeout) {
+            this.name = name;
+            this.connectionManager = connectionManager;
+            this.closed = closed;
+            this.idleTimeout = idleTimeout > 0 ? TimeValue.ofMilliseconds(idleTimeout) : null;
+        }
+
+        /**
+         * Closes expired and idle connections of the pool.
+         *
+         * @return number of connections evicted by this sweep
+         */
+        public int sweep() {
+            if (closed.getAsBoolean()) {
+                close();
+                return 0;
+            }
+            try {
+                PoolStats before = connectionManager.getTotalStats();
+                connectionManager.closeExpired();
+                if (idleTimeout != null) {
+                    connectionManager.closeIdle(idleTimeout);
+                }
+                int evicted = Math.max(0, before.getAvailable() - connectionManager.getTotalStats().getAvailable());
+                if (evicted > 0) {
+                    evictedConnections.addAndGet(evicted);
+                    LOGGER.debug("Evicted {} connection(s) from pool '{}'", evicted, name);
+                }
+                return evicted;
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Idle connection eviction failed for pool '{}'", name, ex);
+                return 0;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            deregister(this);
+        }
+    }
+}
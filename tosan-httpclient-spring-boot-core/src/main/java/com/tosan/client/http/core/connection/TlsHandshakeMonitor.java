@@ -0,0 +1,132 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.net.NamedEndpoint;
+import org.apache.hc.core5.reactor.ssl.TlsDetails;
+import org.apache.hc.core5.reactor.ssl.TransportSecurityLayer;
+import org.apache.hc.core5.util.Timeout;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts full and resumed TLS handshakes of a connection pool in the {@value #HANDSHAKE_METER} meter, tagged with
+ * {@value #TYPE_TAG} {@code full} or {@code resumed}, once {@link #bindTo(MeterRegistry, Tags)} is called.
+ * <p>
+ * A handshake is resumed when the negotiated session was created before the handshake started, which holds for
+ * TLS 1.2 session id / ticket resumption and TLS 1.3 PSK resumption of the JDK provider.
+ */
+public class TlsHandshakeMonitor {
+    public static final String HANDSHAKE_METER = "http.client.tls.handshake";
+    public static final String TYPE_TAG = "type";
+
+    private final LongAdder fullHandshakes = new LongAdder();
+    private final LongAdder resumedHandshakes = new LongAdder();
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        FunctionCounter.builder(HANDSHAKE_METER, fullHandshakes, LongAdder::sum)
+                .description("TLS handshakes of new connections")
+                .tags(tags.and(TYPE_TAG, "full"))
+                .register(registry);
+        FunctionCounter.builder(HANDSHAKE_METER, resumedHandshakes, LongAdder::sum)
+                .description("TLS handshakes of new connections")
+                .tags(tags.and(TYPE_TAG, "resumed"))
+                .register(registry);
+    }
+
+    /**
+     * @param session        negotiated session
+     * @param startTimeMillis wall clock time at which the handshake started
+     */
+    public void record(SSLSession session, long startTimeMillis) {
+        if (session == null) {
+            return;
+        }
+        if (session.getCreationTime() < startTimeMillis) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+        }
+    }
+
+    public long getFullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    public long getResumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    /**
+     * @return strategy counting the handshakes of the classic client
+     */
+    public TlsSocketStrategy monitor(TlsSocketStrategy tlsSocketStrategy) {
+        return (socket, target, port, attachment, context) -> {
+            long start = System.currentTimeMillis();
+            SSLSocket sslSocket = tlsSocketStrategy.upgrade(socket, target, port, attachment, context);
+            record(sslSocket.getSession(), start);
+            return sslSocket;
+        };
+    }
+
+    /**
+     * @return strategy counting the handshakes of the async client
+     */
+    public TlsStrategy monitor(TlsStrategy tlsStrategy) {
+        return new MonitoredTlsStrategy(tlsStrategy);
+    }
+
+    private class MonitoredTlsStrategy implements TlsStrategy {
+        private final TlsStrategy delegate;
+
+        private MonitoredTlsStrategy(TlsStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean upgrade(TransportSecurityLayer tlsSession, HttpHost host, SocketAddress localAddress,
+                               SocketAddress remoteAddress, Object attachment, Timeout handshakeTimeout) {
+            return delegate.upgrade(tlsSession, host, localAddress, remoteAddress, attachment, handshakeTimeout);
+        }
+
+        @Override
+        public void upgrade(TransportSecurityLayer tlsSession, NamedEndpoint endpoint, Object attachment,
+                            Timeout handshakeTimeout, FutureCallback<TransportSecurityLayer> callback) {
+            long start = System.currentTimeMillis();
+            delegate.upgrade(tlsSession, endpoint, attachment, handshakeTimeout,
+                    new FutureCallback<>() {
+                        @Override
+                        public void completed(TransportSecurityLayer result) {
+                            TlsDetails tlsDetails = result.getTlsDetails();
+                            record(tlsDetails != null ? tlsDetails.getSSLSession() : null, start);
+                            if (callback != null) {
+                                callback.completed(result);
+                            }
+                        }
+
+                        @Override
+                        public void failed(Exception ex) {
+                            if (callback != null) {
+                                callback.failed(ex);
+                            }
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            if (callback != null) {
+                                callback.cancelled();
+                            }
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.tosan.client.http.core.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which the response of a call chain is needed, on the monotonic clock of this JVM. Deadlines cross
+ * services as the remaining budget in milliseconds, so they do not depend on synchronized clocks.
+ */
+public final class Deadline {
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @param millis budget from now
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @param remainingMillis remaining budget in milliseconds, as sent in the deadline header
+     * @return deadline, or null when the value is blank or not a number
+     */
+    public static Deadline parse(String remainingMillis) {
+        if (remainingMillis == null || remainingMillis.isBlank()) {
+            return null;
+        }
+        try {
+            return after(Long.parseLong(remainingMillis.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return milliseconds left, rounded down, 0 once expired
+     */
+    public long getRemainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(nanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return nanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the earlier of this deadline and {@code other}, this one when {@code other} is null
+     */
+    public Deadline min(Deadline other) {
+        return other == null || nanos - other.nanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return getRemainingMillis() + " ms";
+    }
+}
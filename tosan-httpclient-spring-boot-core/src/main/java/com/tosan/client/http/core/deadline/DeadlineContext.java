@@ -0,0 +1,66 @@
+package com.tosan.client.http.core.deadline;
+
+/**
+ * Deadline of the call chain running on the current thread, set from the deadline header of an incoming request by
+ * {@link DeadlineFilter} or from a budget of the application. Scopes nest: an inner scope can only bring the
+ * deadline closer. The invocation executors carry the deadline to the threads they run calls on.
+ * <pre>
+ * try (DeadlineContext.Scope scope = DeadlineContext.withBudget(800)) {
+ *     invoker.getClient().getCustomer(id);
+ * }
+ * </pre>
+ */
+public final class DeadlineContext {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * @return deadline of the current thread, or null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param deadline deadline of the calls within the scope, ignored when null or later than the current one
+     * @return scope restoring the previous deadline on close
+     */
+    public static Scope open(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        if (deadline == null) {
+            return () -> {
+            };
+        }
+        CURRENT.set(deadline.min(previous));
+        return () -> restore(previous);
+    }
+
+    /**
+     * @param millis budget from now of the calls within the scope
+     */
+    public static Scope withBudget(long millis) {
+        return open(Deadline.after(millis));
+    }
+
+    /**
+     * Sets the deadline of the current thread without a scope, for decorated tasks restoring it themselves.
+     */
+    static void restore(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    /**
+     * Deadline scope, closed on the thread that opened it.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,26 @@
+package com.tosan.client.http.core.deadline;
+
+import java.io.IOException;
+
+/**
+ * Thrown without sending the request when the deadline of the current call chain has already passed.
+ */
+public class DeadlineExceededException extends IOException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    /**
+     * @return whether {@code throwable} or one of its causes is a {@link DeadlineExceededException}, a call which was
+     * not sent and says nothing of the health of the endpoint
+     */
+    public static boolean isCause(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
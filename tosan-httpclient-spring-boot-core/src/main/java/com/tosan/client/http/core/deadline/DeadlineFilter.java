@@ -0,0 +1,29 @@
+package com.tosan.client.http.core.deadline;
+
+import com.tosan.client.http.core.Constants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link DeadlineContext} scope for the remaining budget sent in the {@value Constants#X_REQUEST_TIMEOUT}
+ * header of incoming requests, so the calls made while handling them share the caller's deadline.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Deadline deadline = Deadline.parse(request.getHeader(Constants.X_REQUEST_TIMEOUT));
+        DeadlineContext.Scope scope = DeadlineContext.open(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.tosan.client.http.core.deadline;
+
+import jakarta.servlet.Filter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link DeadlineFilter} in servlet web applications.
+ */
+@AutoConfiguration
+@ConditionalOnClass(Filter.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DeadlineFilterAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DeadlineFilter deadlineFilter() {
+        return new DeadlineFilter();
+    }
+}
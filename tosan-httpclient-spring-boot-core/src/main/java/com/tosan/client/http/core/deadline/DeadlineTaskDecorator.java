@@ -0,0 +1,23 @@
+package com.tosan.client.http.core.deadline;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Copies the submitting thread's deadline into the thread running the task
+ */
+public class DeadlineTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Deadline deadline = DeadlineContext.current();
+        return () -> {
+            Deadline previous = DeadlineContext.current();
+            DeadlineContext.restore(deadline);
+            try {
+                runnable.run();
+            } finally {
+                DeadlineContext.restore(previous);
+            }
+        };
+    }
+}
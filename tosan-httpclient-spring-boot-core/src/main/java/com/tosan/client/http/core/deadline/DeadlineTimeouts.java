@@ -0,0 +1,88 @@
+package com.tosan.client.http.core.deadline;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.AsyncExecChainHandler;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.function.Resolver;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Exec interceptors applying the {@link DeadlineContext deadline} of the calling thread to each request: expired
+ * requests are rejected before a connection is leased, the others get connection request and response timeouts no
+ * longer than the remaining budget. Without a response timeout in the request configuration, the socket timeout of the
+ * connection configuration of the route is the one shortened. The connect timeout is not shortened.
+ */
+public final class DeadlineTimeouts {
+    public static final String EXEC_INTERCEPTOR_NAME = "deadline";
+
+    private DeadlineTimeouts() {
+    }
+
+    /**
+     * @param connectionConfigResolver connection configuration of the pool, the source of the socket timeouts
+     * @return interceptor of the classic client, to be added first to the exec chain
+     */
+    public static ExecChainHandler createExecInterceptor(
+            Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver) {
+        return (request, scope, chain) -> {
+            apply(DeadlineContext.current(), scope.clientContext,
+                    getSocketTimeout(connectionConfigResolver, scope.route));
+            return chain.proceed(request, scope);
+        };
+    }
+
+    /**
+     * @see #createExecInterceptor(Resolver)
+     * @return interceptor of the async client, to be added first to the exec chain
+     */
+    public static AsyncExecChainHandler createAsyncExecInterceptor(
+            Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver) {
+        return (request, entityProducer, scope, chain, callback) -> {
+            apply(DeadlineContext.current(), scope.clientContext,
+                    getSocketTimeout(connectionConfigResolver, scope.route));
+            chain.proceed(request, entityProducer, scope, callback);
+        };
+    }
+
+    /**
+     * Shortens the timeouts of the request configuration of {@code context} to the remaining budget of
+     * {@code deadline}, if any.
+     *
+     * @param socketTimeout socket timeout of the route, capped when the request configuration has no response timeout
+     * @throws DeadlineExceededException when the deadline has passed
+     */
+    static void apply(Deadline deadline, HttpClientContext context, Timeout socketTimeout)
+            throws DeadlineExceededException {
+        if (deadline == null) {
+            return;
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before sending the request");
+        }
+        Timeout remaining = Timeout.ofMilliseconds(Math.max(1, deadline.getRemainingMillis()));
+        RequestConfig requestConfig = context.getRequestConfigOrDefault();
+        Timeout responseTimeout = requestConfig.getResponseTimeout() != null ?
+                requestConfig.getResponseTimeout() : socketTimeout;
+        context.setRequestConfig(RequestConfig.copy(requestConfig)
+                .setConnectionRequestTimeout(min(requestConfig.getConnectionRequestTimeout(), remaining))
+                .setResponseTimeout(min(responseTimeout, remaining))
+                .build());
+    }
+
+    private static Timeout getSocketTimeout(Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver,
+                                            HttpRoute route) {
+        ConnectionConfig connectionConfig = connectionConfigResolver != null && route != null ?
+                connectionConfigResolver.resolve(route) : null;
+        return connectionConfig != null ? connectionConfig.getSocketTimeout() : null;
+    }
+
+    private static Timeout min(Timeout timeout, Timeout remaining) {
+        if (timeout == null || timeout.isDisabled() || timeout.compareTo(remaining) > 0) {
+            return remaining;
+        }
+        return timeout;
+    }
+}
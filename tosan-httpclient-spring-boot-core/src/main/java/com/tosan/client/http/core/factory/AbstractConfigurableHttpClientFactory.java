@@ -0,0 +1,369 @@
+package com.tosan.client.http.core.factory;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.certificate.CertificateLoader;
+import com.tosan.client.http.core.certificate.CertificateReloader;
+import com.tosan.client.http.core.connection.AdaptivePoolSizer;
+import com.tosan.client.http.core.connection.CachingDnsResolver;
+import com.tosan.client.http.core.connection.ConnectionLeaseMonitor;
+import com.tosan.client.http.core.connection.ConnectionPoolMetrics;
+import com.tosan.client.http.core.connection.IdleConnectionEvictor;
+import com.tosan.client.http.core.connection.TlsHandshakeMonitor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.core5.function.Resolver;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.io.IOException;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration shared by the classic and async Apache HttpClient factories
+ */
+public abstract class AbstractConfigurableHttpClientFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractConfigurableHttpClientFactory.class);
+    protected static final long EVICTION_INITIAL_DELAY = 30000L;
+    protected final HttpClientProperties httpClientProperties;
+    protected final IdleConnectionEvictor idleConnectionEvictor;
+    protected AdaptivePoolSizer.Registration adaptivePoolRegistration;
+    private ConnectionLeaseMonitor connectionLeaseMonitor;
+    private final TlsHandshakeMonitor tlsHandshakeMonitor = new TlsHandshakeMonitor();
+
+    protected AbstractConfigurableHttpClientFactory(HttpClientProperties httpClientProperties,
+                                                    IdleConnectionEvictor idleConnectionEvictor) {
+        this.httpClientProperties = httpClientProperties;
+        this.idleConnectionEvictor = idleConnectionEvictor;
+    }
+
+    /**
+     * @param clientName external service name used as meter tag
+     * @return metrics of the pool built by {@code createBuilder()}
+     */
+    public ConnectionPoolMetrics createConnectionPoolMetrics(String clientName) {
+        if (getConnectionPool() == null) {
+            throw new IllegalStateException("Connection pool is created by createBuilder()");
+        }
+        return new ConnectionPoolMetrics(clientName, getConnectionPool(), getConfiguredRoutes(),
+                connectionLeaseMonitor, tlsHandshakeMonitor, adaptivePoolRegistration);
+    }
+
+    /**
+     * @return lease monitor of the pool built by {@code createBuilder()}
+     */
+    protected ConnectionLeaseMonitor createConnectionLeaseMonitor() {
+        connectionLeaseMonitor = new ConnectionLeaseMonitor(getConnectionPool(),
+                httpClientProperties.getConnection().getMaxPendingLeases());
+        return connectionLeaseMonitor;
+    }
+
+    /**
+     * @return connection manager built by {@code createBuilder()}, or null before the builder is created
+     */
+    protected abstract ConnPoolControl<HttpRoute> getConnectionPool();
+
+    protected RequestConfig createRequestConfig() {
+        return RequestConfig.custom()
+                .setRedirectsEnabled(httpClientProperties.getConnection().isFollowRedirects())
+                .setCookieSpec(httpClientProperties.getConnection().getCookieSpecPolicy())
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(
+                        httpClientProperties.getConnection().getConnectionRequestTimeout()))
+                .build();
+    }
+
+    protected ConnectionConfig createConnectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnection().getConnectionTimeout()))
+                .setSocketTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnection().getSocketTimeout()))
+                .setTimeToLive(TimeValue.ofMilliseconds(httpClientProperties.getConnection().getTimeToLive()))
+                .build();
+    }
+
+    /**
+     * @return route configuration merged over the default connection configuration
+     */
+    protected ConnectionConfig createConnectionConfig(HttpClientProperties.RouteConfiguration routeConfig) {
+        HttpClientProperties.ConnectionConfiguration connectionConfig = httpClientProperties.getConnection();
+        ConnectionConfig.Builder builder = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(routeConfig.getConnectionTimeout() != null ?
+                        routeConfig.getConnectionTimeout() : connectionConfig.getConnectionTimeout()))
+                .setSocketTimeout(Timeout.ofMilliseconds(routeConfig.getSocketTimeout() != null ?
+                        routeConfig.getSocketTimeout() : connectionConfig.getSocketTimeout()))
+                .setTimeToLive(TimeValue.ofMilliseconds(routeConfig.getTimeToLive() != null ?
+                        routeConfig.getTimeToLive() : connectionConfig.getTimeToLive()));
+        if (routeConfig.getValidateAfterInactivity() != null) {
+            builder.setValidateAfterInactivity(TimeValue.ofMilliseconds(routeConfig.getValidateAfterInactivity()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return caching resolver of the service when {@code dns.enable} is set, the system resolver otherwise
+     */
+    protected DnsResolver createDnsResolver() {
+        HttpClientProperties.DnsConfiguration dnsConfiguration = httpClientProperties.getDns();
+        if (!dnsConfiguration.isEnable()) {
+            return SystemDefaultDnsResolver.INSTANCE;
+        }
+        return new CachingDnsResolver(SystemDefaultDnsResolver.INSTANCE, dnsConfiguration);
+    }
+
+    /**
+     * @return resolver of the per route connection configuration, falling back to {@link #createConnectionConfig()}
+     */
+    protected Resolver<HttpRoute, ConnectionConfig> createConnectionConfigResolver() {
+        ConnectionConfig defaultConfig = createConnectionConfig();
+        Map<String, ConnectionConfig> routeConfigs = new HashMap<>();
+        httpClientProperties.getRoutes().forEach((key, routeConfig) -> {
+            ConnectionConfig connectionConfig = createConnectionConfig(routeConfig);
+            createRouteTargets(key).forEach(target -> routeConfigs.put(getRouteKey(target), connectionConfig));
+        });
+        return route -> routeConfigs.getOrDefault(getRouteKey(route.getTargetHost()), defaultConfig);
+    }
+
+    /**
+     * @return max connections of the configured routes, for both http and https
+     */
+    protected Map<HttpRoute, Integer> createMaxPerRoute() {
+        HttpRoutePlanner routePlanner = createRoutePlanner();
+        Map<HttpRoute, Integer> maxPerRoute = new HashMap<>();
+        httpClientProperties.getRoutes().forEach((key, routeConfig) -> {
+            if (routeConfig.getMaxConnections() != null) {
+                createRoutes(routePlanner, key)
+                        .forEach(route -> maxPerRoute.put(route, routeConfig.getMaxConnections()));
+            }
+        });
+        return maxPerRoute;
+    }
+
+    /**
+     * @return routes of the base service urls and of every configured {@code host:port}
+     */
+    protected Set<HttpRoute> getConfiguredRoutes() {
+        HttpRoutePlanner routePlanner = createRoutePlanner();
+        Set<HttpRoute> routes = new LinkedHashSet<>();
+        for (String serviceUrl : getServiceUrls()) {
+            try {
+                routes.add(createRoute(routePlanner, HttpHost.create(URI.create(serviceUrl))));
+            } catch (Exception e) {
+                LOGGER.debug("No route for base service url '{}'", serviceUrl);
+            }
+        }
+        httpClientProperties.getRoutes().keySet().forEach(key -> routes.addAll(createRoutes(routePlanner, key)));
+        return routes;
+    }
+
+    /**
+     * @return http and https routes of a {@code host:port} key, through the proxy when one is configured
+     */
+    private List<HttpRoute> createRoutes(HttpRoutePlanner routePlanner, String key) {
+        List<HttpRoute> routes = new ArrayList<>();
+        try {
+            for (HttpHost target : createRouteTargets(key)) {
+                routes.add(createRoute(routePlanner, target));
+            }
+        } catch (HttpException e) {
+            LOGGER.warn("No route for '{}': {}", key, e.getMessage());
+        }
+        return routes;
+    }
+
+    /**
+     * @return http and https targets of a {@code host:port} key, a missing port defaults to the one of the scheme
+     */
+    private List<HttpHost> createRouteTargets(String key) {
+        List<HttpHost> targets = new ArrayList<>();
+        try {
+            HttpHost host = HttpHost.create(key);
+            for (URIScheme scheme : URIScheme.values()) {
+                HttpHost target = new HttpHost(scheme.getId(), host.getHostName(), host.getPort());
+                targets.add(host.getPort() >= 0 ? target : new HttpHost(scheme.getId(), host.getHostName(),
+                        DefaultSchemePortResolver.INSTANCE.resolve(target)));
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Invalid route '{}', expected host:port, skipping", key);
+        }
+        return targets;
+    }
+
+    private HttpRoute createRoute(HttpRoutePlanner routePlanner, HttpHost target) throws HttpException {
+        return routePlanner.determineRoute(target, new BasicHttpRequest(Method.GET, target, "/"),
+                HttpClientContext.create());
+    }
+
+    /**
+     * @return planner of the routes used by the client, so the configured routes match the pooled ones
+     */
+    private HttpRoutePlanner createRoutePlanner() {
+        HttpClientProperties.ProxyConfiguration proxyConfig = httpClientProperties.getProxy();
+        if (proxyConfig.isEnable() && StringUtils.isNoneBlank(proxyConfig.getHost(), proxyConfig.getPort())) {
+            return new DefaultProxyRoutePlanner(createProxyHost(proxyConfig), DefaultSchemePortResolver.INSTANCE);
+        }
+        return new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE);
+    }
+
+    protected boolean isSecure() {
+        String baseServiceUrl = httpClientProperties.getBaseServiceUrl();
+        return baseServiceUrl != null && baseServiceUrl.startsWith("https");
+    }
+
+    /**
+     * @return configured {@link SSLContext} or null, with the session cache size and timeout applied
+     */
+    protected SSLContext createSSLContext() {
+        SSLContext sslContext = buildSSLContext();
+        if (sslContext == null) {
+            LOGGER.warn("Invalid SSL Context, skipping");
+            return null;
+        }
+        configureSessionContext(sslContext.getClientSessionContext(), httpClientProperties.getSsl());
+        return sslContext;
+    }
+
+    private SSLContext buildSSLContext() {
+        HttpClientProperties.SSLConfiguration sslConfiguration = httpClientProperties.getSsl();
+        if (sslConfiguration.isReload()) {
+            try {
+                return CertificateReloader.getSharedInstance().getSSLContext(sslConfiguration);
+            } catch (GeneralSecurityException | IOException ex) {
+                LOGGER.error("Could not build reloadable SSLContext, falling back to static material", ex);
+            }
+        }
+        KeyStore trustStore = CertificateLoader.getTrustStore(sslConfiguration);
+        KeyStore keyStore = CertificateLoader.getKeyStore(sslConfiguration);
+        return CertificateLoader.buildSSLContext(sslConfiguration, keyStore, trustStore);
+    }
+
+    /**
+     * Contexts are shared per store and session settings, so only clients with the same settings apply them here.
+     */
+    private void configureSessionContext(SSLSessionContext sessionContext,
+                                         HttpClientProperties.SSLConfiguration sslConfiguration) {
+        if (sessionContext == null) {
+            return;
+        }
+        if (sslConfiguration.getSessionCacheSize() != null) {
+            sessionContext.setSessionCacheSize(sslConfiguration.getSessionCacheSize());
+        }
+        if (sslConfiguration.getSessionTimeout() != null) {
+            sessionContext.setSessionTimeout(sslConfiguration.getSessionTimeout());
+        }
+    }
+
+    /**
+     * @return configured TLS protocols or null for the defaults of the {@link SSLContext}
+     */
+    protected String[] getTlsProtocols() {
+        List<String> protocols = httpClientProperties.getSsl().getProtocols();
+        return protocols == null || protocols.isEmpty() ? null : protocols.toArray(new String[0]);
+    }
+
+    /**
+     * @return configured cipher suites or null for the defaults of the {@link SSLContext}
+     */
+    protected String[] getCipherSuites() {
+        List<String> cipherSuites = httpClientProperties.getSsl().getCipherSuites();
+        return cipherSuites == null || cipherSuites.isEmpty() ? null : cipherSuites.toArray(new String[0]);
+    }
+
+    /**
+     * @return handshake monitor of the pool built by {@code createBuilder()}
+     */
+    protected TlsHandshakeMonitor getTlsHandshakeMonitor() {
+        return tlsHandshakeMonitor;
+    }
+
+    protected HostnameVerifier createHostnameVerifier() {
+        if (httpClientProperties.getSsl().isCheckValidity()) {
+            return new DefaultHostnameVerifier();
+        }
+        LOGGER.warn("SSL validity check is disabled for url '{}'", httpClientProperties.getBaseServiceUrl());
+        return NoopHostnameVerifier.INSTANCE;
+    }
+
+    /**
+     * @return proxy host or null if proxy configuration is invalid
+     */
+    protected HttpHost createProxyHost(HttpClientProperties.ProxyConfiguration proxyConfig) {
+        if (StringUtils.isNoneBlank(proxyConfig.getHost(), proxyConfig.getPort())) {
+            return new HttpHost(proxyConfig.getHost(), Integer.parseInt(proxyConfig.getPort()));
+        }
+        LOGGER.warn("Invalid Proxy Host, skipping");
+        return null;
+    }
+
+    /**
+     * @return credentials provider for proxy authentication or null if no credentials are configured
+     */
+    protected BasicCredentialsProvider createProxyCredentialsProvider(HttpClientProperties.ProxyConfiguration proxyConfig) {
+        if (!StringUtils.isNoneBlank(proxyConfig.getUser(), proxyConfig.getPassword())) {
+            return null;
+        }
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(
+                new AuthScope(proxyConfig.getHost(), Integer.parseInt(proxyConfig.getPort())),
+                new UsernamePasswordCredentials(proxyConfig.getUser(), proxyConfig.getPassword().toCharArray()));
+        return credentialsProvider;
+    }
+
+    /**
+     * @return sizer adapting the per route limits when {@code adaptivePool.enable} is set
+     */
+    protected AdaptivePoolSizer getAdaptivePoolSizer() {
+        return AdaptivePoolSizer.getSharedInstance();
+    }
+
+    private String getRouteKey(HttpHost host) {
+        return host.getHostName().toLowerCase(Locale.ROOT) + ":" + host.getPort();
+    }
+
+    /**
+     * @return {@code baseServiceUrls} when configured, the base service url otherwise
+     */
+    protected List<String> getServiceUrls() {
+        List<String> serviceUrls = httpClientProperties.getBaseServiceUrls();
+        if (serviceUrls != null && !serviceUrls.isEmpty()) {
+            return serviceUrls;
+        }
+        String baseServiceUrl = httpClientProperties.getBaseServiceUrl();
+        return baseServiceUrl != null ? List.of(baseServiceUrl) : List.of();
+    }
+
+    protected String getPoolName() {
+        return String.valueOf(httpClientProperties.getBaseServiceUrl());
+    }
+}
@@ -0,0 +1,188 @@
+package com.tosan.client.http.core.factory;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.HttpProtocol;
+import com.tosan.client.http.core.connection.ConnectionLeaseMonitor;
+import com.tosan.client.http.core.connection.IdleConnectionEvictor;
+import com.tosan.client.http.core.deadline.DeadlineTimeouts;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.function.Resolver;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.util.Map;
+
+/**
+ * Factory used to create a non-blocking HttpAsyncClient Instance from the same {@link HttpClientProperties}
+ * as {@link ConfigurableApacheHttpClientFactory}
+ */
+public class ConfigurableApacheHttpAsyncClientFactory extends AbstractConfigurableHttpClientFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurableApacheHttpAsyncClientFactory.class);
+    private final HttpAsyncClientBuilder httpAsyncClientBuilder;
+    private final PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder;
+    private PoolingAsyncClientConnectionManager connectionManager;
+
+    public ConfigurableApacheHttpAsyncClientFactory(HttpAsyncClientBuilder httpAsyncClientBuilder,
+                                                    PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder,
+                                                    HttpClientProperties httpClientProperties) {
+        this(httpAsyncClientBuilder, connectionManagerBuilder, httpClientProperties,
+                IdleConnectionEvictor.getSharedInstance());
+    }
+
+    public ConfigurableApacheHttpAsyncClientFactory(HttpAsyncClientBuilder httpAsyncClientBuilder,
+                                                    PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder,
+                                                    HttpClientProperties httpClientProperties,
+                                                    IdleConnectionEvictor idleConnectionEvictor) {
+        super(httpClientProperties, idleConnectionEvictor);
+        this.httpAsyncClientBuilder = httpAsyncClientBuilder;
+        this.connectionManagerBuilder = connectionManagerBuilder;
+    }
+
+    /**
+     * The returned builder creates a client which must be started before use.
+     */
+    public HttpAsyncClientBuilder createBuilder() {
+        if (httpClientProperties.getWarmup().isEnable()) {
+            LOGGER.warn("Connection warm-up is only supported by the classic transport, skipping for url '{}'",
+                    httpClientProperties.getBaseServiceUrl());
+        }
+        httpAsyncClientBuilder.setDefaultRequestConfig(createRequestConfig());
+        if (httpClientProperties.getRetry().isEnable()) {
+            httpAsyncClientBuilder.disableAutomaticRetries();
+        }
+        configureIOReactor(httpAsyncClientBuilder);
+        configureProtocol(httpAsyncClientBuilder);
+        configureConnectionManager(httpAsyncClientBuilder);
+        HttpClientProperties.ProxyConfiguration proxyConfig = httpClientProperties.getProxy();
+        if (proxyConfig.isEnable()) {
+            configureProxy(httpAsyncClientBuilder, proxyConfig);
+            configureAuthentication(httpAsyncClientBuilder, proxyConfig);
+        }
+
+        return httpAsyncClientBuilder;
+    }
+
+    /**
+     * @return connection manager built by {@link #createBuilder()}, or null before the builder is created
+     */
+    public PoolingAsyncClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @Override
+    protected ConnPoolControl<HttpRoute> getConnectionPool() {
+        return connectionManager;
+    }
+
+    private void configureIOReactor(HttpAsyncClientBuilder builder) {
+        builder.setIOReactorConfig(IOReactorConfig.custom()
+                .setIoThreadCount(httpClientProperties.getConnection().getIoThreadCount())
+                .setSoTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnection().getSocketTimeout()))
+                .build());
+    }
+
+    private void configureProtocol(HttpAsyncClientBuilder builder) {
+        HttpClientProperties.ConnectionConfiguration connectionConfig = httpClientProperties.getConnection();
+        HttpProtocol protocol = connectionConfig.getProtocol();
+        if (protocol == HttpProtocol.H2C && isSecure()) {
+            LOGGER.warn("h2c is plain text only, url '{}' will use HTTP/2 over TLS", httpClientProperties.getBaseServiceUrl());
+        }
+        connectionManagerBuilder
+                .setDefaultTlsConfig(TlsConfig.custom().setVersionPolicy(getVersionPolicy(protocol)).build())
+                .setMessageMultiplexing(protocol.isHttp2Capable());
+        if (protocol.isHttp2Capable()) {
+            builder.setH2Config(H2Config.custom()
+                    .setMaxConcurrentStreams(connectionConfig.getMaxConcurrentStreams())
+                    .setInitialWindowSize(connectionConfig.getInitialWindowSize())
+                    .setPushEnabled(false)
+                    .build());
+        }
+    }
+
+    private HttpVersionPolicy getVersionPolicy(HttpProtocol protocol) {
+        return switch (protocol) {
+            case HTTP_1_1 -> HttpVersionPolicy.FORCE_HTTP_1;
+            case HTTP_2, H2C -> HttpVersionPolicy.FORCE_HTTP_2;
+            case NEGOTIATE -> HttpVersionPolicy.NEGOTIATE;
+        };
+    }
+
+    private void configureConnectionManager(HttpAsyncClientBuilder builder) {
+        Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver = createConnectionConfigResolver();
+        connectionManagerBuilder
+                .setMaxConnTotal(httpClientProperties.getConnection().getMaxConnections())
+                .setMaxConnPerRoute(httpClientProperties.getConnection().getMaxConnectionsPerRoute())
+                .setConnectionConfigResolver(connectionConfigResolver)
+                .setDnsResolver(createDnsResolver());
+        if (isSecure()) {
+            configureSSL(connectionManagerBuilder);
+        }
+        connectionManager = connectionManagerBuilder.build();
+        Map<HttpRoute, Integer> maxPerRoute = createMaxPerRoute();
+        maxPerRoute.forEach(connectionManager::setMaxPerRoute);
+        idleConnectionEvictor.register(getPoolName(), connectionManager, EVICTION_INITIAL_DELAY,
+                httpClientProperties.getConnection().getConnectionTimerRepeat(),
+                httpClientProperties.getConnection().getIdleConnectionTimeout());
+        if (httpClientProperties.getAdaptivePool().isEnable()) {
+            adaptivePoolRegistration = getAdaptivePoolSizer().register(getPoolName(), connectionManager,
+                    httpClientProperties.getAdaptivePool(), maxPerRoute.keySet());
+        }
+        ConnectionLeaseMonitor connectionLeaseMonitor = createConnectionLeaseMonitor();
+        builder.addExecInterceptorFirst(ConnectionLeaseMonitor.EXEC_INTERCEPTOR_NAME,
+                connectionLeaseMonitor.createAsyncExecInterceptor());
+        if (httpClientProperties.getDeadline().isEnable()) {
+            builder.addExecInterceptorFirst(DeadlineTimeouts.EXEC_INTERCEPTOR_NAME,
+                    DeadlineTimeouts.createAsyncExecInterceptor(connectionConfigResolver));
+        }
+        builder.setConnectionManager(connectionLeaseMonitor.monitor(connectionManager));
+    }
+
+    private void configureSSL(PoolingAsyncClientConnectionManagerBuilder builder) {
+        SSLContext sslContext = createSSLContext();
+        ClientTlsStrategyBuilder tlsStrategyBuilder = ClientTlsStrategyBuilder.create()
+                .setHostnameVerifier(createHostnameVerifier());
+        if (sslContext != null) {
+            String[] protocols = getTlsProtocols();
+            if (protocols != null) {
+                tlsStrategyBuilder.setTlsVersions(protocols);
+            }
+            String[] cipherSuites = getCipherSuites();
+            if (cipherSuites != null) {
+                tlsStrategyBuilder.setCiphers(cipherSuites);
+            }
+            builder.setTlsStrategy(getTlsHandshakeMonitor().monitor(
+                    tlsStrategyBuilder.setSslContext(sslContext).buildAsync()));
+        }
+    }
+
+    private void configureProxy(HttpAsyncClientBuilder builder, HttpClientProperties.ProxyConfiguration proxyConfig) {
+        HttpHost proxyHost = createProxyHost(proxyConfig);
+        if (proxyHost != null) {
+            builder.setProxy(proxyHost);
+        }
+    }
+
+    private void configureAuthentication(HttpAsyncClientBuilder builder,
+                                         HttpClientProperties.ProxyConfiguration proxyConfig) {
+        BasicCredentialsProvider credentialsProvider = createProxyCredentialsProvider(proxyConfig);
+        if (credentialsProvider != null) {
+            builder.setDefaultCredentialsProvider(credentialsProvider);
+            builder.setProxyAuthenticationStrategy(new DefaultAuthenticationStrategy());
+        }
+    }
+}
@@ -1,31 +1,35 @@
 package com.tosan.client.http.core.factory;
 
 import com.tosan.client.http.core.HttpClientProperties;
-import com.tosan.client.http.core.certificate.CertificateLoader;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.hc.client5.http.auth.AuthScope;
-import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import com.tosan.client.http.core.connection.ConnectionLeaseMonitor;
+import com.tosan.client.http.core.connection.ConnectionPoolWarmer;
+import com.tosan.client.http.core.connection.IdleConnectionEvictor;
+import com.tosan.client.http.core.deadline.DeadlineTimeouts;
+import com.tosan.client.http.core.timing.RequestTimings;
+import com.tosan.client.http.core.timing.TimingConnectionManager;
+import com.tosan.client.http.core.timing.TimingDnsResolver;
+import com.tosan.client.http.core.timing.TimingHttpRequestExecutor;
+import com.tosan.client.http.core.timing.TimingTlsSocketStrategy;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.config.ConnectionConfig;
-import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.ssl.DefaultHostnameVerifier;
-import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.function.Resolver;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.reactor.ssl.SSLBufferMode;
 import org.apache.hc.core5.util.TimeValue;
-import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
-import java.security.KeyStore;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
 
 /**
  * Factory used to create a HttpClient Instance
@@ -33,22 +37,32 @@ import java.util.TimerTask;
  * @author Ali Alimohammadi
  * @since 1/22/2021
  */
-public class ConfigurableApacheHttpClientFactory {
+public class ConfigurableApacheHttpClientFactory extends AbstractConfigurableHttpClientFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurableApacheHttpClientFactory.class);
-    private final HttpClientProperties httpClientProperties;
     private final HttpClientBuilder httpClientBuilder;
     private final PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder;
-    private final Timer connectionManagerTimer = new Timer("FeignApacheHttpClientConfiguration.connectionManagerTimer", true);
+    private PoolingHttpClientConnectionManager connectionManager;
 
     public ConfigurableApacheHttpClientFactory(HttpClientBuilder httpClientBuilder,
                                                PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder,
                                                HttpClientProperties httpClientProperties) {
+        this(httpClientBuilder, connectionManagerBuilder, httpClientProperties, IdleConnectionEvictor.getSharedInstance());
+    }
+
+    public ConfigurableApacheHttpClientFactory(HttpClientBuilder httpClientBuilder,
+                                               PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder,
+                                               HttpClientProperties httpClientProperties,
+                                               IdleConnectionEvictor idleConnectionEvictor) {
+        super(httpClientProperties, idleConnectionEvictor);
         this.httpClientBuilder = httpClientBuilder;
-        this.httpClientProperties = httpClientProperties;
         this.connectionManagerBuilder = connectionManagerBuilder;
     }
 
     public HttpClientBuilder createBuilder() {
+        if (httpClientProperties.getConnection().getProtocol().isHttp2Capable()) {
+            LOGGER.warn("Protocol {} requires the async transport, url '{}' will use HTTP/1.1",
+                    httpClientProperties.getConnection().getProtocol(), httpClientProperties.getBaseServiceUrl());
+        }
         configureRequest(httpClientBuilder);
         configureConnectionManager(httpClientBuilder);
         HttpClientProperties.ProxyConfiguration proxyConfig = httpClientProperties.getProxy();
@@ -60,75 +74,98 @@ public class ConfigurableApacheHttpClientFactory {
         return httpClientBuilder;
     }
 
+    /**
+     * @return connection manager built by {@link #createBuilder()}, or null before the builder is created
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @Override
+    protected ConnPoolControl<HttpRoute> getConnectionPool() {
+        return connectionManager;
+    }
+
     private void configureRequest(HttpClientBuilder builder) {
-        builder.setDefaultRequestConfig(RequestConfig.custom()
-                .setRedirectsEnabled(httpClientProperties.getConnection().isFollowRedirects())
-                .setCookieSpec(httpClientProperties.getConnection().getCookieSpecPolicy())
-                .build());
+        builder.setDefaultRequestConfig(createRequestConfig());
+        if (httpClientProperties.getRetry().isEnable()) {
+            builder.disableAutomaticRetries();
+        }
     }
 
     private void configureConnectionManager(HttpClientBuilder builder) {
+        Resolver<HttpRoute, ConnectionConfig> connectionConfigResolver = createConnectionConfigResolver();
         connectionManagerBuilder
                 .setMaxConnTotal(httpClientProperties.getConnection().getMaxConnections())
                 .setMaxConnPerRoute(httpClientProperties.getConnection().getMaxConnectionsPerRoute())
-                .setDefaultConnectionConfig(ConnectionConfig.custom()
-                        .setConnectTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnection().getConnectionTimeout()))
-                        .setSocketTimeout(Timeout.ofMilliseconds(httpClientProperties.getConnection().getSocketTimeout()))
-                        .setTimeToLive(TimeValue.ofMilliseconds(httpClientProperties.getConnection().getTimeToLive()))
-                        .build());
-        String baseServiceUrl = httpClientProperties.getBaseServiceUrl();
-        if (baseServiceUrl != null && baseServiceUrl.startsWith("https")) {
-            configureSSL(connectionManagerBuilder);
+                .setConnectionConfigResolver(connectionConfigResolver)
+                .setDnsResolver(new TimingDnsResolver(createDnsResolver()))
+                .setTlsSocketStrategy(new TimingTlsSocketStrategy(
+                        getTlsHandshakeMonitor().monitor(createTlsSocketStrategy())));
+        connectionManager = connectionManagerBuilder.build();
+        Map<HttpRoute, Integer> maxPerRoute = createMaxPerRoute();
+        maxPerRoute.forEach(connectionManager::setMaxPerRoute);
+        idleConnectionEvictor.register(getPoolName(), connectionManager, EVICTION_INITIAL_DELAY,
+                httpClientProperties.getConnection().getConnectionTimerRepeat(),
+                httpClientProperties.getConnection().getIdleConnectionTimeout());
+        if (httpClientProperties.getAdaptivePool().isEnable()) {
+            adaptivePoolRegistration = getAdaptivePoolSizer().register(getPoolName(), connectionManager,
+                    httpClientProperties.getAdaptivePool(), maxPerRoute.keySet());
         }
-        PoolingHttpClientConnectionManager connectionManager = connectionManagerBuilder.build();
-        this.connectionManagerTimer.schedule(new TimerTask() {
-            public void run() {
-                connectionManager.closeExpired();
-            }
-        }, 30000L, httpClientProperties.getConnection().getConnectionTimerRepeat());
-        builder.setConnectionManager(connectionManager);
+        warmUp(connectionManager);
+        ConnectionLeaseMonitor connectionLeaseMonitor = createConnectionLeaseMonitor();
+        builder.addExecInterceptorFirst(ConnectionLeaseMonitor.EXEC_INTERCEPTOR_NAME,
+                connectionLeaseMonitor.createExecInterceptor());
+        builder.addExecInterceptorFirst(RequestTimings.EXEC_INTERCEPTOR_NAME, RequestTimings.createExecInterceptor());
+        if (httpClientProperties.getDeadline().isEnable()) {
+            builder.addExecInterceptorFirst(DeadlineTimeouts.EXEC_INTERCEPTOR_NAME,
+                    DeadlineTimeouts.createExecInterceptor(connectionConfigResolver));
+        }
+        builder.setRequestExecutor(new TimingHttpRequestExecutor());
+        builder.setConnectionManager(new TimingConnectionManager(connectionLeaseMonitor.monitor(connectionManager)));
     }
 
-    private void configureSSL(PoolingHttpClientConnectionManagerBuilder builder) {
-        HttpClientProperties.SSLConfiguration sslConfiguration = httpClientProperties.getSsl();
-        KeyStore trustStore = CertificateLoader.getTrustStore(sslConfiguration);
-        KeyStore keyStore = CertificateLoader.getKeyStore(sslConfiguration);
-        SSLContext sslContext = CertificateLoader.buildSSLContext(sslConfiguration, keyStore, trustStore);
-        HostnameVerifier hostnameVerifier;
-        if (sslConfiguration.isCheckValidity()) {
-            hostnameVerifier = new DefaultHostnameVerifier();
-        } else {
-            LOGGER.warn("SSL validity check is disabled for url '{}'", httpClientProperties.getBaseServiceUrl());
-            hostnameVerifier = NoopHostnameVerifier.INSTANCE;
+    private void warmUp(PoolingHttpClientConnectionManager connectionManager) {
+        HttpClientProperties.WarmupConfiguration warmupConfig = httpClientProperties.getWarmup();
+        if (!warmupConfig.isEnable()) {
+            return;
+        }
+        if (httpClientProperties.getProxy().isEnable()) {
+            LOGGER.warn("Connection warm-up is not supported through a proxy, skipping for url '{}'",
+                    httpClientProperties.getBaseServiceUrl());
+            return;
+        }
+        long idleConnectionTimeout = httpClientProperties.getConnection().getIdleConnectionTimeout();
+        TimeValue keepAlive = idleConnectionTimeout > 0 ?
+                TimeValue.ofMilliseconds(idleConnectionTimeout) : TimeValue.NEG_ONE_MILLISECOND;
+        ConnectionPoolWarmer connectionPoolWarmer = new ConnectionPoolWarmer();
+        for (String serviceUrl : getServiceUrls()) {
+            connectionPoolWarmer.warmUp(connectionManager, serviceUrl, warmupConfig, keepAlive);
         }
+    }
 
-        if (sslContext != null) {
-            SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(sslContext, hostnameVerifier);
-            builder.setSSLSocketFactory(sslSocketFactory);
-        } else {
-            LOGGER.warn("Invalid SSL Context, skipping");
+    private TlsSocketStrategy createTlsSocketStrategy() {
+        if (isSecure()) {
+            SSLContext sslContext = createSSLContext();
+            HostnameVerifier hostnameVerifier = createHostnameVerifier();
+            if (sslContext != null) {
+                return new DefaultClientTlsStrategy(sslContext, getTlsProtocols(), getCipherSuites(),
+                        SSLBufferMode.STATIC, hostnameVerifier);
+            }
         }
+        return DefaultClientTlsStrategy.createDefault();
     }
 
     private void configureProxy(HttpClientBuilder builder, HttpClientProperties.ProxyConfiguration proxyConfig) {
-        if (StringUtils.isNoneBlank(proxyConfig.getHost(), proxyConfig.getPort())) {
-            builder.setProxy(new HttpHost(proxyConfig.getHost(), Integer.parseInt(proxyConfig.getPort())));
-        } else {
-            LOGGER.warn("Invalid Proxy Host, skipping");
+        HttpHost proxyHost = createProxyHost(proxyConfig);
+        if (proxyHost != null) {
+            builder.setProxy(proxyHost);
         }
     }
 
     private void configureAuthentication(HttpClientBuilder builder, HttpClientProperties.ProxyConfiguration proxyConfig) {
-        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-        boolean hasCredentials = false;
-        if (StringUtils.isNoneBlank(proxyConfig.getUser(), proxyConfig.getPassword())) {
-            credentialsProvider.setCredentials(
-                    new AuthScope(proxyConfig.getHost(), Integer.parseInt(proxyConfig.getPort())),
-                    new UsernamePasswordCredentials(proxyConfig.getUser(), proxyConfig.getPassword().toCharArray()));
-            hasCredentials = true;
-        }
-
-        if (hasCredentials) {
+        BasicCredentialsProvider credentialsProvider = createProxyCredentialsProvider(proxyConfig);
+        if (credentialsProvider != null) {
             builder.setDefaultCredentialsProvider(credentialsProvider);
             builder.setProxyAuthenticationStrategy(new DefaultAuthenticationStrategy());
         }
@@ -0,0 +1,309 @@
+package com.tosan.client.http.core.retry;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ExecutorConfigurationSupport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Hedging policy of a service shared by the Feign and RestClient adapters of the starters.
+ * <p>
+ * A request with a hedged method which has no response after the hedge delay is sent a second time, and the first
+ * response wins: the other attempt is cancelled, and its response closed if it still arrives. The delay is the fixed
+ * {@code delay}, or the {@code percentile} of the observed response times once {@code minSamples} are recorded, with
+ * no hedging before. Each hedge takes a token of a {@link RetryBudget}, which caps the extra load.
+ * <p>
+ * Blocking attempts of hedged requests run on the given executor, so thread bound state of the transport, like the
+ * request timings, is not visible to the caller. A request the executor rejects is sent unhedged on the caller
+ * thread, and a rejected hedge leaves the first attempt alone in the race. {@link #close()} shuts the executor down. Decisions are counted in the {@value #HEDGE_METER} meter with the
+ * {@value #OUTCOME_TAG} tag once {@link #bindTo(MeterRegistry, Tags)} is called.
+ */
+public class HedgingExecutor implements AutoCloseable {
+    public static final String HEDGE_METER = "http.client.hedge";
+    public static final String DELAY_METER = "http.client.hedge.delay";
+    public static final String OUTCOME_TAG = "outcome";
+    private static final Logger LOGGER = LoggerFactory.getLogger(HedgingExecutor.class);
+
+    private final HttpClientProperties.HedgeConfiguration configuration;
+    private final AsyncTaskExecutor executor;
+    private final Set<String> methods = new HashSet<>();
+    private final LatencyTracker latencyTracker;
+    private final RetryBudget budget;
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * @param executor runs the attempts of blocking hedged requests
+     */
+    public HedgingExecutor(HttpClientProperties.HedgeConfiguration configuration, AsyncTaskExecutor executor) {
+        this.configuration = configuration;
+        this.executor = executor;
+        configuration.getMethods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+        this.latencyTracker = new LatencyTracker(configuration.getPercentile());
+        this.budget = new RetryBudget(configuration.getBudgetPercent(), configuration.getBudgetCapacity());
+    }
+
+    /**
+     * @param method  http method of the request
+     * @param attempt sends the request once, attempts are numbered from 1
+     * @param discard releases a response which lost
+     * @return first response
+     * @throws IOException failure of the last attempt when none responded
+     */
+    public <T> T execute(String method, RetryExecutor.Attempt<T> attempt, Consumer<T> discard) throws IOException {
+        if (!isHedgedMethod(method)) {
+            return attempt.execute(1);
+        }
+        budget.deposit();
+        long delay = getDelayNanos();
+        if (delay < 0) {
+            long start = System.nanoTime();
+            T result = attempt.execute(1);
+            latencyTracker.record(System.nanoTime() - start);
+            return result;
+        }
+        Race<T> race = new Race<>(discard);
+        try {
+            race.add(executor.submit(() -> race.run(attempt, 1)));
+        } catch (TaskRejectedException e) {
+            LOGGER.debug("Hedging executor is busy, sending the {} request unhedged", method);
+            return attempt.execute(1);
+        }
+        try {
+            try {
+                return race.winner.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (acquireHedge(race)) {
+                    try {
+                        race.add(executor.submit(() -> race.run(attempt, 2)));
+                    } catch (TaskRejectedException rejected) {
+                        race.fail(rejected);
+                    }
+                }
+            }
+            return race.winner.get();
+        } catch (InterruptedException e) {
+            race.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(String, RetryExecutor.Attempt, Consumer)}, starting the hedge on a
+     * delayed executor.
+     */
+    public <T> CompletableFuture<T> executeAsync(String method, IntFunction<CompletableFuture<T>> attempt,
+                                                 Consumer<T> discard) {
+        if (!isHedgedMethod(method)) {
+            return attempt.apply(1);
+        }
+        budget.deposit();
+        long delay = getDelayNanos();
+        Race<T> race = new Race<>(discard);
+        race.runAsync(attempt, 1);
+        if (delay >= 0) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+                if (!race.winner.isDone() && acquireHedge(race)) {
+                    race.runAsync(attempt, 2);
+                }
+            });
+        }
+        return race.winner;
+    }
+
+    public boolean isHedgedMethod(String method) {
+        return method != null && methods.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return current hedge delay in nanoseconds, or -1 while too few response times are known
+     */
+    public long getDelayNanos() {
+        if (configuration.getDelay() > 0) {
+            return TimeUnit.MILLISECONDS.toNanos(configuration.getDelay());
+        }
+        long percentile = latencyTracker.getValue();
+        if (percentile < 0 || latencyTracker.getCount() < configuration.getMinSamples()) {
+            return -1;
+        }
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(configuration.getMinDelay()), percentile);
+    }
+
+    public LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        bindCounter(registry, tags, "hedged", hedges);
+        bindCounter(registry, tags, "hedge_won", hedgeWins);
+        bindCounter(registry, tags, "budget_exhausted", budgetExhausted);
+        Gauge.builder(DELAY_METER, this, hedging -> Math.max(0, hedging.getDelayNanos()) / 1e6)
+                .description("Delay after which requests are hedged")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Shuts down the executor of the blocking attempts.
+     */
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorConfigurationSupport pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor simpleExecutor) {
+            simpleExecutor.close();
+        }
+    }
+
+    private void bindCounter(MeterRegistry registry, Tags tags, String outcome, LongAdder counter) {
+        FunctionCounter.builder(HEDGE_METER, counter, LongAdder::sum)
+                .description("Hedging decisions on slow requests")
+                .tags(tags.and(OUTCOME_TAG, outcome))
+                .register(registry);
+    }
+
+    private boolean acquireHedge(Race<?> race) {
+        if (!budget.tryWithdraw()) {
+            budgetExhausted.increment();
+            LOGGER.debug("Hedge budget exhausted, waiting for the first attempt");
+            return false;
+        }
+        if (!race.launch()) {
+            budget.deposit();
+            return false;
+        }
+        hedges.increment();
+        return true;
+    }
+
+    private static IOException rethrow(Throwable failure) throws IOException {
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        throw new IOException(failure);
+    }
+
+    /**
+     * Attempts of one request, completing {@link #winner} with the first response, or with the last failure once
+     * every launched attempt failed.
+     */
+    private class Race<T> {
+        private final CompletableFuture<T> winner = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+        private final Consumer<T> discard;
+        private int launched = 1;
+        private int failed;
+
+        Race(Consumer<T> discard) {
+            this.discard = discard;
+            winner.whenComplete((result, failure) -> cancel());
+        }
+
+        void add(Future<?> attempt) {
+            attempts.add(attempt);
+            if (winner.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+
+        synchronized boolean launch() {
+            if (winner.isDone()) {
+                return false;
+            }
+            launched++;
+            return true;
+        }
+
+        Void run(RetryExecutor.Attempt<T> attempt, int number) {
+            long start = System.nanoTime();
+            try {
+                T result = attempt.execute(number);
+                latencyTracker.record(System.nanoTime() - start);
+                succeed(result, number);
+            } catch (Throwable failure) {
+                fail(failure);
+            }
+            return null;
+        }
+
+        void runAsync(IntFunction<CompletableFuture<T>> attempt, int number) {
+            long start = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = attempt.apply(number);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            add(future);
+            future.whenComplete((result, failure) -> {
+                if (failure == null) {
+                    latencyTracker.record(System.nanoTime() - start);
+                    succeed(result, number);
+                } else {
+                    fail(failure instanceof CompletionException && failure.getCause() != null ?
+                            failure.getCause() : failure);
+                }
+            });
+        }
+
+        private synchronized void succeed(T result, int number) {
+            if (winner.isDone()) {
+                discard.accept(result);
+                return;
+            }
+            if (number > 1) {
+                hedgeWins.increment();
+            }
+            if (!winner.complete(result)) {
+                discard.accept(result);
+            }
+        }
+
+        private synchronized void fail(Throwable failure) {
+            failed++;
+            if (failed >= launched) {
+                winner.completeExceptionally(failure);
+            }
+        }
+
+        void cancel() {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+}
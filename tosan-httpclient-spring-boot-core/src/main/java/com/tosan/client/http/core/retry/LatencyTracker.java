@@ -0,0 +1,46 @@
+package com.tosan.client.http.core.retry;
+
+import java.util.Arrays;
+
+/**
+ * Percentile of the latest {@value #SAMPLES} response times of a service, recomputed every
+ * {@value #REFRESH_INTERVAL} samples so readers never sort.
+ */
+public class LatencyTracker {
+    private static final int SAMPLES = 1024;
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final double percentile;
+    private final long[] samples = new long[SAMPLES];
+    private long count;
+    private volatile long value = -1;
+
+    /**
+     * @param percentile percentile tracked, between 0 and 1
+     */
+    public LatencyTracker(double percentile) {
+        this.percentile = Math.min(1, Math.max(0, percentile));
+    }
+
+    public synchronized void record(long nanos) {
+        samples[(int) (count % SAMPLES)] = nanos;
+        count++;
+        if (count % REFRESH_INTERVAL == 0) {
+            int size = (int) Math.min(count, SAMPLES);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            value = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    /**
+     * @return percentile in nanoseconds, or -1 before {@value #REFRESH_INTERVAL} samples are recorded
+     */
+    public long getValue() {
+        return value;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tosan.client.http.core.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket capping retries at a percentage of the requests of a service: every request deposits
+ * {@code percent / 100} of a token, every retry withdraws a whole one, and the balance never exceeds
+ * {@code capacity}, the burst of retries allowed after a quiet period. The bucket starts full.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long capacity;
+    private final long deposit;
+    private final AtomicLong balance;
+
+    /**
+     * @param percent  retries allowed per hundred requests
+     * @param capacity most tokens held
+     */
+    public RetryBudget(int percent, int capacity) {
+        this.capacity = Math.max(1, capacity) * SCALE;
+        this.deposit = Math.max(0, percent) * SCALE / 100;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * Credits a request.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * @return whether a token was available and taken for a retry
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return tokens available
+     */
+    public double getBalance() {
+        return balance.get() / (double) SCALE;
+    }
+}
@@ -0,0 +1,221 @@
+package com.tosan.client.http.core.retry;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.deadline.Deadline;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Retry policy of a service shared by the Feign and RestClient adapters of the starters.
+ * <p>
+ * Only requests with an idempotent method are retried, on a retryable status code or an exception of a retryable
+ * type (searched along the cause chain), up to {@code maxAttempts} attempts. Attempts are spaced by an exponential
+ * backoff with jitter, and each retry takes a token of the {@link RetryBudget} of the service, so retries stay a
+ * bounded share of the traffic when the service is down. Nothing is retried once the {@link DeadlineContext deadline}
+ * of the calling thread has passed. Decisions are counted in the {@value #RETRY_METER} meter
+ * with the {@value #OUTCOME_TAG} tag once {@link #bindTo(MeterRegistry, Tags)} is called.
+ */
+public class RetryExecutor {
+    public static final String RETRY_METER = "http.client.retry";
+    public static final String BUDGET_METER = "http.client.retry.budget";
+    public static final String OUTCOME_TAG = "outcome";
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryExecutor.class);
+
+    private final HttpClientProperties.RetryConfiguration configuration;
+    private final Set<String> methods = new HashSet<>();
+    private final Set<Integer> statusCodes;
+    private final List<Class<? extends Throwable>> exceptions;
+    private final RetryBudget budget;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder attemptsExhausted = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public RetryExecutor(HttpClientProperties.RetryConfiguration configuration) {
+        this.configuration = configuration;
+        configuration.getMethods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+        this.statusCodes = Set.copyOf(configuration.getStatusCodes());
+        this.exceptions = List.copyOf(configuration.getExceptions());
+        this.budget = new RetryBudget(configuration.getBudgetPercent(), configuration.getBudgetCapacity());
+    }
+
+    /**
+     * Attempt of a request, numbered from 1.
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T execute(int attempt) throws IOException;
+    }
+
+    /**
+     * @param method  http method of the request
+     * @param attempt sends the request once
+     * @param status  status code of a response
+     * @param discard releases a response which is retried
+     * @return response of the last attempt
+     * @throws IOException failure of the last attempt
+     */
+    public <T> T execute(String method, Attempt<T> attempt, ToIntFunction<T> status, Consumer<T> discard)
+            throws IOException {
+        boolean idempotent = isRetryableMethod(method);
+        budget.deposit();
+        for (int n = 1; ; n++) {
+            T result;
+            try {
+                result = attempt.execute(n);
+            } catch (IOException | RuntimeException e) {
+                if (!idempotent || !isRetryableException(e) || !allowRetry(n)) {
+                    throw e;
+                }
+                LOGGER.debug("Retrying {} request after attempt {} failed: {}", method, n, e.toString());
+                backOff(n);
+                continue;
+            }
+            int statusCode = status.applyAsInt(result);
+            if (!idempotent || !statusCodes.contains(statusCode) || !allowRetry(n)) {
+                return result;
+            }
+            LOGGER.debug("Retrying {} request after attempt {} responded {}", method, n, statusCode);
+            discard.accept(result);
+            backOff(n);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(String, Attempt, ToIntFunction, Consumer)}, waiting out the backoff on
+     * a delayed executor.
+     */
+    public <T> CompletableFuture<T> executeAsync(String method, IntFunction<CompletableFuture<T>> attempt,
+                                                 ToIntFunction<T> status, Consumer<T> discard) {
+        budget.deposit();
+        return executeAsync(isRetryableMethod(method), 1, attempt, status, discard);
+    }
+
+    private <T> CompletableFuture<T> executeAsync(boolean idempotent, int n,
+                                                  IntFunction<CompletableFuture<T>> attempt,
+                                                  ToIntFunction<T> status, Consumer<T> discard) {
+        CompletableFuture<T> future;
+        try {
+            future = attempt.apply(n);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ?
+                        failure.getCause() : failure;
+                if (!idempotent || !isRetryableException(cause) || !allowRetry(n)) {
+                    return CompletableFuture.<T>failedFuture(cause);
+                }
+            } else if (!idempotent || !statusCodes.contains(status.applyAsInt(result)) || !allowRetry(n)) {
+                return CompletableFuture.completedFuture(result);
+            } else {
+                discard.accept(result);
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(getBackoff(n), TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> n + 1, delayed)
+                    .thenCompose(next -> executeAsync(idempotent, next, attempt, status, discard));
+        }).thenCompose(Function.identity());
+    }
+
+    public boolean isRetryableMethod(String method) {
+        return method != null && methods.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    public boolean isRetryableException(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof DeadlineExceededException) {
+                return false;
+            }
+            for (Class<? extends Throwable> exception : exceptions) {
+                if (exception.isInstance(cause)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param attempt number of the failed attempt, from 1
+     * @return delay before the next attempt in milliseconds: the exponential backoff capped at {@code maxBackoff},
+     * reduced by a random share of up to {@code jitter}
+     */
+    public long getBackoff(int attempt) {
+        double backoff = Math.min(configuration.getMaxBackoff(),
+                configuration.getInitialBackoff() * Math.pow(configuration.getMultiplier(), attempt - 1));
+        double jitter = Math.min(1, Math.max(0, configuration.getJitter()));
+        return Math.round(backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        bindCounter(registry, tags, "retry", retries);
+        bindCounter(registry, tags, "attempts_exhausted", attemptsExhausted);
+        bindCounter(registry, tags, "budget_exhausted", budgetExhausted);
+        Gauge.builder(BUDGET_METER, budget, RetryBudget::getBalance)
+                .description("Retry tokens available")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void bindCounter(MeterRegistry registry, Tags tags, String outcome, LongAdder counter) {
+        FunctionCounter.builder(RETRY_METER, counter, LongAdder::sum)
+                .description("Retry decisions on retryable failures")
+                .tags(tags.and(OUTCOME_TAG, outcome))
+                .register(registry);
+    }
+
+    private boolean allowRetry(int attempt) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null && deadline.isExpired()) {
+            LOGGER.debug("Deadline exceeded, not retrying attempt {}", attempt);
+            return false;
+        }
+        if (attempt >= configuration.getMaxAttempts()) {
+            attemptsExhausted.increment();
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            budgetExhausted.increment();
+            LOGGER.debug("Retry budget exhausted, not retrying attempt {}", attempt);
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    private void backOff(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(getBackoff(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
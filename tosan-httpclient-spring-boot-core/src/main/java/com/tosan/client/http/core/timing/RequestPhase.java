@@ -0,0 +1,41 @@
+package com.tosan.client.http.core.timing;
+
+/**
+ * Phases of a request execution measured by {@link RequestTimings}
+ */
+public enum RequestPhase {
+    /**
+     * Wait for a pooled connection
+     */
+    LEASE("lease"),
+    /**
+     * Host name resolution of a new connection
+     */
+    DNS("dns"),
+    /**
+     * TCP connect of a new connection
+     */
+    CONNECT("connect"),
+    /**
+     * TLS handshake of a new connection
+     */
+    TLS("tls"),
+    /**
+     * From sending the request until the response head is received
+     */
+    TIME_TO_FIRST_BYTE("ttfb"),
+    /**
+     * From the response head until the response body is fully read or closed
+     */
+    BODY("body");
+
+    private final String key;
+
+    RequestPhase(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
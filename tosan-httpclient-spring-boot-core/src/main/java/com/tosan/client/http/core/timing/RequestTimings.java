@@ -0,0 +1,126 @@
+package com.tosan.client.http.core.timing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Nanosecond durations of the {@link RequestPhase phases} of one request of the classic transport.
+ * <p>
+ * Timings are bound to the calling thread by the exec interceptor at the start of every execution and stay bound
+ * after it returns, so loggers and observation conventions running on the same thread can read them through
+ * {@link #current()}. Phases which did not happen, e.g. connect on a reused connection, are not recorded.
+ */
+public class RequestTimings {
+    public static final String EXEC_INTERCEPTOR_NAME = "request-timings";
+    public static final String KEY_PREFIX = "http.client.timing.";
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final long NOT_RECORDED = -1L;
+
+    private final AtomicLongArray nanos = new AtomicLongArray(RequestPhase.values().length);
+
+    public RequestTimings() {
+        for (int i = 0; i < nanos.length(); i++) {
+            nanos.set(i, NOT_RECORDED);
+        }
+    }
+
+    /**
+     * Binds new timings to the current thread.
+     */
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * @return timings of the last request executed by the current thread, or null
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds the duration to the timings bound to the current thread, if any.
+     */
+    public static void record(RequestPhase phase, long durationNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, durationNanos);
+        }
+    }
+
+    /**
+     * @return interceptor binding new timings to the executing thread, to be added first to the exec chain
+     */
+    public static ExecChainHandler createExecInterceptor() {
+        return (request, scope, chain) -> {
+            start();
+            return chain.proceed(request, scope);
+        };
+    }
+
+    /**
+     * @return one high cardinality key value per phase, {@link KeyValue#NONE_VALUE} for phases not recorded
+     */
+    public static KeyValues toKeyValues(RequestTimings timings) {
+        KeyValues keyValues = KeyValues.empty();
+        for (RequestPhase phase : RequestPhase.values()) {
+            String value = timings != null && timings.isRecorded(phase) ?
+                    formatMillis(timings.getNanos(phase)) : KeyValue.NONE_VALUE;
+            keyValues = keyValues.and(KeyValue.of(KEY_PREFIX + phase.getKey(), value));
+        }
+        return keyValues;
+    }
+
+    /**
+     * Adds the duration to the phase, repeated phases (e.g. redirects) are summed.
+     */
+    public void add(RequestPhase phase, long durationNanos) {
+        nanos.accumulateAndGet(phase.ordinal(), durationNanos,
+                (current, duration) -> current == NOT_RECORDED ? duration : current + duration);
+    }
+
+    public boolean isRecorded(RequestPhase phase) {
+        return nanos.get(phase.ordinal()) != NOT_RECORDED;
+    }
+
+    /**
+     * @return duration of the phase in nanoseconds, zero if not recorded
+     */
+    public long getNanos(RequestPhase phase) {
+        return Math.max(0L, nanos.get(phase.ordinal()));
+    }
+
+    /**
+     * @return recorded phases and their durations in milliseconds, in phase order, for logging
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (isRecorded(phase)) {
+                map.put(phase.getKey(), formatMillis(getNanos(phase)));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tosan.client.http.core.timing;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link HttpClientConnectionManager} recording {@link RequestPhase#LEASE} and {@link RequestPhase#CONNECT}.
+ * The connect phase excludes the {@link RequestPhase#DNS} and {@link RequestPhase#TLS} time recorded while connecting.
+ */
+public class TimingConnectionManager implements HttpClientConnectionManager {
+    private final HttpClientConnectionManager delegate;
+
+    public TimingConnectionManager(HttpClientConnectionManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest leaseRequest = delegate.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return leaseRequest.get(timeout);
+                } finally {
+                    RequestTimings.record(RequestPhase.LEASE, System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context)
+            throws IOException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            delegate.connect(endpoint, connectTimeout, context);
+            return;
+        }
+        long nestedBefore = timings.getNanos(RequestPhase.DNS) + timings.getNanos(RequestPhase.TLS);
+        long start = System.nanoTime();
+        try {
+            delegate.connect(endpoint, connectTimeout, context);
+        } finally {
+            long nested = timings.getNanos(RequestPhase.DNS) + timings.getNanos(RequestPhase.TLS) - nestedBefore;
+            timings.add(RequestPhase.CONNECT, Math.max(0L, System.nanoTime() - start - nested));
+        }
+    }
+
+    @Override
+    public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+        delegate.release(endpoint, newState, validDuration);
+    }
+
+    @Override
+    public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+        delegate.upgrade(endpoint, context);
+    }
+
+    @Override
+    public void close(CloseMode closeMode) {
+        delegate.close(closeMode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
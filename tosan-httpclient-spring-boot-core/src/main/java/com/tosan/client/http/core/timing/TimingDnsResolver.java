@@ -0,0 +1,44 @@
+package com.tosan.client.http.core.timing;
+
+import org.apache.hc.client5.http.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * {@link DnsResolver} recording the resolution time as {@link RequestPhase#DNS}
+ */
+public class TimingDnsResolver implements DnsResolver {
+    private final DnsResolver delegate;
+
+    public TimingDnsResolver(DnsResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        long start = System.nanoTime();
+        try {
+            return delegate.resolve(host);
+        } finally {
+            RequestTimings.record(RequestPhase.DNS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<InetSocketAddress> resolve(String host, int port) throws UnknownHostException {
+        long start = System.nanoTime();
+        try {
+            return delegate.resolve(host, port);
+        } finally {
+            RequestTimings.record(RequestPhase.DNS, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+}
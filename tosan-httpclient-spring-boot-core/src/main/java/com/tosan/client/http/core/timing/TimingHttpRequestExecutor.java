@@ -0,0 +1,111 @@
+package com.tosan.client.http.core.timing;
+
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
+import org.apache.hc.core5.http.io.HttpClientConnection;
+import org.apache.hc.core5.http.io.HttpResponseInformationCallback;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link HttpRequestExecutor} recording {@link RequestPhase#TIME_TO_FIRST_BYTE} until the response head is received
+ * and {@link RequestPhase#BODY} until the response body is fully read or closed.
+ */
+public class TimingHttpRequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request, HttpClientConnection conn,
+                                       HttpResponseInformationCallback informationCallback, HttpContext context)
+            throws IOException, HttpException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return super.execute(request, conn, informationCallback, context);
+        }
+        long start = System.nanoTime();
+        ClassicHttpResponse response;
+        try {
+            response = super.execute(request, conn, informationCallback, context);
+        } finally {
+            timings.add(RequestPhase.TIME_TO_FIRST_BYTE, System.nanoTime() - start);
+        }
+        if (response.getEntity() != null) {
+            response.setEntity(new TimingEntity(response.getEntity(), timings));
+        }
+        return response;
+    }
+
+    private static class TimingEntity extends HttpEntityWrapper {
+        private final RequestTimings timings;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private TimingEntity(HttpEntity entity, RequestTimings timings) {
+            super(entity);
+            this.timings = timings;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            InputStream content = super.getContent();
+            return content != null ? new TimingInputStream(content) : null;
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try {
+                super.writeTo(outStream);
+            } finally {
+                record();
+            }
+        }
+
+        private void record() {
+            if (recorded.compareAndSet(false, true)) {
+                timings.add(RequestPhase.BODY, System.nanoTime() - start);
+            }
+        }
+
+        private class TimingInputStream extends FilterInputStream {
+
+            private TimingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int read = super.read();
+                if (read == -1) {
+                    record();
+                }
+                return read;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read == -1) {
+                    record();
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    record();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.tosan.client.http.core.timing;
+
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * {@link TlsSocketStrategy} recording the handshake time as {@link RequestPhase#TLS}
+ */
+public class TimingTlsSocketStrategy implements TlsSocketStrategy {
+    private final TlsSocketStrategy delegate;
+
+    public TimingTlsSocketStrategy(TlsSocketStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SSLSocket upgrade(Socket socket, String target, int port, Object attachment, HttpContext context)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.upgrade(socket, target, port, attachment, context);
+        } finally {
+            RequestTimings.record(RequestPhase.TLS, System.nanoTime() - start);
+        }
+    }
+}
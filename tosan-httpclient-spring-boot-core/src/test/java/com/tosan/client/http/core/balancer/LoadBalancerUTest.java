@@ -0,0 +1,215 @@
+package com.tosan.client.http.core.balancer;
+
+import com.tosan.client.http.core.HashKeySource;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.LoadBalancerType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadBalancerUTest {
+
+    private static final List<String> URLS = List.of("http://10.0.0.1:8080/api/", "http://10.0.0.2:8080/api");
+    private final HttpClientProperties.LoadBalancerConfiguration configuration =
+            new HttpClientProperties.LoadBalancerConfiguration();
+
+    @Test
+    public void create_singleBaseServiceUrl_null() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl("http://localhost:8080");
+
+        assertThat(LoadBalancer.create(properties)).isNull();
+    }
+
+    @Test
+    public void create_baseServiceUrls_firstIsBaseUrl() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrls(URLS);
+
+        LoadBalancer underTest = LoadBalancer.create(properties);
+
+        assertThat(properties.getBaseServiceUrl()).isEqualTo(URLS.get(0));
+        assertThat(underTest.getBaseUrl()).isEqualTo("http://10.0.0.1:8080/api");
+        assertThat(underTest.getEndpoints()).extracting(ServiceEndpoint::getUrl)
+                .containsExactly("http://10.0.0.1:8080/api", "http://10.0.0.2:8080/api");
+    }
+
+    @Test
+    public void choose_roundRobin_alternates() {
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration);
+
+        ServiceEndpoint first = underTest.choose();
+        ServiceEndpoint second = underTest.choose();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(underTest.choose()).isSameAs(first);
+    }
+
+    @Test
+    public void choose_powerOfTwoChoices_lessInFlight() {
+        configuration.setType(LoadBalancerType.POWER_OF_TWO_CHOICES);
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration);
+        ServiceEndpoint busy = underTest.getEndpoints().get(0);
+        busy.start();
+        busy.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.choose()).isSameAs(underTest.getEndpoints().get(1));
+        }
+    }
+
+    @Test
+    public void choose_leastLatency_fasterEndpoint() throws Exception {
+        configuration.setType(LoadBalancerType.LEAST_LATENCY);
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration);
+        ServiceEndpoint slow = underTest.getEndpoints().get(0);
+        ServiceEndpoint fast = underTest.getEndpoints().get(1);
+        long slowStart = slow.start();
+        long fastStart = fast.start();
+        fast.complete(fastStart, true);
+        Thread.sleep(20);
+        slow.complete(slowStart, true);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.choose()).isSameAs(fast);
+        }
+    }
+
+    @Test
+    public void complete_failure_latencyNotRecorded() {
+        ServiceEndpoint underTest = new ServiceEndpoint("http://10.0.0.1", 0.2);
+
+        underTest.complete(underTest.start(), false);
+
+        assertThat(underTest.getInFlight()).isZero();
+        assertThat(underTest.getLatencyEwma()).isEqualTo(-1);
+    }
+
+    @Test
+    public void rewrite_baseUrlPrefix_replaced() {
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration);
+        ServiceEndpoint second = underTest.getEndpoints().get(1);
+
+        assertThat(underTest.rewrite(URI.create("http://10.0.0.1:8080/api/users?id=1"), second))
+                .isEqualTo(URI.create("http://10.0.0.2:8080/api/users?id=1"));
+        assertThat(underTest.rewrite("http://10.0.0.1:8080/apiv2/users", second))
+                .isEqualTo("http://10.0.0.1:8080/apiv2/users");
+    }
+
+    @Test
+    public void findEndpoint_urlOfEndpoint() {
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration);
+
+        assertThat(underTest.findEndpoint("http://10.0.0.2:8080/api/users")).isSameAs(underTest.getEndpoints().get(1));
+        assertThat(underTest.findEndpoint("http://10.0.0.3:8080/api/users")).isNull();
+    }
+
+    @Test
+    public void choose_zoneBelowThreshold_localEndpoint() {
+        LoadBalancer underTest = createZoneAware();
+        ServiceEndpoint local = underTest.getEndpoints().get(0);
+        local.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.choose()).isSameAs(local);
+        }
+    }
+
+    @Test
+    public void choose_zoneSaturated_remoteEndpoint() {
+        LoadBalancer underTest = createZoneAware();
+        ServiceEndpoint local = underTest.getEndpoints().get(0);
+        for (int i = 0; i < 4; i++) {
+            local.start();
+        }
+
+        assertThat(underTest.getLocalUtilization()).isEqualTo(1.0);
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.choose()).isSameAs(underTest.getEndpoints().get(1));
+        }
+    }
+
+    @Test
+    public void choose_noLocalEndpoint_allEndpoints() {
+        configuration.setZone("zone-c");
+        configuration.setEndpointZones(Map.of(URLS.get(0), "zone-a", URLS.get(1), "zone-b"));
+        LoadBalancer underTest = new LoadBalancer(URLS.get(0), URLS, configuration, 4);
+
+        assertThat(underTest.choose()).isNotSameAs(underTest.choose());
+    }
+
+    private LoadBalancer createZoneAware() {
+        configuration.setZone("zone-a");
+        configuration.setZoneUtilizationThreshold(0.5);
+        configuration.setEndpointZones(Map.of(URLS.get(0), "zone-a", "http://10.0.0.2:8080/api", "zone-b"));
+        return new LoadBalancer(URLS.get(0), URLS, configuration, 4);
+    }
+
+    @Test
+    public void choose_consistentHashHeader_sameEndpointPerKey() {
+        LoadBalancer underTest = createConsistentHash(HashKeySource.HEADER, "X-Customer-Id");
+
+        for (int customer = 0; customer < 20; customer++) {
+            String key = String.valueOf(customer);
+            ServiceEndpoint endpoint = underTest.choose("/orders", name -> key);
+            assertThat(underTest.choose("/orders", name -> key)).isSameAs(endpoint);
+        }
+    }
+
+    @Test
+    public void choose_consistentHashPathVariable_keyOfPath() {
+        configuration.setHashKeyPathPattern("/customers/{customerId}");
+        LoadBalancer underTest = createConsistentHash(HashKeySource.PATH_VARIABLE, "customerId");
+
+        ServiceEndpoint endpoint = underTest.choose("http://10.0.0.1:8080/api/customers/42/orders?page=1", name -> null);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.choose("http://10.0.0.1:8080/api/customers/42", name -> null)).isSameAs(endpoint);
+        }
+    }
+
+    @Test
+    public void choose_consistentHashMdc_keyOfMdc() {
+        LoadBalancer underTest = createConsistentHash(HashKeySource.MDC, "customerId");
+        MDC.put("customerId", "42");
+        try {
+            ServiceEndpoint endpoint = underTest.choose();
+            for (int i = 0; i < 10; i++) {
+                assertThat(underTest.choose()).isSameAs(endpoint);
+            }
+        } finally {
+            MDC.remove("customerId");
+        }
+    }
+
+    @Test
+    public void choose_consistentHashOverloaded_nextEndpoint() {
+        LoadBalancer underTest = createConsistentHash(HashKeySource.HEADER, "X-Customer-Id");
+        ServiceEndpoint owner = underTest.choose("/orders", name -> "42");
+        owner.start();
+        owner.start();
+
+        assertThat(underTest.choose("/orders", name -> "42")).isNotSameAs(owner);
+    }
+
+    @Test
+    public void create_consistentHashWithoutKeyName_exception() {
+        configuration.setType(LoadBalancerType.CONSISTENT_HASH);
+
+        assertThatThrownBy(() -> new LoadBalancer(URLS.get(0), URLS, configuration))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private LoadBalancer createConsistentHash(HashKeySource source, String name) {
+        configuration.setType(LoadBalancerType.CONSISTENT_HASH);
+        configuration.setHashKeySource(source);
+        configuration.setHashKeyName(name);
+        return new LoadBalancer(URLS.get(0), URLS, configuration);
+    }
+}
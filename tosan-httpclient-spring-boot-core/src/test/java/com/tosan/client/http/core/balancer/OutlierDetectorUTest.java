@@ -0,0 +1,122 @@
+package com.tosan.client.http.core.balancer;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OutlierDetectorUTest {
+
+    private static final List<String> URLS = List.of("http://10.0.0.1:8080", "http://10.0.0.2:8080",
+            "http://10.0.0.3:8080", "http://10.0.0.4:8080");
+    private final HttpClientProperties.LoadBalancerConfiguration configuration =
+            new HttpClientProperties.LoadBalancerConfiguration();
+    private LoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void setup() {
+        HttpClientProperties.OutlierDetectionConfiguration outlierDetection = configuration.getOutlierDetection();
+        outlierDetection.setEnable(true);
+        outlierDetection.setConsecutiveFailures(3);
+        outlierDetection.setBaseEjectionTime(50);
+        outlierDetection.setMaxEjectionTime(1000);
+        loadBalancer = new LoadBalancer(URLS.get(0), URLS, configuration);
+    }
+
+    @Test
+    public void complete_consecutiveFailures_ejected() {
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+
+        fail(endpoint, 2);
+        assertThat(endpoint.isEjected()).isFalse();
+        fail(endpoint, 1);
+
+        assertThat(endpoint.isEjected()).isTrue();
+        assertThat(endpoint.getEjectionCount()).isEqualTo(1);
+        for (int i = 0; i < 10; i++) {
+            assertThat(loadBalancer.choose()).isNotSameAs(endpoint);
+        }
+    }
+
+    @Test
+    public void complete_successBetweenFailures_notEjected() {
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+
+        fail(endpoint, 2);
+        endpoint.complete(endpoint.start(), true);
+        fail(endpoint, 2);
+
+        assertThat(endpoint.isEjected()).isFalse();
+    }
+
+    @Test
+    public void cancel_notCountedAsFailure() {
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+
+        for (int i = 0; i < 3; i++) {
+            endpoint.cancel(endpoint.start());
+        }
+
+        assertThat(endpoint.isEjected()).isFalse();
+        assertThat(endpoint.getConsecutiveFailures()).isZero();
+        assertThat(endpoint.getInFlight()).isZero();
+    }
+
+    @Test
+    public void complete_serverErrors_maxEjectionPercent() {
+        for (ServiceEndpoint endpoint : loadBalancer.getEndpoints()) {
+            for (int i = 0; i < 3; i++) {
+                endpoint.complete(endpoint.start(), true, true);
+            }
+        }
+
+        assertThat(loadBalancer.getOutlierDetector().getEjectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void complete_failedProbe_ejectionDoubled() throws Exception {
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+        fail(endpoint, 3);
+        Thread.sleep(60);
+        assertThat(endpoint.isEjected()).isFalse();
+
+        fail(endpoint, 1);
+
+        assertThat(endpoint.isEjected()).isTrue();
+        assertThat(endpoint.getEjectionLevel()).isEqualTo(2);
+        Thread.sleep(60);
+        assertThat(endpoint.isEjected()).isTrue();
+    }
+
+    @Test
+    public void complete_slowEndpoint_ejected() throws Exception {
+        List<ServiceEndpoint> endpoints = loadBalancer.getEndpoints();
+        long slowStart = endpoints.get(0).start();
+        for (ServiceEndpoint peer : endpoints.subList(1, endpoints.size())) {
+            peer.complete(peer.start(), true);
+        }
+        Thread.sleep(50);
+
+        endpoints.get(0).complete(slowStart, true);
+
+        assertThat(endpoints.get(0).isEjected()).isTrue();
+    }
+
+    @Test
+    public void filter_allEjected_allCandidates() {
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+        fail(endpoint, 3);
+        List<ServiceEndpoint> candidates = List.of(endpoint);
+
+        assertThat(loadBalancer.getOutlierDetector().filter(candidates)).isSameAs(candidates);
+    }
+
+    private void fail(ServiceEndpoint endpoint, int times) {
+        for (int i = 0; i < times; i++) {
+            endpoint.complete(endpoint.start(), false);
+        }
+    }
+}
@@ -54,6 +54,23 @@ public class CertificateLoaderUTest {
         assertThat(underTest.getProtocol()).isEqualTo("TLSv1.2");
     }
 
+    @Test
+    public void sslContext_registeredProvider() {
+        when(sslConfiguration.getProvider()).thenReturn("SunJSSE");
+        SSLContext underTest = CertificateLoader.buildSSLContext(sslConfiguration, (KeyStore) null, null);
+        assertThat(underTest).isNotNull();
+        assertThat(underTest.getProvider().getName()).isEqualTo("SunJSSE");
+    }
+
+    @Test
+    public void sslContext_unavailableProvider_jdkFallback() {
+        when(sslConfiguration.getProvider()).thenReturn("org.example.MissingProvider");
+        SSLContext underTest = CertificateLoader.buildSSLContext(sslConfiguration, (KeyStore) null, null);
+        assertThat(CertificateLoader.getProvider(sslConfiguration)).isNull();
+        assertThat(underTest).isNotNull();
+        assertThat(underTest.getProtocol()).isEqualTo("TLSv1.2");
+    }
+
     @Test
     public void sslContext_nullKeyManager() throws Exception {
         TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
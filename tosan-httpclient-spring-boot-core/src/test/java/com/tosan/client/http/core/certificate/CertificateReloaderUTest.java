@@ -0,0 +1,143 @@
+package com.tosan.client.http.core.certificate;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ResourceUtils;
+
+import javax.net.ssl.SSLContext;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CertificateReloaderUTest {
+
+    @TempDir
+    private Path directory;
+    private Path trustStorePath;
+    private final CertificateReloader underTest = new CertificateReloader();
+    private final HttpClientProperties.SSLConfiguration sslConfiguration = new HttpClientProperties.SSLConfiguration();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        trustStorePath = directory.resolve("truststore.jks");
+        Files.copy(ResourceUtils.getFile("classpath:truststore.jks").toPath(), trustStorePath);
+        sslConfiguration.setCheckValidity(true);
+        sslConfiguration.setReload(true);
+        sslConfiguration.getTruststore().setPath(trustStorePath.toString());
+        sslConfiguration.getTruststore().setPassword("changeit");
+        sslConfiguration.getTruststore().setType("JKS");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void getSSLContext_sameConfiguration_shared() throws Exception {
+        SSLContext first = underTest.getSSLContext(sslConfiguration);
+
+        assertThat(underTest.getSSLContext(sslConfiguration)).isSameAs(first);
+    }
+
+    @Test
+    public void reloadAll_unchangedFile_keepsTrustManager() throws Exception {
+        underTest.getSSLContext(sslConfiguration);
+        ReloadableX509TrustManager trustManager = getTrustManager();
+        Object delegate = trustManager.getDelegate();
+
+        assertThat(underTest.reloadAll()).isZero();
+        assertThat(trustManager.getDelegate()).isSameAs(delegate);
+    }
+
+    @Test
+    public void reloadAll_changedFile_swapsTrustManager() throws Exception {
+        underTest.getSSLContext(sslConfiguration);
+        ReloadableX509TrustManager trustManager = getTrustManager();
+        assertThat(trustManager.getAcceptedIssuers()).isNotEmpty();
+
+        // holding the material keeps the watch thread from reloading it before reloadAll
+        synchronized (getMaterial()) {
+            writeEmptyTrustStore(directory.resolve("empty.jks"));
+            Files.move(directory.resolve("empty.jks"), trustStorePath, StandardCopyOption.REPLACE_EXISTING);
+
+            assertThat(underTest.reloadAll()).isEqualTo(1);
+        }
+        assertThat(trustManager.getAcceptedIssuers()).isEmpty();
+    }
+
+    @Test
+    public void reloadAll_corruptFile_keepsTrustManager() throws Exception {
+        underTest.getSSLContext(sslConfiguration);
+        ReloadableX509TrustManager trustManager = getTrustManager();
+        Object delegate = trustManager.getDelegate();
+
+        Files.writeString(trustStorePath, "not a keystore");
+
+        assertThat(underTest.reloadAll()).isZero();
+        assertThat(trustManager.getDelegate()).isSameAs(delegate);
+    }
+
+    @Test
+    public void reloadAll_keyStoreMissingAtStartup_keyManagerLoaded() throws Exception {
+        Path keyStorePath = directory.resolve("keystore.jks");
+        sslConfiguration.getKeystore().setPath(keyStorePath.toString());
+        sslConfiguration.getKeystore().setPassword("changeit");
+        sslConfiguration.getKeystore().setType("JKS");
+        underTest.getSSLContext(sslConfiguration);
+        ReloadableX509KeyManager keyManager =
+                (ReloadableX509KeyManager) ReflectionTestUtils.getField(getMaterial(), "keyManager");
+        assertThat(keyManager).isNotNull();
+        Object delegate = keyManager.getDelegate();
+
+        synchronized (getMaterial()) {
+            writeEmptyTrustStore(directory.resolve("empty.jks"));
+            Files.move(directory.resolve("empty.jks"), keyStorePath);
+
+            assertThat(underTest.reloadAll()).isEqualTo(1);
+        }
+        assertThat(keyManager.getDelegate()).isNotSameAs(delegate);
+    }
+
+    @Test
+    public void watch_changedFile_swapsTrustManager() throws Exception {
+        underTest.getSSLContext(sslConfiguration);
+        ReloadableX509TrustManager trustManager = getTrustManager();
+
+        writeEmptyTrustStore(directory.resolve("empty.jks"));
+        Files.move(directory.resolve("empty.jks"), trustStorePath, StandardCopyOption.REPLACE_EXISTING);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (trustManager.getAcceptedIssuers().length > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(trustManager.getAcceptedIssuers()).isEmpty();
+    }
+
+    private ReloadableX509TrustManager getTrustManager() {
+        return (ReloadableX509TrustManager) ReflectionTestUtils.getField(getMaterial(), "trustManager");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object getMaterial() {
+        Map<String, Object> materials = (Map<String, Object>) ReflectionTestUtils.getField(underTest, "materials");
+        return materials.values().iterator().next();
+    }
+
+    private void writeEmptyTrustStore(Path path) throws Exception {
+        KeyStore empty = KeyStore.getInstance("JKS");
+        empty.load(null, null);
+        try (OutputStream out = Files.newOutputStream(path)) {
+            empty.store(out, "changeit".toCharArray());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.tosan.client.http.core.certificate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.ResourceUtils;
+
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.KeyStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SSLMaterialCacheUTest {
+
+    private static final String PATH = "classpath:truststore.jks";
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SSLMaterialCache underTest = new SSLMaterialCache(meterRegistry);
+
+    @Test
+    public void getStore_sameContent_loadedOnce() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+
+        KeyStore first = underTest.getStore(PATH, content, "changeit", "JKS");
+        KeyStore second = underTest.getStore(PATH, content.clone(), "changeit", "JKS");
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get(SSLMaterialCache.STORE_LOAD_METER).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SSLMaterialCache.CACHE_METER).tag("cache", "store").tag("result", "hit")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void getStore_changedContent_loadedAgain() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+        KeyStore first = underTest.getStore(PATH, content, "changeit", "JKS");
+
+        KeyStore empty = KeyStore.getInstance("JKS");
+        empty.load(null, null);
+        ByteArrayOutputStream changed = new ByteArrayOutputStream();
+        empty.store(changed, "changeit".toCharArray());
+
+        assertThat(underTest.getStore(PATH, changed.toByteArray(), "changeit", "JKS")).isNotSameAs(first);
+    }
+
+    @Test
+    public void getStore_changedContent_staleContextDropped() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+        KeyStore first = underTest.getStore(PATH, content, "changeit", "JKS");
+        SSLContext firstContext = underTest.getSSLContext(null, first, "TLSv1.2", true, null,
+                () -> SSLContexts.custom().loadTrustMaterial(first, null).build());
+
+        KeyStore empty = KeyStore.getInstance("JKS");
+        empty.load(null, null);
+        ByteArrayOutputStream changed = new ByteArrayOutputStream();
+        empty.store(changed, "changeit".toCharArray());
+        underTest.getStore(PATH, changed.toByteArray(), "changeit", "JKS");
+
+        assertThat(underTest.getStore(PATH, content, "changeit", "JKS")).isNotSameAs(first);
+        assertThat(underTest.getSSLContext(null, first, "TLSv1.2", true, null,
+                () -> SSLContexts.custom().loadTrustMaterial(first, null).build())).isNotSameAs(firstContext);
+    }
+
+    @Test
+    public void getStore_wrongPassword_notCached() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+        underTest.getStore(PATH, content, "changeit", "JKS");
+
+        assertThatThrownBy(() -> underTest.getStore(PATH, content, "wrong", "JKS")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void getSSLContext_sameStores_shared() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+        KeyStore trustStore = underTest.getStore(PATH, content, "changeit", "JKS");
+
+        SSLContext first = underTest.getSSLContext(null, trustStore, "TLSv1.2", true, null,
+                () -> SSLContexts.custom().loadTrustMaterial(trustStore, null).build());
+        SSLContext second = underTest.getSSLContext(null, trustStore, "TLSv1.2", true, null,
+                () -> SSLContexts.custom().loadTrustMaterial(trustStore, null).build());
+        SSLContext otherProtocol = underTest.getSSLContext(null, trustStore, "TLSv1.3", true, null,
+                () -> SSLContexts.custom().setProtocol("TLSv1.3").loadTrustMaterial(trustStore, null).build());
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherProtocol).isNotSameAs(first);
+    }
+
+    @Test
+    public void getSSLContext_otherSessionSettings_notShared() throws Exception {
+        byte[] content = Files.readAllBytes(ResourceUtils.getFile(PATH).toPath());
+        KeyStore trustStore = underTest.getStore(PATH, content, "changeit", "JKS");
+
+        SSLContext first = underTest.getSSLContext(null, trustStore, "TLSv1.2", null, true, null, 100, 300,
+                () -> SSLContexts.custom().loadTrustMaterial(trustStore, null).build());
+        SSLContext otherTimeout = underTest.getSSLContext(null, trustStore, "TLSv1.2", null, true, null, 100, 60,
+                () -> SSLContexts.custom().loadTrustMaterial(trustStore, null).build());
+
+        assertThat(otherTimeout).isNotSameAs(first);
+    }
+}
@@ -0,0 +1,138 @@
+package com.tosan.client.http.core.circuit;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CircuitBreakerUTest {
+
+    private final HttpClientProperties.CircuitBreakerConfiguration configuration =
+            new HttpClientProperties.CircuitBreakerConfiguration();
+
+    @BeforeEach
+    public void setup() {
+        configuration.setEnable(true);
+        configuration.setWindowSize(10);
+        configuration.setMinimumCalls(4);
+    }
+
+    @Test
+    public void onResult_failureRateReached_opensAndRejects() throws Exception {
+        CircuitBreaker underTest = new CircuitBreaker("test", configuration);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of("client.name", "test"));
+
+        underTest.onResult(underTest.acquirePermission(), 200);
+        underTest.onResult(underTest.acquirePermission(), 503);
+        underTest.onError(underTest.acquirePermission());
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        underTest.onResult(underTest.acquirePermission(), 200);
+
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(underTest::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(registry.get(CircuitBreaker.STATE_METER).tag(CircuitBreaker.STATE_TAG, "open").gauge().value())
+                .isEqualTo(1);
+        assertThat(registry.get(CircuitBreaker.REJECTED_METER).functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void onResult_slowCallRateReached_opens() throws Exception {
+        configuration.setSlowCallDuration(100);
+        configuration.setSlowCallRateThreshold(50);
+        CircuitBreaker underTest = new CircuitBreaker("test", configuration);
+        long slowStart = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+        underTest.onResult(underTest.acquirePermission(), 200);
+        underTest.onResult(underTest.acquirePermission(), 200);
+        underTest.onResult(slowStart, 200);
+        underTest.onResult(slowStart, 200);
+
+        assertThat(underTest.getSlowCallRate()).isEqualTo(50);
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void onResult_countBasedWindow_oldCallsEvicted() throws Exception {
+        configuration.setWindowSize(4);
+        configuration.setFailureRateThreshold(75);
+        CircuitBreaker underTest = new CircuitBreaker("test", configuration);
+
+        underTest.onError(underTest.acquirePermission());
+        underTest.onError(underTest.acquirePermission());
+        for (int i = 0; i < 4; i++) {
+            underTest.onResult(underTest.acquirePermission(), 200);
+        }
+
+        assertThat(underTest.getFailureRate()).isZero();
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void acquirePermission_openDurationElapsed_probesCloseCircuit() throws Exception {
+        configuration.setOpenDuration(0);
+        configuration.setHalfOpenCalls(2);
+        CircuitBreaker underTest = openCircuit();
+
+        long first = underTest.acquirePermission();
+        long second = underTest.acquirePermission();
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(underTest::acquirePermission).isInstanceOf(CircuitBreakerOpenException.class);
+        underTest.onResult(first, 200);
+        underTest.onResult(second, 204);
+
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(underTest.getFailureRate()).isEqualTo(-1);
+    }
+
+    @Test
+    public void acquirePermission_failedProbes_reopen() throws Exception {
+        configuration.setOpenDuration(0);
+        configuration.setHalfOpenCalls(2);
+        CircuitBreaker underTest = openCircuit();
+
+        underTest.onResult(underTest.acquirePermission(), 200);
+        underTest.onError(underTest.acquirePermission());
+
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void onCancel_halfOpenProbe_permitHandedBack() throws Exception {
+        configuration.setOpenDuration(0);
+        configuration.setHalfOpenCalls(1);
+        CircuitBreaker underTest = openCircuit();
+
+        underTest.onCancel(underTest.acquirePermission());
+        underTest.onResult(underTest.acquirePermission(), 200);
+
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void onCancel_closed_notRecorded() throws Exception {
+        CircuitBreaker underTest = new CircuitBreaker("test", configuration);
+
+        for (int i = 0; i < configuration.getMinimumCalls(); i++) {
+            underTest.onCancel(underTest.acquirePermission());
+        }
+
+        assertThat(underTest.getFailureRate()).isEqualTo(-1);
+        assertThat(underTest.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private CircuitBreaker openCircuit() throws CircuitBreakerOpenException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", configuration);
+        for (int i = 0; i < configuration.getMinimumCalls(); i++) {
+            circuitBreaker.onError(circuitBreaker.acquirePermission());
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+}
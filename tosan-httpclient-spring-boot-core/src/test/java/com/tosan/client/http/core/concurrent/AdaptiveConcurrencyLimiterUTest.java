@@ -0,0 +1,96 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimiterUTest {
+
+    private final HttpClientProperties.ConcurrencyLimitConfiguration configuration =
+            new HttpClientProperties.ConcurrencyLimitConfiguration();
+
+    @Test
+    public void tryAcquire_limitReached_rejected() throws Exception {
+        configuration.setInitialLimit(2);
+        configuration.setMinLimit(1);
+        AdaptiveConcurrencyLimiter underTest = new AdaptiveConcurrencyLimiter(configuration);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of("client.name", "test"));
+
+        underTest.tryAcquire();
+        underTest.tryAcquire();
+
+        assertThatThrownBy(underTest::tryAcquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(registry.get(AdaptiveConcurrencyLimiter.INFLIGHT_METER).gauge().value()).isEqualTo(2);
+        assertThat(registry.get(AdaptiveConcurrencyLimiter.REJECTED_METER).functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void acquire_permitReleasedWithinMaxWait_admitted() throws Exception {
+        configuration.setInitialLimit(1);
+        configuration.setMinLimit(1);
+        configuration.setMaxWait(5000);
+        AdaptiveConcurrencyLimiter underTest = new AdaptiveConcurrencyLimiter(configuration);
+        AdaptiveConcurrencyLimiter.Permit permit = underTest.acquire();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return underTest.acquire();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        permit.ignore();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(underTest.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    public void onSample_latencyRises_limitShrinks() {
+        AdaptiveConcurrencyLimiter underTest = new AdaptiveConcurrencyLimiter(configuration);
+        for (int i = 0; i < 50; i++) {
+            underTest.onSample(TimeUnit.MILLISECONDS.toNanos(10), underTest.getLimit());
+        }
+        int steadyLimit = underTest.getLimit();
+        assertThat(steadyLimit).isGreaterThan(configuration.getInitialLimit());
+
+        for (int i = 0; i < 20; i++) {
+            underTest.onSample(TimeUnit.MILLISECONDS.toNanos(100), underTest.getLimit());
+        }
+
+        assertThat(underTest.getLimit()).isLessThan(steadyLimit);
+    }
+
+    @Test
+    public void onSample_appLimited_limitUnchanged() {
+        AdaptiveConcurrencyLimiter underTest = new AdaptiveConcurrencyLimiter(configuration);
+
+        for (int i = 0; i < 50; i++) {
+            underTest.onSample(TimeUnit.MILLISECONDS.toNanos(10), 1);
+        }
+
+        assertThat(underTest.getLimit()).isEqualTo(configuration.getInitialLimit());
+    }
+
+    @Test
+    public void failure_timeout_limitLowered() throws Exception {
+        AdaptiveConcurrencyLimiter underTest = new AdaptiveConcurrencyLimiter(configuration);
+
+        underTest.acquire().failure(new SocketTimeoutException("Read timed out"));
+        underTest.acquire().failure(new IllegalStateException("broken"));
+
+        assertThat(underTest.getLimit()).isEqualTo(18);
+        assertThat(underTest.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,155 @@
+package com.tosan.client.http.core.concurrent;
+
+import com.tosan.client.http.core.BulkheadType;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadUTest {
+
+    private final HttpClientProperties.BulkheadConfiguration configuration = new HttpClientProperties.BulkheadConfiguration();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        configuration.setEnable(true);
+        configuration.setMaxConcurrentCalls(1);
+    }
+
+    @Test
+    public void execute_semaphoreFull_rejected() throws Exception {
+        Bulkhead underTest = new Bulkhead("test", configuration);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of("client.name", "test"));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executeBlocking(underTest));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> underTest.execute(() -> "second")).isInstanceOf(BulkheadFullException.class);
+        assertThat(registry.get(Bulkhead.ACTIVE_METER).gauge().value()).isEqualTo(1);
+        assertThat(registry.get(Bulkhead.REJECTED_METER).functionCounter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(underTest.getActiveCount()).isZero();
+    }
+
+    @Test
+    public void execute_semaphoreMaxWait_admittedOnRelease() throws Exception {
+        configuration.setMaxWait(5000);
+        Bulkhead underTest = new Bulkhead("test", configuration);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executeBlocking(underTest));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        assertThat(underTest.execute(() -> "second")).isEqualTo("second");
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    @Test
+    public void execute_threadPoolQueueFull_rejected() throws Exception {
+        configuration.setType(BulkheadType.THREAD_POOL);
+        configuration.setQueueCapacity(1);
+        Bulkhead underTest = new Bulkhead("test", configuration);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executeBlocking(underTest));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return underTest.execute(() -> "queued");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (underTest.getQueuedCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> underTest.execute(() -> "rejected")).isInstanceOf(BulkheadFullException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    public void execute_threadPool_failurePropagatedWithMdc() {
+        configuration.setType(BulkheadType.THREAD_POOL);
+        Bulkhead underTest = new Bulkhead("test", configuration);
+        MDC.put("requestId", "42");
+        try {
+            assertThatThrownBy(() -> underTest.execute(() -> {
+                throw new ConnectException("refused " + MDC.get("requestId"));
+            })).isInstanceOf(ConnectException.class).hasMessage("refused 42");
+        } finally {
+            MDC.remove("requestId");
+        }
+    }
+
+    @Test
+    public void execute_threadPoolCallTimeout_cancelled() throws Exception {
+        configuration.setType(BulkheadType.THREAD_POOL);
+        Bulkhead underTest = new Bulkhead("test", configuration, Timeout.ofMilliseconds(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> underTest.execute(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        })).isInstanceOf(SocketTimeoutException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void execute_threadPoolDeadline_deadlineExceeded() {
+        configuration.setType(BulkheadType.THREAD_POOL);
+        Bulkhead underTest = new Bulkhead("test", configuration, Timeout.ofSeconds(5));
+
+        DeadlineContext.Scope scope = DeadlineContext.withBudget(100);
+        try {
+            assertThatThrownBy(() -> underTest.execute(() -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "late";
+            })).isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private String executeBlocking(Bulkhead bulkhead) {
+        try {
+            return bulkhead.execute(() -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "first";
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tosan.client.http.core.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import static com.tosan.client.http.core.Constants.MDC_CLIENT_IP;
+import static com.tosan.client.http.core.Constants.MDC_REQUEST_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvocationExecutorsUTest {
+
+    @AfterEach
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void create_propagatesMdc() throws Exception {
+        MDC.put(MDC_REQUEST_ID, "request-1");
+        MDC.put(MDC_CLIENT_IP, "127.0.0.1");
+        try (SimpleAsyncTaskExecutor executor = InvocationExecutors.create("test", true)) {
+            String result = executor.submitCompletable(() -> MDC.get(MDC_REQUEST_ID) + "," + MDC.get(MDC_CLIENT_IP)).get();
+            assertThat(result).isEqualTo("request-1,127.0.0.1");
+        }
+    }
+
+    @Test
+    public void create_threadName() throws Exception {
+        try (SimpleAsyncTaskExecutor executor = InvocationExecutors.create("test", false)) {
+            String threadName = executor.submitCompletable(() -> Thread.currentThread().getName()).get();
+            assertThat(threadName).startsWith("test-invoker-");
+        }
+    }
+
+    @Test
+    public void decorate_restoresPreviousMdc() {
+        MDC.put(MDC_REQUEST_ID, "request-1");
+        Runnable decorated = new MdcTaskDecorator().decorate(() -> assertThat(MDC.get(MDC_REQUEST_ID)).isEqualTo("request-1"));
+        MDC.put(MDC_REQUEST_ID, "request-2");
+        decorated.run();
+        assertThat(MDC.get(MDC_REQUEST_ID)).isEqualTo("request-2");
+    }
+}
@@ -0,0 +1,119 @@
+package com.tosan.client.http.core.connection;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePoolSizerUTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptivePoolSizer underTest = new AdaptivePoolSizer();
+    private final HttpClientProperties.AdaptivePoolConfiguration configuration =
+            new HttpClientProperties.AdaptivePoolConfiguration();
+    private final HttpRoute route = new HttpRoute(new HttpHost("http", "localhost", 8080));
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    public void setup() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create().build();
+        configuration.setMinConnectionsPerRoute(1);
+        configuration.setMaxConnectionsPerRoute(10);
+        configuration.setStep(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        underTest.shutdown();
+        connectionManager.close();
+    }
+
+    @Test
+    public void resize_growOnPendingLeases() throws Exception {
+        connectionManager.setMaxPerRoute(route, 1);
+        connectionManager.lease("first", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        connectionManager.lease("second", route, Timeout.ofSeconds(1), null);
+        AdaptivePoolSizer.Registration registration = underTest.register("test", connectionManager, configuration,
+                Set.of());
+        registration.bindTo(meterRegistry, Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test"));
+
+        assertThat(registration.resize()).isEqualTo(1);
+        assertThat(connectionManager.getMaxPerRoute(route)).isEqualTo(2);
+        assertThat(meterRegistry.get(AdaptivePoolSizer.RESIZE_METER).tag("action", "grow").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(AdaptivePoolSizer.MAX_PER_ROUTE_METER).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void bindTo_knownRoute_gaugeBeforeResize() throws Exception {
+        connectionManager.setMaxPerRoute(route, 3);
+        ConnectionEndpoint endpoint = connectionManager.lease("first", route, Timeout.ofSeconds(1), null)
+                .get(Timeout.ofSeconds(1));
+        connectionManager.release(endpoint, null, TimeValue.ofMinutes(1));
+
+        AdaptivePoolSizer.Registration registration = underTest.register("http://localhost:8080", connectionManager,
+                configuration, Set.of());
+        assertThat(meterRegistry.find(AdaptivePoolSizer.MAX_PER_ROUTE_METER).gauge()).isNull();
+
+        registration.bindTo(meterRegistry, Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test"));
+
+        assertThat(meterRegistry.get(AdaptivePoolSizer.MAX_PER_ROUTE_METER)
+                .tag(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test")
+                .tag(ConnectionPoolMetrics.ROUTE_TAG, "http://localhost:8080")
+                .gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    public void resize_shrinkIdleRoute() throws Exception {
+        connectionManager.setMaxPerRoute(route, 5);
+        ConnectionEndpoint endpoint = connectionManager.lease("first", route, Timeout.ofSeconds(1), null)
+                .get(Timeout.ofSeconds(1));
+        connectionManager.release(endpoint, null, TimeValue.ofMinutes(1));
+        AdaptivePoolSizer.Registration registration = underTest.register("test", connectionManager, configuration,
+                Set.of());
+        registration.bindTo(meterRegistry, Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test"));
+
+        assertThat(registration.resize()).isEqualTo(1);
+        assertThat(connectionManager.getMaxPerRoute(route)).isEqualTo(4);
+        assertThat(meterRegistry.get(AdaptivePoolSizer.RESIZE_METER).tag("action", "shrink").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void resize_fixedRouteAndFloor() throws Exception {
+        connectionManager.setMaxPerRoute(route, 5);
+        ConnectionEndpoint endpoint = connectionManager.lease("first", route, Timeout.ofSeconds(1), null)
+                .get(Timeout.ofSeconds(1));
+        connectionManager.release(endpoint, null, TimeValue.ofMinutes(1));
+        AdaptivePoolSizer.Registration fixed = underTest.register("fixed", connectionManager, configuration,
+                Set.of(route));
+        assertThat(fixed.resize()).isZero();
+
+        configuration.setMinConnectionsPerRoute(5);
+        AdaptivePoolSizer.Registration floor = underTest.register("floor", connectionManager, configuration, Set.of());
+        assertThat(floor.resize()).isZero();
+        assertThat(connectionManager.getMaxPerRoute(route)).isEqualTo(5);
+    }
+
+    @Test
+    public void resize_closedPool() {
+        AdaptivePoolSizer.Registration registration = underTest.register("test", connectionManager, configuration,
+                Set.of());
+        connectionManager.close();
+        assertThat(registration.resize()).isZero();
+        assertThat(underTest.getRegisteredPoolCount()).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.tosan.client.http.core.connection;
+
+import com.tosan.client.http.core.AddressRotation;
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.hc.client5.http.DnsResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingDnsResolverUTest {
+
+    @Mock
+    private DnsResolver delegate;
+    private final HttpClientProperties.DnsConfiguration configuration = new HttpClientProperties.DnsConfiguration();
+    private InetAddress first;
+    private InetAddress second;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        first = InetAddress.getByAddress("api.example.com", new byte[]{10, 0, 0, 1});
+        second = InetAddress.getByAddress("api.example.com", new byte[]{10, 0, 0, 2});
+    }
+
+    @Test
+    public void resolve_withinTtl_resolvedOnce() throws Exception {
+        configuration.setRotation(AddressRotation.NONE);
+        when(delegate.resolve("api.example.com")).thenReturn(new InetAddress[]{first, second});
+        CachingDnsResolver underTest = new CachingDnsResolver(delegate, configuration);
+
+        assertThat(underTest.resolve("api.example.com")).containsExactly(first, second);
+        assertThat(underTest.resolve("API.example.com")).containsExactly(first, second);
+        verify(delegate, times(1)).resolve("api.example.com");
+    }
+
+    @Test
+    public void resolve_zeroTtl_resolvedEveryTime() throws Exception {
+        configuration.setTtl(0);
+        when(delegate.resolve("api.example.com")).thenReturn(new InetAddress[]{first});
+        CachingDnsResolver underTest = new CachingDnsResolver(delegate, configuration);
+
+        underTest.resolve("api.example.com");
+        underTest.resolve("api.example.com");
+
+        verify(delegate, times(2)).resolve("api.example.com");
+    }
+
+    @Test
+    public void resolve_failure_negativeCached() throws Exception {
+        when(delegate.resolve("missing.example.com")).thenThrow(new UnknownHostException("missing.example.com"));
+        CachingDnsResolver underTest = new CachingDnsResolver(delegate, configuration);
+
+        assertThatThrownBy(() -> underTest.resolve("missing.example.com")).isInstanceOf(UnknownHostException.class);
+        assertThatThrownBy(() -> underTest.resolve("missing.example.com")).isInstanceOf(UnknownHostException.class);
+        verify(delegate, times(1)).resolve("missing.example.com");
+    }
+
+    @Test
+    public void resolve_roundRobin_rotatesAddresses() throws Exception {
+        when(delegate.resolve("api.example.com")).thenReturn(new InetAddress[]{first, second});
+        CachingDnsResolver underTest = new CachingDnsResolver(delegate, configuration);
+
+        assertThat(underTest.resolve("api.example.com")).containsExactly(first, second);
+        assertThat(underTest.resolve("api.example.com")).containsExactly(second, first);
+        assertThat(underTest.resolve("api.example.com")).containsExactly(first, second);
+    }
+
+    @Test
+    public void resolve_override_notResolved() throws Exception {
+        configuration.setHosts(Map.of("api.example.com", List.of("10.0.0.9")));
+        CachingDnsResolver underTest = new CachingDnsResolver(delegate, configuration);
+
+        InetAddress[] addresses = underTest.resolve("api.example.com");
+
+        assertThat(addresses).hasSize(1);
+        assertThat(addresses[0].getHostAddress()).isEqualTo("10.0.0.9");
+        assertThat(addresses[0].getHostName()).isEqualTo("api.example.com");
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    public void constructor_overrideNotIp_rejected() {
+        configuration.setHosts(Map.of("api.example.com", List.of("backend.example.com")));
+
+        assertThatThrownBy(() -> new CachingDnsResolver(delegate, configuration))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConnectionLeaseMonitorUTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(1)
+            .setMaxConnPerRoute(1)
+            .build();
+    private final HttpRoute route = new HttpRoute(new HttpHost("http", "localhost", 8080));
+
+    @AfterEach
+    public void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    public void checkPendingLeases_queueFull_failFast() throws Exception {
+        ConnectionLeaseMonitor underTest = new ConnectionLeaseMonitor(connectionManager, 1);
+        underTest.bindTo(meterRegistry, Tags.of("client.name", "custom-service"));
+        connectionManager.lease("leased", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        assertThatCode(underTest::checkPendingLeases).doesNotThrowAnyException();
+
+        connectionManager.lease("pending", route, Timeout.ofSeconds(1), null);
+
+        assertThatThrownBy(underTest::checkPendingLeases).isInstanceOf(ConnectionPoolExhaustedException.class);
+        assertThat(meterRegistry.get(ConnectionLeaseMonitor.LEASE_REJECTED_METER).tag("client.name", "custom-service")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void checkPendingLeases_unbounded() throws Exception {
+        ConnectionLeaseMonitor underTest = new ConnectionLeaseMonitor(connectionManager, 0);
+        connectionManager.lease("leased", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        connectionManager.lease("pending", route, Timeout.ofSeconds(1), null);
+
+        assertThatCode(underTest::checkPendingLeases).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void monitor_recordLeaseWait_includingTimeout() throws Exception {
+        ConnectionLeaseMonitor underTest = new ConnectionLeaseMonitor(connectionManager, 0);
+        underTest.bindTo(meterRegistry, Tags.of("client.name", "custom-service"));
+        HttpClientConnectionManager monitored = underTest.monitor(connectionManager);
+
+        monitored.lease("leased", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        LeaseRequest waiting = monitored.lease("waiting", route, Timeout.ofMilliseconds(100), null);
+        assertThatThrownBy(() -> waiting.get(Timeout.ofMilliseconds(100))).isInstanceOf(TimeoutException.class);
+
+        assertThat(meterRegistry.get(ConnectionLeaseMonitor.LEASE_WAIT_METER).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(ConnectionLeaseMonitor.LEASE_WAIT_METER).timer().max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(100);
+    }
+}
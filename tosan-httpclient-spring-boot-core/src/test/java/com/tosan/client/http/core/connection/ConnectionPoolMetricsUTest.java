@@ -0,0 +1,48 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionPoolMetricsUTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(20)
+            .setMaxConnPerRoute(1)
+            .build();
+    private final HttpRoute route = new HttpRoute(new HttpHost("http", "localhost", 8080));
+
+    @AfterEach
+    public void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    public void bindTo_totalAndRouteGauges() throws Exception {
+        new ConnectionPoolMetrics("custom-service", connectionManager, List.of(route)).bindTo(meterRegistry);
+        connectionManager.lease("first", route, Timeout.ofSeconds(1), null).get(Timeout.ofSeconds(1));
+        connectionManager.lease("second", route, Timeout.ofSeconds(1), null);
+
+        assertThat(gauge("http.client.pool.max")).isEqualTo(20);
+        assertThat(gauge("http.client.pool.leased")).isEqualTo(1);
+        assertThat(gauge("http.client.pool.pending")).isEqualTo(1);
+        assertThat(gauge("http.client.pool.available")).isZero();
+        assertThat(meterRegistry.get("http.client.pool.route.max")
+                .tag(ConnectionPoolMetrics.ROUTE_TAG, "http://localhost:8080").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.client.pool.route.pending").gauge().value()).isEqualTo(1);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag(ConnectionPoolMetrics.CLIENT_NAME_TAG, "custom-service").gauge().value();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tosan.client.http.core.connection;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class ConnectionPoolWarmerUTest {
+
+    private final ConnectionPoolWarmer underTest = new ConnectionPoolWarmer();
+    private final PoolingHttpClientConnectionManager connectionManager =
+            PoolingHttpClientConnectionManagerBuilder.create().build();
+    private final HttpClientProperties.WarmupConfiguration warmupConfiguration =
+            new HttpClientProperties.WarmupConfiguration();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/health", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        warmupConfiguration.setEnable(true);
+        warmupConfiguration.setConnections(3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void warmUp_opensConnections() {
+        int opened = underTest.warmUp(connectionManager, baseUrl(), warmupConfiguration, TimeValue.ofMinutes(1));
+        assertThat(opened).isEqualTo(3);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(3);
+        assertThat(requestCount).hasValue(0);
+    }
+
+    @Test
+    public void warmUp_withPath() {
+        warmupConfiguration.setPath("/health");
+        int opened = underTest.warmUp(connectionManager, baseUrl(), warmupConfiguration, TimeValue.ofMinutes(1));
+        assertThat(opened).isEqualTo(3);
+        assertThat(requestCount).hasValue(3);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(3);
+    }
+
+    @Test
+    public void warmUp_failedRequest_connectionDiscarded() throws Exception {
+        warmupConfiguration.setPath("/health");
+        PoolingHttpClientConnectionManager spiedManager = spy(connectionManager);
+        try (ServerSocket brokenServer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Thread responder = new Thread(() -> {
+                try (Socket socket = brokenServer.accept()) {
+                    socket.getInputStream().read(new byte[1024]);
+                    socket.getOutputStream().write("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nab"
+                            .getBytes(StandardCharsets.US_ASCII));
+                } catch (IOException ignored) {
+                }
+            });
+            responder.start();
+
+            int opened = underTest.warmUp(spiedManager, "http://127.0.0.1:" + brokenServer.getLocalPort(),
+                    warmupConfiguration, TimeValue.ofMinutes(1));
+
+            assertThat(opened).isZero();
+            verify(spiedManager).release(any(), isNull(), eq(TimeValue.ZERO_MILLISECONDS));
+            assertThat(spiedManager.getTotalStats().getAvailable()).isZero();
+        }
+    }
+
+    @Test
+    public void warmUp_invalidUrl() {
+        int opened = underTest.warmUp(connectionManager, "localhost:8080/example", warmupConfiguration,
+                TimeValue.ofMinutes(1));
+        assertThat(opened).isZero();
+        assertThat(connectionManager.getTotalStats().getAvailable()).isZero();
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tosan.client.http.core.connection;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdleConnectionEvictorUTest {
+
+    private final IdleConnectionEvictor underTest = new IdleConnectionEvictor();
+
+    @AfterEach
+    public void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    public void register_multiplePools() {
+        underTest.register("first", PoolingHttpClientConnectionManagerBuilder.create().build(), 30000L, 3000L, 60000L);
+        underTest.register("second", PoolingHttpClientConnectionManagerBuilder.create().build(), 30000L, 3000L, 60000L);
+        assertThat(underTest.getRegisteredPoolCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void registration_close() {
+        IdleConnectionEvictor.Registration registration = underTest.register("first",
+                PoolingHttpClientConnectionManagerBuilder.create().build(), 30000L, 3000L, 60000L);
+        registration.close();
+        assertThat(underTest.getRegisteredPoolCount()).isZero();
+    }
+
+    @Test
+    public void sweep_closedPool() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create().build();
+        IdleConnectionEvictor.Registration registration = underTest.register("first", connectionManager,
+                30000L, 3000L, 60000L);
+        connectionManager.close();
+        assertThat(registration.sweep()).isZero();
+        assertThat(underTest.getRegisteredPoolCount()).isZero();
+    }
+
+    @Test
+    public void sweep_emptyPool() {
+        IdleConnectionEvictor.Registration registration = underTest.register("first",
+                PoolingHttpClientConnectionManagerBuilder.create().build(), 30000L, 3000L, 0L);
+        assertThat(registration.sweep()).isZero();
+        assertThat(underTest.getEvictedConnectionCount()).isZero();
+        assertThat(underTest.getRegisteredPoolCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tosan.client.http.core.connection;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.ssl.TlsSocketStrategy;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import java.net.Socket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TlsHandshakeMonitorUTest {
+
+    private final TlsHandshakeMonitor underTest = new TlsHandshakeMonitor();
+
+    @Test
+    public void record_sessionCreatedDuringHandshake_full() {
+        long start = System.currentTimeMillis();
+
+        underTest.record(session(start + 5), start);
+
+        assertThat(underTest.getFullHandshakes()).isEqualTo(1);
+        assertThat(underTest.getResumedHandshakes()).isZero();
+    }
+
+    @Test
+    public void record_sessionCreatedBeforeHandshake_resumed() {
+        long start = System.currentTimeMillis();
+
+        underTest.record(session(start - 60000), start);
+
+        assertThat(underTest.getFullHandshakes()).isZero();
+        assertThat(underTest.getResumedHandshakes()).isEqualTo(1);
+    }
+
+    @Test
+    public void monitor_tlsSocketStrategy_countsHandshake() throws Exception {
+        SSLSocket sslSocket = mock(SSLSocket.class);
+        SSLSession session = session(0);
+        when(sslSocket.getSession()).thenReturn(session);
+        TlsSocketStrategy tlsSocketStrategy = mock(TlsSocketStrategy.class);
+        when(tlsSocketStrategy.upgrade(any(), any(), any(Integer.class), any(), any())).thenReturn(sslSocket);
+
+        SSLSocket result = underTest.monitor(tlsSocketStrategy).upgrade(new Socket(), "localhost", 443, null, null);
+
+        assertThat(result).isSameAs(sslSocket);
+        assertThat(underTest.getResumedHandshakes()).isEqualTo(1);
+    }
+
+    @Test
+    public void bindTo_publishesCountersByType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test"));
+        long start = System.currentTimeMillis();
+        underTest.record(session(start), start);
+        underTest.record(session(start - 1000), start);
+        underTest.record(session(start - 1000), start);
+
+        assertThat(registry.get(TlsHandshakeMonitor.HANDSHAKE_METER).tag(TlsHandshakeMonitor.TYPE_TAG, "full")
+                .tag(ConnectionPoolMetrics.CLIENT_NAME_TAG, "test").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get(TlsHandshakeMonitor.HANDSHAKE_METER).tag(TlsHandshakeMonitor.TYPE_TAG, "resumed")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    private SSLSession session(long creationTime) {
+        SSLSession session = mock(SSLSession.class);
+        when(session.getCreationTime()).thenReturn(creationTime);
+        return session;
+    }
+}
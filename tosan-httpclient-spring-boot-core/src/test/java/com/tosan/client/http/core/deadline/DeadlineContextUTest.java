@@ -0,0 +1,56 @@
+package com.tosan.client.http.core.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeadlineContextUTest {
+
+    @Test
+    public void open_nestedScopes_earlierDeadlineKeptAndRestored() {
+        try (DeadlineContext.Scope outer = DeadlineContext.withBudget(1000)) {
+            Deadline outerDeadline = DeadlineContext.current();
+            try (DeadlineContext.Scope inner = DeadlineContext.withBudget(60000)) {
+                assertThat(DeadlineContext.current()).isSameAs(outerDeadline);
+            }
+            try (DeadlineContext.Scope inner = DeadlineContext.withBudget(100)) {
+                assertThat(DeadlineContext.current().getRemainingMillis()).isLessThanOrEqualTo(100);
+            }
+            assertThat(DeadlineContext.current()).isSameAs(outerDeadline);
+        }
+        assertThat(DeadlineContext.current()).isNull();
+    }
+
+    @Test
+    public void open_noDeadline_currentUnchanged() {
+        try (DeadlineContext.Scope scope = DeadlineContext.open(Deadline.parse("soon"))) {
+            assertThat(DeadlineContext.current()).isNull();
+        }
+    }
+
+    @Test
+    public void parse_remainingMillis() {
+        Deadline deadline = Deadline.parse(" 500 ");
+
+        assertThat(deadline.getRemainingMillis()).isBetween(400L, 500L);
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(Deadline.parse("0").isExpired()).isTrue();
+        assertThat(Deadline.parse(null)).isNull();
+    }
+
+    @Test
+    public void decorate_deadlineCopiedAndRestored() {
+        Deadline[] seen = new Deadline[1];
+        Runnable decorated;
+        Deadline deadline;
+        try (DeadlineContext.Scope scope = DeadlineContext.withBudget(1000)) {
+            deadline = DeadlineContext.current();
+            decorated = new DeadlineTaskDecorator().decorate(() -> seen[0] = DeadlineContext.current());
+        }
+
+        decorated.run();
+
+        assertThat(seen[0]).isSameAs(deadline);
+        assertThat(DeadlineContext.current()).isNull();
+    }
+}
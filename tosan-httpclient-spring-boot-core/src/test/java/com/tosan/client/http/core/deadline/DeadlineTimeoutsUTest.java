@@ -0,0 +1,76 @@
+package com.tosan.client.http.core.deadline;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeadlineTimeoutsUTest {
+
+    @Test
+    public void apply_budgetShorterThanTimeouts_timeoutsShortened() throws Exception {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofSeconds(30))
+                .setConnectionRequestTimeout(Timeout.DISABLED)
+                .build());
+
+        DeadlineTimeouts.apply(Deadline.after(500), context, null);
+
+        RequestConfig requestConfig = context.getRequestConfig();
+        assertThat(requestConfig.getResponseTimeout().toMilliseconds()).isBetween(400L, 500L);
+        assertThat(requestConfig.getConnectionRequestTimeout().toMilliseconds()).isBetween(400L, 500L);
+    }
+
+    @Test
+    public void apply_timeoutShorterThanBudget_timeoutKept() throws Exception {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom().setResponseTimeout(Timeout.ofMilliseconds(200)).build());
+
+        DeadlineTimeouts.apply(Deadline.after(60000), context, null);
+
+        assertThat(context.getRequestConfig().getResponseTimeout()).isEqualTo(Timeout.ofMilliseconds(200));
+    }
+
+    @Test
+    public void apply_noResponseTimeout_socketTimeoutKept() throws Exception {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom().build());
+
+        DeadlineTimeouts.apply(Deadline.after(60000), context, Timeout.ofMilliseconds(200));
+
+        assertThat(context.getRequestConfig().getResponseTimeout()).isEqualTo(Timeout.ofMilliseconds(200));
+    }
+
+    @Test
+    public void apply_noResponseTimeout_socketTimeoutShortened() throws Exception {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom().build());
+
+        DeadlineTimeouts.apply(Deadline.after(500), context, Timeout.ofSeconds(10));
+
+        assertThat(context.getRequestConfig().getResponseTimeout().toMilliseconds()).isBetween(400L, 500L);
+    }
+
+    @Test
+    public void apply_noDeadline_requestConfigUnchanged() throws Exception {
+        HttpClientContext context = HttpClientContext.create();
+        RequestConfig requestConfig = RequestConfig.custom().build();
+        context.setRequestConfig(requestConfig);
+
+        DeadlineTimeouts.apply(null, context, null);
+
+        assertThat(context.getRequestConfig()).isSameAs(requestConfig);
+    }
+
+    @Test
+    public void apply_deadlineExpired_rejected() {
+        HttpClientContext context = HttpClientContext.create();
+
+        assertThatThrownBy(() -> DeadlineTimeouts.apply(Deadline.after(0), context, null))
+                .isInstanceOf(DeadlineExceededException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tosan.client.http.core.factory;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.HttpProtocol;
+import com.tosan.client.http.core.connection.IdleConnectionEvictor;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigurableApacheHttpAsyncClientFactoryUTest {
+
+    private final IdleConnectionEvictor idleConnectionEvictor = new IdleConnectionEvictor();
+
+    @AfterEach
+    public void tearDown() {
+        idleConnectionEvictor.shutdown();
+    }
+
+    @Test
+    public void createBuilder_defaultConfiguration() {
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setBaseServiceUrl("http://localhost:8080");
+        httpClientProperties.getConnection().setMaxConnections(20);
+        httpClientProperties.getConnection().setMaxConnectionsPerRoute(5);
+        httpClientProperties.getConnection().setIoThreadCount(2);
+        ConfigurableApacheHttpAsyncClientFactory underTest = new ConfigurableApacheHttpAsyncClientFactory(
+                HttpAsyncClientBuilder.create(), PoolingAsyncClientConnectionManagerBuilder.create(),
+                httpClientProperties, idleConnectionEvictor);
+        HttpAsyncClientBuilder builder = underTest.createBuilder();
+        RequestConfig requestConfig = (RequestConfig) ReflectionTestUtils.getField(builder, "defaultRequestConfig");
+        assertThat(requestConfig).isNotNull();
+        IOReactorConfig ioReactorConfig = (IOReactorConfig) ReflectionTestUtils.getField(builder, "ioReactorConfig");
+        assertThat(ioReactorConfig).isNotNull();
+        assertThat(ioReactorConfig.getIoThreadCount()).isEqualTo(2);
+        assertThat(underTest.getConnectionManager().getMaxTotal()).isEqualTo(20);
+        assertThat(underTest.getConnectionManager().getDefaultMaxPerRoute()).isEqualTo(5);
+        assertThat(idleConnectionEvictor.getRegisteredPoolCount()).isEqualTo(1);
+        underTest.getConnectionManager().close();
+    }
+
+    @Test
+    public void createBuilder_http2() {
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setBaseServiceUrl("http://localhost:8080");
+        httpClientProperties.getConnection().setProtocol(HttpProtocol.H2C);
+        httpClientProperties.getConnection().setMaxConcurrentStreams(250);
+        httpClientProperties.getConnection().setInitialWindowSize(1048576);
+        ConfigurableApacheHttpAsyncClientFactory underTest = new ConfigurableApacheHttpAsyncClientFactory(
+                HttpAsyncClientBuilder.create(), PoolingAsyncClientConnectionManagerBuilder.create(),
+                httpClientProperties, idleConnectionEvictor);
+        HttpAsyncClientBuilder builder = underTest.createBuilder();
+        H2Config h2Config = (H2Config) ReflectionTestUtils.getField(builder, "h2Config");
+        assertThat(h2Config).isNotNull();
+        assertThat(h2Config.getMaxConcurrentStreams()).isEqualTo(250);
+        assertThat(h2Config.getInitialWindowSize()).isEqualTo(1048576);
+        assertThat(h2Config.isPushEnabled()).isFalse();
+        underTest.getConnectionManager().close();
+    }
+}
@@ -1,15 +1,26 @@
 package com.tosan.client.http.core.factory;
 
 import com.tosan.client.http.core.HttpClientProperties;
+import org.apache.hc.client5.http.HttpRoute;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.Credentials;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.client5.http.impl.routing.DefaultRoutePlanner;
 import org.apache.hc.client5.http.impl.routing.SystemDefaultRoutePlanner;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.core5.function.Resolver;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.Method;
+import org.apache.hc.core5.http.message.BasicHttpRequest;
 import org.apache.hc.core5.http.protocol.BasicHttpContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +31,10 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.net.ssl.SSLContext;
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +45,11 @@ public class ConfigurableApacheHttpClientFactoryUTest {
     private final HttpClientProperties.ConnectionConfiguration connectionConfiguration = new HttpClientProperties.ConnectionConfiguration();
     private final HttpClientProperties.SSLConfiguration sslConfiguration = new HttpClientProperties.SSLConfiguration();
     private final HttpClientProperties.ProxyConfiguration proxyConfiguration = new HttpClientProperties.ProxyConfiguration();
+    private final HttpClientProperties.WarmupConfiguration warmupConfiguration = new HttpClientProperties.WarmupConfiguration();
+    private final HttpClientProperties.AdaptivePoolConfiguration adaptivePoolConfiguration = new HttpClientProperties.AdaptivePoolConfiguration();
+    private final HttpClientProperties.DnsConfiguration dnsConfiguration = new HttpClientProperties.DnsConfiguration();
+    private final HttpClientProperties.RetryConfiguration retryConfiguration = new HttpClientProperties.RetryConfiguration();
+    private final HttpClientProperties.DeadlineConfiguration deadlineConfiguration = new HttpClientProperties.DeadlineConfiguration();
     @Mock
     private HttpClientProperties httpClientProperties;
     private HttpClientProperties.ProxyConfiguration hostConfig;
@@ -40,6 +60,11 @@ public class ConfigurableApacheHttpClientFactoryUTest {
         when(httpClientProperties.getProxy()).thenReturn(proxyConfiguration);
         when(httpClientProperties.getConnection()).thenReturn(connectionConfiguration);
         when(httpClientProperties.getSsl()).thenReturn(sslConfiguration);
+        when(httpClientProperties.getWarmup()).thenReturn(warmupConfiguration);
+        when(httpClientProperties.getAdaptivePool()).thenReturn(adaptivePoolConfiguration);
+        when(httpClientProperties.getDns()).thenReturn(dnsConfiguration);
+        when(httpClientProperties.getRetry()).thenReturn(retryConfiguration);
+        when(httpClientProperties.getDeadline()).thenReturn(deadlineConfiguration);
 
         hostConfig = new HttpClientProperties.ProxyConfiguration();
         hostConfigWithAuth = new HttpClientProperties.ProxyConfiguration();
@@ -97,4 +122,101 @@ public class ConfigurableApacheHttpClientFactoryUTest {
         Object proxyAuthStrategy = ReflectionTestUtils.getField(builder, HttpClientBuilder.class, "proxyAuthStrategy");
         assertThat(proxyAuthStrategy).isInstanceOf(DefaultAuthenticationStrategy.class);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createBuilder_routeConfiguration() throws Exception {
+        HttpClientProperties.RouteConfiguration routeConfiguration = new HttpClientProperties.RouteConfiguration();
+        routeConfiguration.setMaxConnections(5);
+        routeConfiguration.setSocketTimeout(60000);
+        when(httpClientProperties.getRoutes()).thenReturn(Map.of("reports.example.com:8443", routeConfiguration));
+
+        ConfigurableApacheHttpClientFactory underTest = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), httpClientProperties);
+        underTest.createBuilder();
+        PoolingHttpClientConnectionManager connectionManager = underTest.getConnectionManager();
+
+        HttpRoute reportsRoute = createRoute(new HttpHost("https", "reports.example.com", 8443));
+        HttpRoute apiRoute = createRoute(new HttpHost("https", "api.example.com", 443));
+        assertThat(connectionManager.getMaxPerRoute(reportsRoute)).isEqualTo(5);
+        assertThat(connectionManager.getMaxPerRoute(apiRoute)).isEqualTo(connectionConfiguration.getMaxConnectionsPerRoute());
+
+        Resolver<HttpRoute, ConnectionConfig> resolver = (Resolver<HttpRoute, ConnectionConfig>) ReflectionTestUtils
+                .getField(connectionManager, "connectionConfigResolver");
+        assertThat(resolver.resolve(reportsRoute).getSocketTimeout().toMilliseconds()).isEqualTo(60000);
+        assertThat(resolver.resolve(apiRoute).getSocketTimeout().toMilliseconds())
+                .isEqualTo(connectionConfiguration.getSocketTimeout());
+        connectionManager.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createBuilder_routeWithoutPort_schemeDefaultPort() throws Exception {
+        HttpClientProperties.RouteConfiguration routeConfiguration = new HttpClientProperties.RouteConfiguration();
+        routeConfiguration.setMaxConnections(5);
+        routeConfiguration.setSocketTimeout(60000);
+        when(httpClientProperties.getRoutes()).thenReturn(Map.of("reports.example.com", routeConfiguration));
+
+        ConfigurableApacheHttpClientFactory underTest = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), httpClientProperties);
+        underTest.createBuilder();
+        PoolingHttpClientConnectionManager connectionManager = underTest.getConnectionManager();
+
+        HttpRoute httpsRoute = createRoute(new HttpHost("https", "reports.example.com", 443));
+        HttpRoute httpRoute = createRoute(new HttpHost("http", "reports.example.com", 80));
+        assertThat(connectionManager.getMaxPerRoute(httpsRoute)).isEqualTo(5);
+        assertThat(connectionManager.getMaxPerRoute(httpRoute)).isEqualTo(5);
+        Resolver<HttpRoute, ConnectionConfig> resolver = (Resolver<HttpRoute, ConnectionConfig>) ReflectionTestUtils
+                .getField(connectionManager, "connectionConfigResolver");
+        assertThat(resolver.resolve(httpsRoute).getSocketTimeout().toMilliseconds()).isEqualTo(60000);
+        connectionManager.close();
+    }
+
+    @Test
+    public void createBuilder_routeConfigurationWithProxy_proxiedRoute() throws Exception {
+        when(httpClientProperties.getProxy()).thenReturn(hostConfigWithAuth);
+        HttpClientProperties.RouteConfiguration routeConfiguration = new HttpClientProperties.RouteConfiguration();
+        routeConfiguration.setMaxConnections(5);
+        when(httpClientProperties.getRoutes()).thenReturn(Map.of("reports.example.com:8443", routeConfiguration));
+
+        ConfigurableApacheHttpClientFactory underTest = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), httpClientProperties);
+        underTest.createBuilder();
+        PoolingHttpClientConnectionManager connectionManager = underTest.getConnectionManager();
+
+        HttpHost target = new HttpHost("https", "reports.example.com", 8443);
+        HttpRoute proxiedRoute = new DefaultProxyRoutePlanner(new HttpHost("testProxyHost", 1234))
+                .determineRoute(target, new BasicHttpRequest(Method.GET, target, "/"), HttpClientContext.create());
+        assertThat(connectionManager.getMaxPerRoute(proxiedRoute)).isEqualTo(5);
+        connectionManager.close();
+    }
+
+    @Test
+    public void createSSLContext_sessionConfiguration_applied() {
+        sslConfiguration.setContext("TLS");
+        sslConfiguration.setSessionCacheSize(128);
+        sslConfiguration.setSessionTimeout(600);
+
+        ConfigurableApacheHttpClientFactory underTest = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), httpClientProperties);
+        SSLContext sslContext = underTest.createSSLContext();
+
+        assertThat(sslContext.getClientSessionContext().getSessionCacheSize()).isEqualTo(128);
+        assertThat(sslContext.getClientSessionContext().getSessionTimeout()).isEqualTo(600);
+    }
+
+    @Test
+    public void getTlsProtocols_notConfigured_null() {
+        ConfigurableApacheHttpClientFactory underTest = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), httpClientProperties);
+        assertThat(underTest.getTlsProtocols()).isNull();
+
+        sslConfiguration.setProtocols(List.of("TLSv1.3", "TLSv1.2"));
+        assertThat(underTest.getTlsProtocols()).containsExactly("TLSv1.3", "TLSv1.2");
+    }
+
+    private HttpRoute createRoute(HttpHost target) throws Exception {
+        return new DefaultRoutePlanner(DefaultSchemePortResolver.INSTANCE)
+                .determineRoute(target, new BasicHttpRequest(Method.GET, target, "/"), HttpClientContext.create());
+    }
 }
@@ -0,0 +1,204 @@
+package com.tosan.client.http.core.retry;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HedgingExecutorUTest {
+
+    private final HttpClientProperties.HedgeConfiguration configuration = new HttpClientProperties.HedgeConfiguration();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final List<String> discarded = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        configuration.setEnable(true);
+        configuration.setDelay(20);
+    }
+
+    @Test
+    public void execute_slowFirstAttempt_hedgeWins() throws Exception {
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of("client.name", "test"));
+
+        String response = underTest.execute("GET", attempt -> {
+            attempts.incrementAndGet();
+            if (attempt == 1) {
+                pause(5000);
+                return "slow";
+            }
+            return "hedge";
+        }, discarded::add);
+
+        assertThat(response).isEqualTo("hedge");
+        assertThat(attempts).hasValue(2);
+        assertThat(registry.get(HedgingExecutor.HEDGE_METER).tag(HedgingExecutor.OUTCOME_TAG, "hedge_won")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_fastFirstAttempt_notHedged() throws Exception {
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+
+        String response = underTest.execute("GET", attempt -> {
+            attempts.incrementAndGet();
+            return "first";
+        }, discarded::add);
+
+        assertThat(response).isEqualTo("first");
+        assertThat(attempts).hasValue(1);
+        assertThat(discarded).isEmpty();
+    }
+
+    @Test
+    public void execute_nonHedgedMethod_callerThread() throws Exception {
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+        Thread caller = Thread.currentThread();
+
+        boolean callerThread = underTest.execute("POST", attempt -> Thread.currentThread() == caller, result -> {
+        });
+
+        assertThat(callerThread).isTrue();
+    }
+
+    @Test
+    public void execute_bothAttemptsFail_lastFailureThrown() {
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+
+        assertThatThrownBy(() -> underTest.<String>execute("GET", attempt -> {
+            attempts.incrementAndGet();
+            if (attempt == 1) {
+                pause(100);
+            }
+            throw new ConnectException("refused " + attempt);
+        }, discarded::add)).isInstanceOf(ConnectException.class);
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    public void execute_budgetExhausted_waitsForFirstAttempt() throws Exception {
+        configuration.setBudgetCapacity(1);
+        configuration.setBudgetPercent(0);
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+        underTest.execute("GET", attempt -> {
+            if (attempt == 1) {
+                pause(50);
+            }
+            return "hedged";
+        }, discarded::add);
+
+        String response = underTest.execute("GET", attempt -> {
+            attempts.incrementAndGet();
+            pause(50);
+            return "first";
+        }, discarded::add);
+
+        assertThat(response).isEqualTo("first");
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void execute_poolBusy_sentUnhedgedOnCallerThread() throws Exception {
+        ThreadPoolTaskExecutor pool = InvocationExecutors.createPool("test-hedge", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        HedgingExecutor underTest = new HedgingExecutor(configuration, pool);
+        Thread caller = Thread.currentThread();
+
+        try {
+            boolean callerThread = underTest.execute("GET", attempt -> {
+                attempts.incrementAndGet();
+                return Thread.currentThread() == caller;
+            }, result -> {
+            });
+
+            assertThat(callerThread).isTrue();
+            assertThat(attempts).hasValue(1);
+        } finally {
+            release.countDown();
+            underTest.close();
+        }
+    }
+
+    @Test
+    public void execute_pooledAttempts_threadsReused() throws Exception {
+        configuration.setDelay(1000);
+        ThreadPoolTaskExecutor pool = InvocationExecutors.createPool("test-hedge", 4);
+        HedgingExecutor underTest = new HedgingExecutor(configuration, pool);
+        List<String> threads = new CopyOnWriteArrayList<>();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                underTest.execute("GET", attempt -> threads.add(Thread.currentThread().getName()), result -> {
+                });
+            }
+
+            assertThat(threads).hasSize(10).allMatch(name -> name.startsWith("test-hedge-"));
+            assertThat(pool.getThreadPoolExecutor().getLargestPoolSize()).isLessThanOrEqualTo(4);
+        } finally {
+            underTest.close();
+        }
+        assertThat(pool.getThreadPoolExecutor().isShutdown()).isTrue();
+    }
+
+    @Test
+    public void executeAsync_slowFirstAttempt_hedgeWinsAndLoserDiscarded() throws Exception {
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+        CompletableFuture<String> slow = new CompletableFuture<>();
+
+        CompletableFuture<String> response = underTest.executeAsync("GET",
+                attempt -> attempt == 1 ? slow : CompletableFuture.completedFuture("hedge"), discarded::add);
+
+        assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(slow).isCancelled();
+    }
+
+    @Test
+    public void getDelayNanos_percentile_afterMinSamples() {
+        configuration.setDelay(0);
+        configuration.setMinSamples(64);
+        configuration.setMinDelay(1);
+        HedgingExecutor underTest = new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor());
+        assertThat(underTest.getDelayNanos()).isEqualTo(-1);
+
+        for (int i = 1; i <= 64; i++) {
+            underTest.getLatencyTracker().record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertThat(underTest.getDelayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(61));
+    }
+
+    private static void pause(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.tosan.client.http.core.retry;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RetryExecutorUTest {
+
+    private final HttpClientProperties.RetryConfiguration configuration = new HttpClientProperties.RetryConfiguration();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final List<Integer> discarded = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        configuration.setEnable(true);
+        configuration.setInitialBackoff(1);
+        configuration.setMaxBackoff(5);
+    }
+
+    @Test
+    public void execute_retryableStatus_retriedUntilSuccess() throws Exception {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        int status = underTest.execute("GET", attempt -> attempts.incrementAndGet() < 3 ? 503 : 200,
+                Integer::intValue, discarded::add);
+
+        assertThat(status).isEqualTo(200);
+        assertThat(attempts).hasValue(3);
+        assertThat(discarded).containsExactly(503, 503);
+    }
+
+    @Test
+    public void execute_maxAttempts_lastResponse() throws Exception {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        int status = underTest.execute("GET", attempt -> {
+            attempts.incrementAndGet();
+            return 502;
+        }, Integer::intValue, discarded::add);
+
+        assertThat(status).isEqualTo(502);
+        assertThat(attempts).hasValue(3);
+        assertThat(discarded).hasSize(2);
+    }
+
+    @Test
+    public void execute_deadlineExceeded_notRetried() throws Exception {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        int status;
+        try (DeadlineContext.Scope scope = DeadlineContext.withBudget(0)) {
+            status = underTest.execute("GET", attempt -> {
+                attempts.incrementAndGet();
+                return 503;
+            }, Integer::intValue, discarded::add);
+        }
+
+        assertThat(status).isEqualTo(503);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void execute_nonIdempotentMethod_notRetried() {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        assertThatThrownBy(() -> underTest.execute("POST", attempt -> {
+            attempts.incrementAndGet();
+            throw new ConnectException("refused");
+        }, Integer::intValue, discarded::add)).isInstanceOf(ConnectException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    public void execute_retryableException_retried() throws Exception {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        int status = underTest.execute("PUT", attempt -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("wrapped", new SocketException("Connection reset"));
+            }
+            return 200;
+        }, Integer::intValue, discarded::add);
+
+        assertThat(status).isEqualTo(200);
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    public void execute_budgetExhausted_notRetried() throws Exception {
+        configuration.setBudgetCapacity(1);
+        configuration.setBudgetPercent(0);
+        RetryExecutor underTest = new RetryExecutor(configuration);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        underTest.bindTo(registry, Tags.of("client.name", "test"));
+
+        underTest.execute("GET", attempt -> attempts.incrementAndGet() == 1 ? 503 : 200, Integer::intValue,
+                discarded::add);
+        int status = underTest.execute("GET", attempt -> 503, Integer::intValue, discarded::add);
+
+        assertThat(status).isEqualTo(503);
+        assertThat(registry.get(RetryExecutor.RETRY_METER).tag(RetryExecutor.OUTCOME_TAG, "retry")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get(RetryExecutor.RETRY_METER).tag(RetryExecutor.OUTCOME_TAG, "budget_exhausted")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void executeAsync_retryableStatus_retriedUntilSuccess() throws Exception {
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        CompletableFuture<Integer> result = underTest.executeAsync("GET",
+                attempt -> CompletableFuture.completedFuture(attempts.incrementAndGet() < 2 ? 504 : 200),
+                Integer::intValue, discarded::add);
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(discarded).containsExactly(504);
+    }
+
+    @Test
+    public void getBackoff_exponentialCappedWithJitter() {
+        configuration.setInitialBackoff(100);
+        configuration.setMaxBackoff(300);
+        RetryExecutor underTest = new RetryExecutor(configuration);
+
+        assertThat(underTest.getBackoff(1)).isBetween(50L, 100L);
+        assertThat(underTest.getBackoff(2)).isBetween(100L, 200L);
+        assertThat(underTest.getBackoff(5)).isBetween(150L, 300L);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tosan.client.http.core.timing;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.factory.ConfigurableApacheHttpClientFactory;
+import io.micrometer.common.KeyValue;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingsUTest {
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/test", exchange -> {
+            byte[] body = "response".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl("http://localhost:" + server.getAddress().getPort());
+        httpClient = new ConfigurableApacheHttpClientFactory(HttpClientBuilder.create(),
+                PoolingHttpClientConnectionManagerBuilder.create(), properties).createBuilder().build();
+        RequestTimings.clear();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+        RequestTimings.clear();
+    }
+
+    @Test
+    public void execute_newConnection_allPhasesButTls() throws IOException {
+        String body = execute();
+
+        RequestTimings timings = RequestTimings.current();
+        assertThat(body).isEqualTo("response");
+        assertThat(timings).isNotNull();
+        assertThat(timings.toMap()).containsOnlyKeys("lease", "dns", "connect", "ttfb", "body");
+        assertThat(timings.getNanos(RequestPhase.TIME_TO_FIRST_BYTE)).isPositive();
+        assertThat(timings.isRecorded(RequestPhase.TLS)).isFalse();
+    }
+
+    @Test
+    public void execute_reusedConnection_noConnectPhases() throws IOException {
+        execute();
+        RequestTimings first = RequestTimings.current();
+        execute();
+
+        RequestTimings second = RequestTimings.current();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.toMap()).containsOnlyKeys("lease", "ttfb", "body");
+    }
+
+    @Test
+    public void toKeyValues_notRecorded_none() {
+        RequestTimings timings = new RequestTimings();
+        timings.add(RequestPhase.DNS, 1_500_000L);
+        timings.add(RequestPhase.DNS, 500_000L);
+
+        assertThat(RequestTimings.toKeyValues(timings)).contains(KeyValue.of("http.client.timing.dns", "2.000ms"),
+                KeyValue.of("http.client.timing.tls", KeyValue.NONE_VALUE));
+        assertThat(RequestTimings.toKeyValues(null)).hasSize(RequestPhase.values().length);
+    }
+
+    private String execute() throws IOException {
+        return httpClient.execute(new HttpGet("http://localhost:" + server.getAddress().getPort() + "/test"),
+                response -> EntityUtils.toString(response.getEntity()));
+    }
+}
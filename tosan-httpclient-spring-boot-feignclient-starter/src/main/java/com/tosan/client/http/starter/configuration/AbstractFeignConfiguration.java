@@ -5,13 +5,42 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.LoadBalancerMetrics;
+import com.tosan.client.http.core.balancer.LoadBalancerRegistry;
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import com.tosan.client.http.core.concurrent.CallTimeouts;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
+import com.tosan.client.http.core.connection.ConnectionPoolMetrics;
+import com.tosan.client.http.core.deadline.Deadline;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.factory.ConfigurableApacheHttpAsyncClientFactory;
 import com.tosan.client.http.core.factory.ConfigurableApacheHttpClientFactory;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import com.tosan.client.http.core.retry.RetryExecutor;
+import com.tosan.client.http.starter.impl.feign.AsyncFeignBuilder;
 import com.tosan.client.http.starter.impl.feign.CustomErrorDecoder;
 import com.tosan.client.http.starter.impl.feign.CustomErrorDecoderConfig;
 import com.tosan.client.http.starter.impl.feign.FeignBuilder;
 import com.tosan.client.http.starter.impl.feign.ExternalServiceInvoker;
+import com.tosan.client.http.starter.impl.feign.balancer.LoadBalancedTarget;
+import com.tosan.client.http.starter.impl.feign.balancer.LoadBalancingAsyncClient;
+import com.tosan.client.http.starter.impl.feign.balancer.LoadBalancingClient;
 import com.tosan.client.http.starter.impl.feign.exception.FeignConfigurationException;
 import com.tosan.client.http.starter.impl.feign.logger.HttpFeignClientLogger;
+import com.tosan.client.http.starter.impl.feign.circuit.CircuitBreakingAsyncClient;
+import com.tosan.client.http.starter.impl.feign.circuit.CircuitBreakingClient;
+import com.tosan.client.http.starter.impl.feign.limit.BulkheadAsyncClient;
+import com.tosan.client.http.starter.impl.feign.limit.BulkheadClient;
+import com.tosan.client.http.starter.impl.feign.limit.ConcurrencyLimitingAsyncClient;
+import com.tosan.client.http.starter.impl.feign.limit.ConcurrencyLimitingClient;
+import com.tosan.client.http.starter.impl.feign.retry.HedgingAsyncClient;
+import com.tosan.client.http.starter.impl.feign.retry.HedgingClient;
+import com.tosan.client.http.starter.impl.feign.retry.RetryingAsyncClient;
+import com.tosan.client.http.starter.impl.feign.retry.RetryingClient;
+import com.tosan.client.http.starter.impl.feign.timing.RequestTimingsClient;
 import com.tosan.tools.mask.starter.replace.JsonReplaceHelperDecider;
 import feign.*;
 import feign.auth.BasicAuthRequestInterceptor;
@@ -19,17 +48,29 @@ import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
 import feign.hc5.ApacheHttp5Client;
+import feign.hc5.AsyncApacheHttp5Client;
 import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.reactor.IOReactorStatus;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -52,6 +93,8 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
     private final Decoder decoder;
     private final Contract contract;
     private final Class<P> propertiesClass;
+    private MeterRegistry meterRegistry;
+    private LoadBalancerRegistry loadBalancerRegistry;
 
     protected AbstractFeignConfiguration(
             String serviceName, Class<P> propertiesClass, ObservationRegistry observationRegistry,
@@ -107,16 +150,72 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
                 PoolingHttpClientConnectionManagerBuilder.create();
         ConfigurableApacheHttpClientFactory factory = new ConfigurableApacheHttpClientFactory(
                 builder, connectionManagerBuilder, properties);
-        return factory.createBuilder().build();
+        CloseableHttpClient httpClient = factory.createBuilder().build();
+        bindConnectionPoolMetrics(factory.createConnectionPoolMetrics(getExternalServiceName()));
+        return httpClient;
+    }
+
+    /**
+     * Binds connection pool metrics of the service, tagged with {@link #getExternalServiceName()}.
+     */
+    protected void bindConnectionPoolMetrics(MeterBinder connectionPoolMetrics) {
+        connectionPoolMetrics.bindTo(getMeterRegistry());
+    }
+
+    /**
+     * Injects the registry of the application context, replacing the local registry used when none is available.
+     */
+    @Autowired
+    public void setMeterRegistry(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * Injects the registry the load balancers of the configuration are registered into, if available.
+     */
+    @Autowired
+    public void setLoadBalancerRegistry(ObjectProvider<LoadBalancerRegistry> loadBalancerRegistryProvider) {
+        this.loadBalancerRegistry = loadBalancerRegistryProvider.getIfAvailable();
+    }
+
+    /**
+     * @return registry of the application context, or a registry local to this configuration outside a context
+     */
+    protected MeterRegistry getMeterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = new SimpleMeterRegistry();
+        }
+        return meterRegistry;
     }
 
     protected Client wrapHttpClient(CloseableHttpClient closeableHttpClient) {
         return new ApacheHttp5Client(closeableHttpClient);
     }
 
+    protected CloseableHttpAsyncClient createAsyncFeignHttpClient(P properties) {
+        HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create();
+        PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder =
+                PoolingAsyncClientConnectionManagerBuilder.create();
+        ConfigurableApacheHttpAsyncClientFactory factory = new ConfigurableApacheHttpAsyncClientFactory(
+                builder, connectionManagerBuilder, properties);
+        CloseableHttpAsyncClient httpAsyncClient = factory.createBuilder().build();
+        bindConnectionPoolMetrics(factory.createConnectionPoolMetrics(getExternalServiceName()));
+        return httpAsyncClient;
+    }
+
+    protected AsyncClient<HttpClientContext> wrapAsyncHttpClient(CloseableHttpAsyncClient closeableHttpAsyncClient) {
+        if (closeableHttpAsyncClient.getStatus() == IOReactorStatus.INACTIVE) {
+            closeableHttpAsyncClient.start();
+        }
+        return new AsyncApacheHttp5Client(closeableHttpAsyncClient);
+    }
+
     protected List<RequestInterceptor> createRequestInterceptors(P properties) {
         List<RequestInterceptor> interceptors = new ArrayList<>();
         interceptors.add(createDefaultRequestInterceptor());
+        if (properties.getDeadline().isEnable() && properties.getDeadline().isPropagate()) {
+            interceptors.add(createDeadlineRequestInterceptor());
+        }
         if (properties.getAuthorization() != null && properties.getAuthorization().isEnable()) {
             interceptors.add(createBasicAuthInterceptor(properties));
         }
@@ -140,6 +239,10 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
         return new CustomErrorDecoder(config);
     }
 
+    /**
+     * Feign level retries are off, {@code retry} properties are applied by the client of
+     * {@link #createRetryExecutor(HttpClientProperties)} on both the sync and async builders.
+     */
     protected Retryer createRetryer() {
         return Retryer.NEVER_RETRY;
     }
@@ -163,6 +266,33 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
 
     protected FeignBuilder createFeignBuilder(P httpClientProperties) {
         CloseableHttpClient closeableHttpClient = createFeignHttpClient(httpClientProperties);
+        LoadBalancer loadBalancer = createLoadBalancer(httpClientProperties);
+        Client client = wrapHttpClient(closeableHttpClient);
+        if (loadBalancer != null) {
+            registerLoadBalancer(loadBalancer);
+            client = new LoadBalancingClient(client, loadBalancer);
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = createConcurrencyLimiter(httpClientProperties);
+        if (concurrencyLimiter != null) {
+            client = new ConcurrencyLimitingClient(client, concurrencyLimiter);
+        }
+        HedgingExecutor hedgingExecutor = createHedgingExecutor(httpClientProperties);
+        if (hedgingExecutor != null) {
+            client = new HedgingClient(client, hedgingExecutor, loadBalancer);
+        }
+        CircuitBreaker circuitBreaker = createCircuitBreaker(httpClientProperties);
+        if (circuitBreaker != null) {
+            client = new CircuitBreakingClient(client, circuitBreaker);
+        }
+        RetryExecutor retryExecutor = createRetryExecutor(httpClientProperties);
+        if (retryExecutor != null) {
+            client = new RetryingClient(client, retryExecutor, loadBalancer);
+        }
+        Bulkhead bulkhead = createBulkhead(httpClientProperties);
+        if (bulkhead != null) {
+            client = new BulkheadClient(client, bulkhead);
+        }
+        client = new RequestTimingsClient(client);
         ObjectMapper objectMapper = createObjectMapper();
         Feign.Builder feignBuilder = builderProvider.getIfAvailable();
         if (feignBuilder == null) {
@@ -171,7 +301,55 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
             );
         }
         feignBuilder = feignBuilder
-                .client(wrapHttpClient(closeableHttpClient))
+                .client(client)
+                .options(createRequestOptions(httpClientProperties))
+                .encoder(createEncoder(objectMapper))
+                .decoder(createDecoder(objectMapper))
+                .errorDecoder(createErrorDecoder(objectMapper))
+                .contract(createContract(objectMapper))
+                .requestInterceptors(createRequestInterceptors(httpClientProperties))
+                .retryer(createRetryer())
+                .logger(createLogger())
+                .logLevel(getLogLevel());
+        createCapabilities(observationRegistry).forEach(feignBuilder::addCapability);
+        return new FeignBuilder(feignBuilder, closeableHttpClient, loadBalancer, hedgingExecutor);
+    }
+
+    /**
+     * Builds an {@link AsyncFeign} client on a non-blocking {@link CloseableHttpAsyncClient}; target interfaces
+     * declare {@link java.util.concurrent.CompletableFuture} return types
+     */
+    protected AsyncFeignBuilder createAsyncFeignBuilder(P httpClientProperties) {
+        CloseableHttpAsyncClient closeableHttpAsyncClient = createAsyncFeignHttpClient(httpClientProperties);
+        LoadBalancer loadBalancer = createLoadBalancer(httpClientProperties);
+        AsyncClient<HttpClientContext> client = wrapAsyncHttpClient(closeableHttpAsyncClient);
+        if (loadBalancer != null) {
+            registerLoadBalancer(loadBalancer);
+            client = new LoadBalancingAsyncClient<>(client, loadBalancer);
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = createConcurrencyLimiter(httpClientProperties);
+        if (concurrencyLimiter != null) {
+            client = new ConcurrencyLimitingAsyncClient<>(client, concurrencyLimiter);
+        }
+        HedgingExecutor hedgingExecutor = createHedgingExecutor(httpClientProperties);
+        if (hedgingExecutor != null) {
+            client = new HedgingAsyncClient<>(client, hedgingExecutor, loadBalancer);
+        }
+        CircuitBreaker circuitBreaker = createCircuitBreaker(httpClientProperties);
+        if (circuitBreaker != null) {
+            client = new CircuitBreakingAsyncClient<>(client, circuitBreaker);
+        }
+        RetryExecutor retryExecutor = createRetryExecutor(httpClientProperties);
+        if (retryExecutor != null) {
+            client = new RetryingAsyncClient<>(client, retryExecutor, loadBalancer);
+        }
+        Bulkhead bulkhead = createBulkhead(httpClientProperties);
+        if (bulkhead != null) {
+            client = new BulkheadAsyncClient<>(client, bulkhead);
+        }
+        ObjectMapper objectMapper = createObjectMapper();
+        AsyncFeign.AsyncBuilder<HttpClientContext> feignBuilder = AsyncFeign.<HttpClientContext>builder()
+                .client(client)
                 .options(createRequestOptions(httpClientProperties))
                 .encoder(createEncoder(objectMapper))
                 .decoder(createDecoder(objectMapper))
@@ -182,7 +360,93 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
                 .logger(createLogger())
                 .logLevel(getLogLevel());
         createCapabilities(observationRegistry).forEach(feignBuilder::addCapability);
-        return new FeignBuilder(feignBuilder, closeableHttpClient);
+        return new AsyncFeignBuilder(feignBuilder, closeableHttpAsyncClient, loadBalancer, hedgingExecutor);
+    }
+
+    /**
+     * @return balancer over the {@code baseServiceUrls} of the service, or null for a single base service url
+     */
+    protected LoadBalancer createLoadBalancer(P properties) {
+        return LoadBalancer.create(properties);
+    }
+
+    /**
+     * @return retry policy of the service bound to the retry metrics, or null when retries are disabled
+     */
+    protected RetryExecutor createRetryExecutor(P properties) {
+        if (!properties.getRetry().isEnable()) {
+            return null;
+        }
+        RetryExecutor retryExecutor = new RetryExecutor(properties.getRetry());
+        retryExecutor.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return retryExecutor;
+    }
+
+    /**
+     * @return hedging policy of the service bound to the hedging metrics, or null when hedging is disabled
+     */
+    protected HedgingExecutor createHedgingExecutor(P properties) {
+        if (!properties.getHedge().isEnable()) {
+            return null;
+        }
+        HedgingExecutor hedgingExecutor = new HedgingExecutor(properties.getHedge(), InvocationExecutors.createPool(
+                getExternalServiceName() + "-hedge", properties.getHedge().getMaxThreads()));
+        hedgingExecutor.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return hedgingExecutor;
+    }
+
+    /**
+     * @return adaptive concurrency limit of the service bound to the limit metrics, or null when disabled
+     */
+    protected AdaptiveConcurrencyLimiter createConcurrencyLimiter(P properties) {
+        if (!properties.getConcurrencyLimit().isEnable()) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getConcurrencyLimit());
+        concurrencyLimiter.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return circuit breaker of the service bound to the circuit breaker metrics, or null when disabled
+     */
+    protected CircuitBreaker createCircuitBreaker(P properties) {
+        if (!properties.getCircuitBreaker().isEnable()) {
+            return null;
+        }
+        CircuitBreaker circuitBreaker = new CircuitBreaker(getExternalServiceName(), properties.getCircuitBreaker());
+        circuitBreaker.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return circuitBreaker;
+    }
+
+    /**
+     * @return bulkhead of the service bound to the bulkhead metrics, or null when disabled
+     */
+    protected Bulkhead createBulkhead(P properties) {
+        if (!properties.getBulkhead().isEnable()) {
+            return null;
+        }
+        Bulkhead bulkhead = new Bulkhead(getExternalServiceName(), properties.getBulkhead(),
+                CallTimeouts.callTimeout(properties));
+        bulkhead.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return bulkhead;
+    }
+
+    /**
+     * Publishes the balancer to the actuator view and binds its endpoint metrics.
+     */
+    protected void registerLoadBalancer(LoadBalancer loadBalancer) {
+        if (loadBalancerRegistry != null) {
+            loadBalancerRegistry.register(getExternalServiceName(), loadBalancer);
+        }
+        new LoadBalancerMetrics(getExternalServiceName(), loadBalancer).bindTo(getMeterRegistry());
+    }
+
+    /**
+     * @return executor running {@link ExternalServiceInvoker#invokeAsync} tasks
+     */
+    protected AsyncTaskExecutor createInvocationExecutor(P properties) {
+        return InvocationExecutors.create(getExternalServiceName(), properties.getConnection().isVirtualThreads());
     }
 
     protected void validateProperties(P properties) {
@@ -212,6 +476,18 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
         };
     }
 
+    /**
+     * Sends the remaining budget of the deadline of the calling thread; requests past it are failed by the transport
+     */
+    private RequestInterceptor createDeadlineRequestInterceptor() {
+        return requestTemplate -> {
+            Deadline deadline = DeadlineContext.current();
+            if (deadline != null) {
+                requestTemplate.header(X_REQUEST_TIMEOUT, String.valueOf(deadline.getRemainingMillis()));
+            }
+        };
+    }
+
     private void addMdcHeaderIfPresent(RequestTemplate requestTemplate, String mdcKey, String headerName) {
         String mdcValue = MDC.get(mdcKey);
         if (mdcValue != null) {
@@ -235,6 +511,15 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
                 .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
     }
 
+    private <T> Target<T> createTarget(Class<T> clientType, P properties, String controllerPath,
+                                       LoadBalancer loadBalancer) {
+        String url = buildTargetUrl(properties, controllerPath);
+        if (loadBalancer == null) {
+            return new Target.HardCodedTarget<>(clientType, url);
+        }
+        return new LoadBalancedTarget<>(clientType, getExternalServiceName(), url, loadBalancer);
+    }
+
     private String buildTargetUrl(P properties, String controllerPath) {
         String baseUrl = properties.getBaseServiceUrl();
         if (!StringUtils.hasText(controllerPath)) {
@@ -248,8 +533,11 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
         validateProperties(properties);
         FeignBuilder feignBuilder = createFeignBuilder(properties);
         return new ExternalServiceInvoker<T>(
-                feignBuilder.getFeignBuilder().target(clientType, buildTargetUrl(properties, controllerPath)),
-                feignBuilder.getHttpClient()
+                feignBuilder.getFeignBuilder().target(createTarget(clientType, properties, controllerPath,
+                        feignBuilder.getLoadBalancer())),
+                feignBuilder.getHttpClient(),
+                createInvocationExecutor(properties),
+                feignBuilder.getHedgingExecutor()
         );
     }
 
@@ -261,12 +549,40 @@ public abstract class AbstractFeignConfiguration<P extends HttpClientProperties>
         validateProperties(properties);
         FeignBuilder feignBuilder = createFeignBuilder(properties);
         return new ExternalServiceInvoker<T>(
-                feignBuilder.getFeignBuilder().target(clientType, buildTargetUrl(properties, controllerPath)),
-                feignBuilder.getHttpClient()
+                feignBuilder.getFeignBuilder().target(createTarget(clientType, properties, controllerPath,
+                        feignBuilder.getLoadBalancer())),
+                feignBuilder.getHttpClient(),
+                createInvocationExecutor(properties),
+                feignBuilder.getHedgingExecutor()
         );
     }
 
     protected final <T> ExternalServiceInvoker<T> createServiceInvoker(P properties, Class<T> clientType) {
         return createServiceInvoker(properties, null, clientType);
     }
+
+    protected final <T> ExternalServiceInvoker<T> createAsyncServiceInvoker(Environment environment, String controllerPath, Class<T> clientType) {
+        P properties = loadHttpClientProperties(environment);
+        return createAsyncServiceInvoker(properties, controllerPath, clientType);
+    }
+
+    protected final <T> ExternalServiceInvoker<T> createAsyncServiceInvoker(Environment environment, Class<T> clientType) {
+        return createAsyncServiceInvoker(environment, null, clientType);
+    }
+
+    protected final <T> ExternalServiceInvoker<T> createAsyncServiceInvoker(P properties, String controllerPath, Class<T> clientType) {
+        validateProperties(properties);
+        AsyncFeignBuilder feignBuilder = createAsyncFeignBuilder(properties);
+        return new ExternalServiceInvoker<T>(
+                feignBuilder.getFeignBuilder().target(createTarget(clientType, properties, controllerPath,
+                        feignBuilder.getLoadBalancer())),
+                feignBuilder.getHttpClient(),
+                createInvocationExecutor(properties),
+                feignBuilder.getHedgingExecutor()
+        );
+    }
+
+    protected final <T> ExternalServiceInvoker<T> createAsyncServiceInvoker(P properties, Class<T> clientType) {
+        return createAsyncServiceInvoker(properties, null, clientType);
+    }
 }
@@ -1,5 +1,6 @@
 package com.tosan.client.http.starter.configuration;
 
+import com.tosan.client.http.core.timing.RequestTimings;
 import feign.Request;
 import feign.Response;
 import feign.micrometer.FeignContext;
@@ -118,7 +119,11 @@ public class TosanFeignObservationConvention implements FeignObservationConventi
     @Override
     public KeyValues getHighCardinalityKeyValues(FeignContext context) {
         // Make sure that KeyValues entries are already sorted by name for better performance
-        return KeyValues.of(requestUri(context));
+        return KeyValues.of(requestUri(context)).and(timings(context));
+    }
+
+    protected KeyValues timings(FeignContext context) {
+        return RequestTimings.toKeyValues(RequestTimings.current());
     }
 
     protected KeyValue requestUri(FeignContext context) {
@@ -0,0 +1,54 @@
+package com.tosan.client.http.starter.impl.feign;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import feign.AsyncFeign;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+
+public class AsyncFeignBuilder {
+
+    private final AsyncFeign.AsyncBuilder<HttpClientContext> feignBuilder;
+    private final CloseableHttpAsyncClient httpClient;
+    private final LoadBalancer loadBalancer;
+    private final HedgingExecutor hedgingExecutor;
+
+    public AsyncFeignBuilder(AsyncFeign.AsyncBuilder<HttpClientContext> feignBuilder, CloseableHttpAsyncClient httpClient) {
+        this(feignBuilder, httpClient, null);
+    }
+
+    /**
+     * @param loadBalancer balancer of the service, or null for a single base service url
+     */
+    public AsyncFeignBuilder(AsyncFeign.AsyncBuilder<HttpClientContext> feignBuilder, CloseableHttpAsyncClient httpClient,
+              LoadBalancer loadBalancer) {
+        this(feignBuilder, httpClient, loadBalancer, null);
+    }
+
+    /**
+     * @param hedgingExecutor hedging policy of the service, or null, shut down with the client
+     */
+    public AsyncFeignBuilder(AsyncFeign.AsyncBuilder<HttpClientContext> feignBuilder, CloseableHttpAsyncClient httpClient,
+              LoadBalancer loadBalancer, HedgingExecutor hedgingExecutor) {
+        this.feignBuilder = feignBuilder;
+        this.httpClient = httpClient;
+        this.loadBalancer = loadBalancer;
+        this.hedgingExecutor = hedgingExecutor;
+    }
+
+    public AsyncFeign.AsyncBuilder<HttpClientContext> getFeignBuilder() {
+        return feignBuilder;
+    }
+
+    public CloseableHttpAsyncClient getHttpClient() {
+        return httpClient;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public HedgingExecutor getHedgingExecutor() {
+        return hedgingExecutor;
+    }
+}
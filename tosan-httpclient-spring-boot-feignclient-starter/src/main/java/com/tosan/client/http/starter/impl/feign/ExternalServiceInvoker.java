@@ -1,23 +1,85 @@
 package com.tosan.client.http.starter.impl.feign;
 
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
+import com.tosan.client.http.core.retry.HedgingExecutor;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class ExternalServiceInvoker<T> implements DisposableBean {
+    private static final String DEFAULT_EXECUTOR_NAME = "feign-client";
     private final T client;
-    private final CloseableHttpClient httpClient;
+    private final Closeable httpClient;
+    private final AsyncTaskExecutor invocationExecutor;
+    private final HedgingExecutor hedgingExecutor;
+
+    /**
+     * @param client     feign client proxy
+     * @param httpClient underlying classic or async http client, closed on destroy
+     */
+    public ExternalServiceInvoker(T client, Closeable httpClient) {
+        this(client, httpClient, InvocationExecutors.create(DEFAULT_EXECUTOR_NAME,
+                InvocationExecutors.isVirtualThreadSupported()));
+    }
 
-    public ExternalServiceInvoker(T client, CloseableHttpClient httpClient) {
+    /**
+     * @param client               feign client proxy
+     * @param httpClient           underlying classic or async http client, closed on destroy
+     * @param httpClientProperties properties of the service, {@code connection.virtualThreads} selects the threads of
+     *                             {@link #invokeAsync(Function)}
+     */
+    public ExternalServiceInvoker(T client, Closeable httpClient, HttpClientProperties httpClientProperties) {
+        this(client, httpClient, InvocationExecutors.create(DEFAULT_EXECUTOR_NAME,
+                httpClientProperties.getConnection().isVirtualThreads()));
+    }
+
+    /**
+     * @param client             feign client proxy
+     * @param httpClient         underlying classic or async http client, closed on destroy
+     * @param invocationExecutor executor running {@link #invokeAsync(Function)} tasks, closed on destroy
+     */
+    public ExternalServiceInvoker(T client, Closeable httpClient, AsyncTaskExecutor invocationExecutor) {
+        this(client, httpClient, invocationExecutor, null);
+    }
+
+    /**
+     * @param client             feign client proxy
+     * @param httpClient         underlying classic or async http client, closed on destroy
+     * @param invocationExecutor executor running {@link #invokeAsync(Function)} tasks, closed on destroy
+     * @param hedgingExecutor    hedging policy of the client, or null, closed on destroy
+     */
+    public ExternalServiceInvoker(T client, Closeable httpClient, AsyncTaskExecutor invocationExecutor,
+                                  HedgingExecutor hedgingExecutor) {
         this.client = client;
         this.httpClient = httpClient;
+        this.invocationExecutor = invocationExecutor;
+        this.hedgingExecutor = hedgingExecutor;
     }
 
     public T getClient() {
         return this.client;
     }
 
+    /**
+     * Runs a blocking call on the invocation executor (virtual threads by default) so the caller does not wait
+     * for the response. The caller's MDC is propagated to the executing thread.
+     */
+    public <R> CompletableFuture<R> invokeAsync(Function<T, R> invocation) {
+        return this.invocationExecutor.submitCompletable(() -> invocation.apply(this.client));
+    }
+
     @Override
     public void destroy() throws Exception {
+        if (this.invocationExecutor instanceof AutoCloseable closeableExecutor) {
+            closeableExecutor.close();
+        }
+        if (this.hedgingExecutor != null) {
+            this.hedgingExecutor.close();
+        }
         if (this.httpClient != null) {
             this.httpClient.close();
         }
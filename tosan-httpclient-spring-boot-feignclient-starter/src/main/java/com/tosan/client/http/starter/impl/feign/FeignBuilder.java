@@ -1,5 +1,7 @@
 package com.tosan.client.http.starter.impl.feign;
 
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.HedgingExecutor;
 import feign.Feign;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 
@@ -7,10 +9,30 @@ public class FeignBuilder {
 
     private final Feign.Builder feignBuilder;
     private final CloseableHttpClient httpClient;
+    private final LoadBalancer loadBalancer;
+    private final HedgingExecutor hedgingExecutor;
 
     public FeignBuilder(Feign.Builder feignBuilder, CloseableHttpClient httpClient) {
+        this(feignBuilder, httpClient, null);
+    }
+
+    /**
+     * @param loadBalancer balancer of the service, or null for a single base service url
+     */
+    public FeignBuilder(Feign.Builder feignBuilder, CloseableHttpClient httpClient,
+              LoadBalancer loadBalancer) {
+        this(feignBuilder, httpClient, loadBalancer, null);
+    }
+
+    /**
+     * @param hedgingExecutor hedging policy of the service, or null, shut down with the client
+     */
+    public FeignBuilder(Feign.Builder feignBuilder, CloseableHttpClient httpClient,
+              LoadBalancer loadBalancer, HedgingExecutor hedgingExecutor) {
         this.feignBuilder = feignBuilder;
         this.httpClient = httpClient;
+        this.loadBalancer = loadBalancer;
+        this.hedgingExecutor = hedgingExecutor;
     }
 
     public Feign.Builder getFeignBuilder() {
@@ -20,4 +42,12 @@ public class FeignBuilder {
     public CloseableHttpClient getHttpClient() {
         return httpClient;
     }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public HedgingExecutor getHedgingExecutor() {
+        return hedgingExecutor;
+    }
 }
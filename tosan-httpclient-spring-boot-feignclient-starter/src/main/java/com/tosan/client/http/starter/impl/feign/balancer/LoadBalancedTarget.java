@@ -0,0 +1,67 @@
+package com.tosan.client.http.starter.impl.feign.balancer;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.ServiceEndpoint;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Target;
+
+import java.util.Collection;
+
+/**
+ * {@link Target} sending each request to the endpoint selected by the {@link LoadBalancer} of the service.
+ */
+public class LoadBalancedTarget<T> implements Target<T> {
+    private final Class<T> type;
+    private final String name;
+    private final String url;
+    private final LoadBalancer loadBalancer;
+
+    /**
+     * @param url target url built on the base service url
+     */
+    public LoadBalancedTarget(Class<T> type, String name, String url, LoadBalancer loadBalancer) {
+        this.type = type;
+        this.name = name;
+        this.url = url;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public String url() {
+        return url;
+    }
+
+    @Override
+    public Request apply(RequestTemplate input) {
+        if (input.url().indexOf("http") != 0) {
+            ServiceEndpoint endpoint = loadBalancer.choose(url + input.path(), name -> firstHeader(input, name));
+            input.target(loadBalancer.rewrite(url, endpoint));
+        }
+        return input.request();
+    }
+
+    private static String firstHeader(RequestTemplate input, String name) {
+        Collection<String> values = input.headers().get(name);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancedTarget(type=" + type.getSimpleName() + ", name=" + name + ", url=" + url + ")";
+    }
+}
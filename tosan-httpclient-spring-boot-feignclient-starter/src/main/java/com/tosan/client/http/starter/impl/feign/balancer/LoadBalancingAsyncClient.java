@@ -0,0 +1,47 @@
+package com.tosan.client.http.starter.impl.feign.balancer;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.ServiceEndpoint;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link LoadBalancingClient}.
+ */
+public class LoadBalancingAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final LoadBalancer loadBalancer;
+
+    public LoadBalancingAsyncClient(AsyncClient<C> delegate, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        ServiceEndpoint endpoint = loadBalancer.findEndpoint(request.url());
+        if (endpoint == null) {
+            return delegate.execute(request, options, requestContext);
+        }
+        long start = endpoint.start();
+        CompletableFuture<Response> future;
+        try {
+            future = delegate.execute(request, options, requestContext);
+        } catch (RuntimeException e) {
+            endpoint.complete(start, false);
+            throw e;
+        }
+        return future.whenComplete((response, throwable) -> {
+            if (DeadlineExceededException.isCause(throwable)) {
+                endpoint.cancel(start);
+            } else {
+                endpoint.complete(start, throwable == null, response != null && response.status() >= 500);
+            }
+        });
+    }
+}
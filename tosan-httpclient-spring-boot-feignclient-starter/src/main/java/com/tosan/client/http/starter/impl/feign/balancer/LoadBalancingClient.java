@@ -0,0 +1,45 @@
+package com.tosan.client.http.starter.impl.feign.balancer;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.ServiceEndpoint;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} keeping the requests in flight, response times and outcomes of the endpoints selected by
+ * {@link LoadBalancedTarget}.
+ */
+public class LoadBalancingClient implements Client {
+    private final Client delegate;
+    private final LoadBalancer loadBalancer;
+
+    public LoadBalancingClient(Client delegate, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        ServiceEndpoint endpoint = loadBalancer.findEndpoint(request.url());
+        if (endpoint == null) {
+            return delegate.execute(request, options);
+        }
+        long start = endpoint.start();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (DeadlineExceededException e) {
+            endpoint.cancel(start);
+            throw e;
+        } catch (Throwable e) {
+            endpoint.complete(start, false);
+            throw e;
+        }
+        endpoint.complete(start, true, response.status() >= 500);
+        return response;
+    }
+}
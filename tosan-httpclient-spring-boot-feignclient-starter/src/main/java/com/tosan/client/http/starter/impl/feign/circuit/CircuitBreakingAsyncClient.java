@@ -0,0 +1,50 @@
+package com.tosan.client.http.starter.impl.feign.circuit;
+
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.circuit.CircuitBreakerOpenException;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link CircuitBreakingClient}.
+ */
+public class CircuitBreakingAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingAsyncClient(AsyncClient<C> delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        long start;
+        try {
+            start = circuitBreaker.acquirePermission();
+        } catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Response> future;
+        try {
+            future = delegate.execute(request, options, requestContext);
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(start);
+            throw e;
+        }
+        return future.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                circuitBreaker.onResult(start, response.status());
+            } else if (DeadlineExceededException.isCause(throwable)) {
+                circuitBreaker.onCancel(start);
+            } else {
+                circuitBreaker.onError(start);
+            }
+        });
+    }
+}
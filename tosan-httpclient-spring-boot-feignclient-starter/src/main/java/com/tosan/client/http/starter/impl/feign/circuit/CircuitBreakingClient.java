@@ -0,0 +1,40 @@
+package com.tosan.client.http.starter.impl.feign.circuit;
+
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} guarding requests by the {@link CircuitBreaker} of the service. Wrapped inside the retrying client
+ * so every retry is recorded, and outside the hedging client so a hedged request is recorded once.
+ */
+public class CircuitBreakingClient implements Client {
+    private final Client delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingClient(Client delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        long start = circuitBreaker.acquirePermission();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (DeadlineExceededException e) {
+            circuitBreaker.onCancel(start);
+            throw e;
+        } catch (Throwable e) {
+            circuitBreaker.onError(start);
+            throw e;
+        }
+        circuitBreaker.onResult(start, response.status());
+        return response;
+    }
+}
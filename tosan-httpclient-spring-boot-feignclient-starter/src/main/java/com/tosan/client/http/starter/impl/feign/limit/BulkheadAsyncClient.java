@@ -0,0 +1,40 @@
+package com.tosan.client.http.starter.impl.feign.limit;
+
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import com.tosan.client.http.core.concurrent.BulkheadFullException;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link BulkheadClient}, taking a permit without waiting whatever the bulkhead type.
+ */
+public class BulkheadAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadAsyncClient(AsyncClient<C> delegate, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        try {
+            bulkhead.tryAcquire();
+        } catch (BulkheadFullException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Response> future;
+        try {
+            future = delegate.execute(request, options, requestContext);
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        return future.whenComplete((response, throwable) -> bulkhead.release());
+    }
+}
@@ -0,0 +1,27 @@
+package com.tosan.client.http.starter.impl.feign.limit;
+
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} running requests within the {@link Bulkhead} of the service. Wraps all other clients so a request
+ * holds one slot across its retries and hedges.
+ */
+public class BulkheadClient implements Client {
+    private final Client delegate;
+    private final Bulkhead bulkhead;
+
+    public BulkheadClient(Client delegate, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return bulkhead.execute(() -> delegate.execute(request, options));
+    }
+}
@@ -0,0 +1,47 @@
+package com.tosan.client.http.starter.impl.feign.limit;
+
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import com.tosan.client.http.core.concurrent.ConcurrencyLimitExceededException;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link ConcurrencyLimitingClient}, rejecting requests over the limit without waiting.
+ */
+public class ConcurrencyLimitingAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyLimitingAsyncClient(AsyncClient<C> delegate, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = concurrencyLimiter.tryAcquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Response> future;
+        try {
+            future = delegate.execute(request, options, requestContext);
+        } catch (RuntimeException e) {
+            permit.failure(e);
+            throw e;
+        }
+        return future.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                permit.success();
+            } else {
+                permit.failure(throwable);
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.tosan.client.http.starter.impl.feign.limit;
+
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} admitting requests by the {@link AdaptiveConcurrencyLimiter} of the service. Wrapped inside the
+ * retrying and hedging clients so every attempt takes its own permit and samples its own response time.
+ */
+public class ConcurrencyLimitingClient implements Client {
+    private final Client delegate;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyLimitingClient(Client delegate, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (Throwable e) {
+            permit.failure(e);
+            throw e;
+        }
+        permit.success();
+        return response;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.util.RawValue;
+import com.tosan.client.http.core.timing.RequestTimings;
 import com.tosan.tools.mask.starter.dto.JsonReplaceResultDto;
 import com.tosan.tools.mask.starter.replace.JsonReplaceHelperDecider;
 import feign.Request;
@@ -109,6 +110,7 @@ public class HttpFeignClientLogger extends feign.Logger {
                     }
                 }
             }
+            putTimings(responseData);
             logger.info(toJson(responseData));
         }
         return response;
@@ -123,6 +125,7 @@ public class HttpFeignClientLogger extends feign.Logger {
             exceptionData.put("duration", elapsedTime / 1000.0 + "s");
             exceptionData.put("exception", ioe.getClass().getSimpleName());
             exceptionData.put("message", ioe.getMessage());
+            putTimings(exceptionData);
             if (logLevel.ordinal() >= Level.FULL.ordinal() && logger.isDebugEnabled()) {
                 exceptionData.put("stackTrace", getStackTrace(ioe));
             }
@@ -140,6 +143,13 @@ public class HttpFeignClientLogger extends feign.Logger {
         }
     }
 
+    private void putTimings(Map<String, Object> data) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            data.put("timings", timings.toMap());
+        }
+    }
+
     private String getServiceName(String methodTag) {
         return methodTag.substring(1, methodTag.length() - 2);
     }
@@ -0,0 +1,33 @@
+package com.tosan.client.http.starter.impl.feign.retry;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link HedgingClient}, starting the hedge without blocking.
+ */
+public class HedgingAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final HedgingExecutor hedgingExecutor;
+    private final LoadBalancer loadBalancer;
+
+    public HedgingAsyncClient(AsyncClient<C> delegate, HedgingExecutor hedgingExecutor, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.hedgingExecutor = hedgingExecutor;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        return hedgingExecutor.executeAsync(request.httpMethod().name(),
+                attempt -> delegate.execute(attempt == 1 ? request : RetryingClient.reroute(request, loadBalancer),
+                        options, requestContext),
+                Response::close);
+    }
+}
@@ -0,0 +1,36 @@
+package com.tosan.client.http.starter.impl.feign.retry;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} hedging slow requests by the {@link HedgingExecutor} of the service. With a {@link LoadBalancer}, the
+ * hedge is sent to a newly selected endpoint, which favours one other than the endpoint serving the first attempt.
+ */
+public class HedgingClient implements Client {
+    private final Client delegate;
+    private final HedgingExecutor hedgingExecutor;
+    private final LoadBalancer loadBalancer;
+
+    /**
+     * @param loadBalancer balancer of the service, or null
+     */
+    public HedgingClient(Client delegate, HedgingExecutor hedgingExecutor, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.hedgingExecutor = hedgingExecutor;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return hedgingExecutor.execute(request.httpMethod().name(),
+                attempt -> delegate.execute(attempt == 1 ? request : RetryingClient.reroute(request, loadBalancer),
+                        options),
+                Response::close);
+    }
+}
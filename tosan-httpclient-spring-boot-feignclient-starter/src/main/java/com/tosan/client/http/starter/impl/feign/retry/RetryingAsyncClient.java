@@ -0,0 +1,33 @@
+package com.tosan.client.http.starter.impl.feign.retry;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.RetryExecutor;
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Async variant of {@link RetryingClient}, waiting out the backoff without blocking.
+ */
+public class RetryingAsyncClient<C> implements AsyncClient<C> {
+    private final AsyncClient<C> delegate;
+    private final RetryExecutor retryExecutor;
+    private final LoadBalancer loadBalancer;
+
+    public RetryingAsyncClient(AsyncClient<C> delegate, RetryExecutor retryExecutor, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.retryExecutor = retryExecutor;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<C> requestContext) {
+        return retryExecutor.executeAsync(request.httpMethod().name(),
+                attempt -> delegate.execute(attempt == 1 ? request : RetryingClient.reroute(request, loadBalancer),
+                        options, requestContext),
+                Response::status, Response::close);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tosan.client.http.starter.impl.feign.retry;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.RetryExecutor;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * {@link Client} retrying requests by the {@link RetryExecutor} of the service. With a {@link LoadBalancer}, every
+ * retry is sent to a newly selected endpoint.
+ */
+public class RetryingClient implements Client {
+    private final Client delegate;
+    private final RetryExecutor retryExecutor;
+    private final LoadBalancer loadBalancer;
+
+    /**
+     * @param loadBalancer balancer of the service, or null
+     */
+    public RetryingClient(Client delegate, RetryExecutor retryExecutor, LoadBalancer loadBalancer) {
+        this.delegate = delegate;
+        this.retryExecutor = retryExecutor;
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return retryExecutor.execute(request.httpMethod().name(),
+                attempt -> delegate.execute(attempt == 1 ? request : reroute(request, loadBalancer), options),
+                Response::status, Response::close);
+    }
+
+    static Request reroute(Request request, LoadBalancer loadBalancer) {
+        if (loadBalancer == null) {
+            return request;
+        }
+        String url = loadBalancer.reroute(request.url(), name -> {
+            Collection<String> values = request.headers().get(name);
+            return values == null || values.isEmpty() ? null : values.iterator().next();
+        });
+        return Request.create(request.httpMethod(), url, request.headers(), request.body(), request.charset(),
+                request.requestTemplate());
+    }
+}
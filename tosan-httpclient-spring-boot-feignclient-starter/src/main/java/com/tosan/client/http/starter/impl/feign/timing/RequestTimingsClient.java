@@ -0,0 +1,27 @@
+package com.tosan.client.http.starter.impl.feign.timing;
+
+import com.tosan.client.http.core.timing.RequestTimings;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * {@link Client} clearing the {@link RequestTimings} of the calling thread before every invocation, so the logger
+ * and the observation convention never report the timings of an earlier request when this one fails before reaching
+ * the transport. Wraps all other clients.
+ */
+public class RequestTimingsClient implements Client {
+    private final Client delegate;
+
+    public RequestTimingsClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        RequestTimings.clear();
+        return delegate.execute(request, options);
+    }
+}
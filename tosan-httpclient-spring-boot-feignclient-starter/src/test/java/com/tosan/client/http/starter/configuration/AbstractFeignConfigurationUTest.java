@@ -0,0 +1,160 @@
+package com.tosan.client.http.starter.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import com.tosan.client.http.starter.impl.feign.CustomErrorDecoderConfig;
+import com.tosan.client.http.starter.impl.feign.FeignBuilder;
+import feign.Client;
+import feign.Contract;
+import feign.Feign;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AbstractFeignConfigurationUTest {
+
+    private static final String URL = "http://localhost:8080";
+
+    private final List<String> sentUrls = new ArrayList<>();
+    private final List<Integer> activeBulkheadCalls = new ArrayList<>();
+    private Bulkhead bulkhead;
+    private final CapturingFeignBuilder feignBuilder = new CapturingFeignBuilder();
+
+    @Test
+    public void createFeignBuilder_retry_everyAttemptRecordedByCircuitBreaker() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl(URL);
+        properties.getRetry().setEnable(true);
+        properties.getRetry().setInitialBackoff(1);
+        properties.getCircuitBreaker().setEnable(true);
+        properties.getCircuitBreaker().setMinimumCalls(2);
+        properties.getCircuitBreaker().setFailureRateThreshold(100);
+        TestFeignConfiguration underTest = new TestFeignConfiguration(feignBuilder);
+
+        FeignBuilder builder = underTest.createFeignBuilder(properties);
+        Response response;
+        try {
+            assertThat(builder.getFeignBuilder()).isSameAs(feignBuilder);
+            response = feignBuilder.client.execute(Request.create(Request.HttpMethod.GET, URL + "/api",
+                    Map.of(), null, StandardCharsets.UTF_8, new RequestTemplate()), new Request.Options());
+        } finally {
+            builder.getHttpClient().close();
+        }
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(sentUrls).hasSize(2);
+        assertThat(underTest.circuitBreakerFailureRate()).isEqualTo(50);
+    }
+
+    @Test
+    public void createFeignBuilder_bulkhead_slotHeldAcrossRetries() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl(URL);
+        properties.getRetry().setEnable(true);
+        properties.getRetry().setInitialBackoff(1);
+        properties.getBulkhead().setEnable(true);
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        TestFeignConfiguration underTest = new TestFeignConfiguration(feignBuilder);
+
+        FeignBuilder builder = underTest.createFeignBuilder(properties);
+        Response response;
+        try {
+            response = feignBuilder.client.execute(Request.create(Request.HttpMethod.GET, URL + "/api",
+                    Map.of(), null, StandardCharsets.UTF_8, new RequestTemplate()), new Request.Options());
+        } finally {
+            builder.getHttpClient().close();
+        }
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(activeBulkheadCalls).containsExactly(1, 1);
+        assertThat(bulkhead.getActiveCount()).isZero();
+    }
+
+    private Response respond(Request request) {
+        sentUrls.add(request.url());
+        if (bulkhead != null) {
+            activeBulkheadCalls.add(bulkhead.getActiveCount());
+        }
+        return Response.builder()
+                .status(sentUrls.size() == 1 ? 503 : 200)
+                .request(request)
+                .headers(Map.of())
+                .build();
+    }
+
+    private static class CapturingFeignBuilder extends Feign.Builder {
+        private Client client;
+
+        @Override
+        public Feign.Builder client(Client client) {
+            this.client = client;
+            return super.client(client);
+        }
+    }
+
+    private class TestFeignConfiguration extends AbstractFeignConfiguration<HttpClientProperties> {
+        private CircuitBreaker circuitBreaker;
+
+        TestFeignConfiguration(Feign.Builder feignBuilder) {
+            super("test", HttpClientProperties.class, ObservationRegistry.NOOP, null,
+                    builderProvider(feignBuilder), new Encoder.Default(), new Decoder.Default(),
+                    new Contract.Default());
+        }
+
+        float circuitBreakerFailureRate() {
+            return circuitBreaker.getFailureRate();
+        }
+
+        @Override
+        protected Client wrapHttpClient(CloseableHttpClient closeableHttpClient) {
+            return (request, options) -> respond(request);
+        }
+
+        @Override
+        protected CircuitBreaker createCircuitBreaker(HttpClientProperties properties) {
+            circuitBreaker = super.createCircuitBreaker(properties);
+            return circuitBreaker;
+        }
+
+        @Override
+        protected Bulkhead createBulkhead(HttpClientProperties properties) {
+            bulkhead = super.createBulkhead(properties);
+            return bulkhead;
+        }
+
+        @Override
+        protected CustomErrorDecoderConfig createCustomErrorDecoderConfig(ObjectMapper objectMapper) {
+            return null;
+        }
+
+        @Override
+        protected ErrorDecoder createErrorDecoder(ObjectMapper objectMapper) {
+            return new ErrorDecoder.Default();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<Feign.Builder> builderProvider(Feign.Builder feignBuilder) {
+        ObjectProvider<Feign.Builder> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(feignBuilder);
+        return provider;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tosan.client.http.starter.impl.feign.retry;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.retry.RetryExecutor;
+import com.tosan.client.http.starter.impl.feign.balancer.LoadBalancingClient;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryingClientUTest {
+
+    private static final String FIRST_URL = "http://10.0.0.1:8080";
+    private static final String SECOND_URL = "http://10.0.0.2:8080";
+
+    @Test
+    public void execute_retryOfFailedEndpoint_reroutedToOtherEndpoint() throws Exception {
+        HttpClientProperties.LoadBalancerConfiguration balancerConfiguration =
+                new HttpClientProperties.LoadBalancerConfiguration();
+        balancerConfiguration.getOutlierDetection().setEnable(true);
+        balancerConfiguration.getOutlierDetection().setConsecutiveFailures(1);
+        LoadBalancer loadBalancer = new LoadBalancer("http://localhost:8080", List.of(FIRST_URL, SECOND_URL),
+                balancerConfiguration);
+        HttpClientProperties.RetryConfiguration retryConfiguration = new HttpClientProperties.RetryConfiguration();
+        retryConfiguration.setEnable(true);
+        retryConfiguration.setInitialBackoff(1);
+        List<String> sentUrls = new ArrayList<>();
+        LoadBalancingClient balancingClient = new LoadBalancingClient((request, options) -> {
+            sentUrls.add(request.url());
+            return Response.builder()
+                    .status(sentUrls.size() == 1 ? 503 : 200)
+                    .request(request)
+                    .headers(Map.of())
+                    .build();
+        }, loadBalancer);
+        RetryingClient underTest = new RetryingClient(balancingClient, new RetryExecutor(retryConfiguration),
+                loadBalancer);
+
+        Response response = underTest.execute(Request.create(Request.HttpMethod.GET, FIRST_URL + "/api", Map.of(),
+                null, StandardCharsets.UTF_8, new RequestTemplate()), new Request.Options());
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(sentUrls).containsExactly(FIRST_URL + "/api", SECOND_URL + "/api");
+    }
+}
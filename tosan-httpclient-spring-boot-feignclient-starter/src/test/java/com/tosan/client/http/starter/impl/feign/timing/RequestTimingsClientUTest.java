@@ -0,0 +1,35 @@
+package com.tosan.client.http.starter.impl.feign.timing;
+
+import com.tosan.client.http.core.timing.RequestTimings;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RequestTimingsClientUTest {
+
+    @Test
+    public void execute_failureBeforeTransport_staleTimingsCleared() {
+        RequestTimings.start();
+        Client rejecting = (request, options) -> {
+            throw new IOException("rejected");
+        };
+        RequestTimingsClient underTest = new RequestTimingsClient(rejecting);
+
+        assertThatThrownBy(() -> underTest.execute(createRequest(), new Request.Options()))
+                .isInstanceOf(IOException.class);
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    private Request createRequest() {
+        return Request.create(Request.HttpMethod.GET, "http://localhost:8080/test", Map.of(), null,
+                StandardCharsets.UTF_8, new RequestTemplate());
+    }
+}
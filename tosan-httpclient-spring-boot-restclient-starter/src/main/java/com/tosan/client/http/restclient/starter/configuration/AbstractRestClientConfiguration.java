@@ -1,20 +1,52 @@
 package com.tosan.client.http.restclient.starter.configuration;
 
 import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.LoadBalancerMetrics;
+import com.tosan.client.http.core.balancer.LoadBalancerRegistry;
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import com.tosan.client.http.core.concurrent.CallTimeouts;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
+import com.tosan.client.http.core.connection.ConnectionPoolMetrics;
+import com.tosan.client.http.core.factory.ConfigurableApacheHttpAsyncClientFactory;
 import com.tosan.client.http.core.factory.ConfigurableApacheHttpClientFactory;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import com.tosan.client.http.core.retry.RetryExecutor;
 import com.tosan.client.http.restclient.starter.exception.RestClientConfigurationException;
 import com.tosan.client.http.restclient.starter.impl.ClientService;
 import com.tosan.client.http.restclient.starter.impl.ExternalServiceInvoker;
+import com.tosan.client.http.restclient.starter.impl.HttpComponentsAsyncClientHttpRequestFactory;
+import com.tosan.client.http.restclient.starter.impl.interceptor.BulkheadInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.CircuitBreakerInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.DeadlineInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.ConcurrencyLimitInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.HedgingInterceptor;
 import com.tosan.client.http.restclient.starter.impl.interceptor.HttpLoggingInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.LoadBalancingInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.RetryInterceptor;
 import com.tosan.client.http.restclient.starter.util.HttpLoggingInterceptorUtil;
 import com.tosan.tools.mask.starter.replace.JsonReplaceHelperDecider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.bind.Bindable;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
@@ -39,6 +71,8 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
     private final JsonReplaceHelperDecider jacksonReplaceHelper;
     private final RestClient.Builder builder;
     private final Class<P> propertiesClass;
+    private MeterRegistry meterRegistry;
+    private LoadBalancerRegistry loadBalancerRegistry;
 
     protected AbstractRestClientConfiguration(String serviceName, Class<P> propertiesClass, RestClient.Builder builder,
                                               ObservationRegistry observationRegistry,
@@ -95,19 +129,22 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
     }
 
     protected ClientService createClientService(P properties) {
-        HttpComponentsClientHttpRequestFactory requestFactory = createRequestFactory(properties);
+        HttpClientProperties.ConnectionConfiguration connectionConfig = properties.getConnection();
+        boolean async = connectionConfig.isAsync() || connectionConfig.getProtocol().isHttp2Capable();
+        ClientHttpRequestFactory requestFactory = async ?
+                createAsyncRequestFactory(properties) : createRequestFactory(properties);
+        List<ClientHttpRequestInterceptor> clientInterceptors = createInterceptors(properties);
         RestClient.Builder builder = this.builder.clone();
         customizeRestClient(builder, properties);
         RestClient restClient = builder
                 .configureMessageConverters(this::configureMessageConverters)
                 .requestFactory(requestFactory)
-                .requestInterceptors(interceptors ->
-                        interceptors.addAll(createInterceptors(properties)))
+                .requestInterceptors(interceptors -> interceptors.addAll(clientInterceptors))
                 .defaultStatusHandler(createResponseErrorHandler())
                 .observationRegistry(observationRegistry)
                 .observationConvention(createObservationConvention())
                 .build();
-        return new ClientService(restClient, requestFactory);
+        return new ClientService(restClient, requestFactory, clientInterceptors);
     }
 
     protected void customizeRestClient(
@@ -121,7 +158,9 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
                 PoolingHttpClientConnectionManagerBuilder.create();
         ConfigurableApacheHttpClientFactory factory = new ConfigurableApacheHttpClientFactory(
                 builder, connectionManagerBuilder, properties);
-        return factory.createBuilder().build();
+        CloseableHttpClient httpClient = factory.createBuilder().build();
+        bindConnectionPoolMetrics(factory.createConnectionPoolMetrics(getExternalServiceName()));
+        return httpClient;
     }
 
     protected HttpComponentsClientHttpRequestFactory createRequestFactory(P properties) {
@@ -130,8 +169,103 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
         );
     }
 
+    protected CloseableHttpAsyncClient createHttpAsyncClient(P properties) {
+        HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create();
+        PoolingAsyncClientConnectionManagerBuilder connectionManagerBuilder =
+                PoolingAsyncClientConnectionManagerBuilder.create();
+        ConfigurableApacheHttpAsyncClientFactory factory = new ConfigurableApacheHttpAsyncClientFactory(
+                builder, connectionManagerBuilder, properties);
+        CloseableHttpAsyncClient httpAsyncClient = factory.createBuilder().build();
+        bindConnectionPoolMetrics(factory.createConnectionPoolMetrics(getExternalServiceName()));
+        return httpAsyncClient;
+    }
+
+    protected ClientHttpRequestFactory createAsyncRequestFactory(P properties) {
+        return new HttpComponentsAsyncClientHttpRequestFactory(
+                createHttpAsyncClient(properties),
+                createResponseWait(properties)
+        );
+    }
+
+    /**
+     * @return longest wait of the caller on the async transport: the lease, connect and socket timeouts of the
+     * slowest route, or null when one of them is infinite
+     */
+    protected Timeout createResponseWait(P properties) {
+        return CallTimeouts.responseWait(properties);
+    }
+
+    /**
+     * @return executor running {@link ExternalServiceInvoker#invokeAsync} tasks
+     */
+    protected AsyncTaskExecutor createInvocationExecutor(P properties) {
+        return InvocationExecutors.create(getExternalServiceName(), properties.getConnection().isVirtualThreads());
+    }
+
+    /**
+     * Binds connection pool metrics of the service, tagged with {@link #getExternalServiceName()}.
+     */
+    protected void bindConnectionPoolMetrics(MeterBinder connectionPoolMetrics) {
+        connectionPoolMetrics.bindTo(getMeterRegistry());
+    }
+
+    /**
+     * Injects the registry of the application context, replacing the local registry used when none is available.
+     */
+    @Autowired
+    public void setMeterRegistry(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * Injects the registry the load balancers of the configuration are registered into, if available.
+     */
+    @Autowired
+    public void setLoadBalancerRegistry(ObjectProvider<LoadBalancerRegistry> loadBalancerRegistryProvider) {
+        this.loadBalancerRegistry = loadBalancerRegistryProvider.getIfAvailable();
+    }
+
+    /**
+     * @return registry of the application context, or a registry local to this configuration outside a context
+     */
+    protected MeterRegistry getMeterRegistry() {
+        if (meterRegistry == null) {
+            meterRegistry = new SimpleMeterRegistry();
+        }
+        return meterRegistry;
+    }
+
     protected List<ClientHttpRequestInterceptor> createInterceptors(P properties) {
         List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        Bulkhead bulkhead = createBulkhead(properties);
+        if (bulkhead != null) {
+            interceptors.add(new BulkheadInterceptor(bulkhead));
+        }
+        RetryExecutor retryExecutor = createRetryExecutor(properties);
+        if (retryExecutor != null) {
+            interceptors.add(new RetryInterceptor(retryExecutor));
+        }
+        CircuitBreaker circuitBreaker = createCircuitBreaker(properties);
+        if (circuitBreaker != null) {
+            interceptors.add(new CircuitBreakerInterceptor(circuitBreaker));
+        }
+        HedgingExecutor hedgingExecutor = createHedgingExecutor(properties);
+        if (hedgingExecutor != null) {
+            interceptors.add(new HedgingInterceptor(hedgingExecutor));
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = createConcurrencyLimiter(properties);
+        if (concurrencyLimiter != null) {
+            interceptors.add(new ConcurrencyLimitInterceptor(concurrencyLimiter));
+        }
+        LoadBalancer loadBalancer = createLoadBalancer(properties);
+        if (loadBalancer != null) {
+            registerLoadBalancer(loadBalancer);
+            interceptors.add(new LoadBalancingInterceptor(loadBalancer));
+        }
+        HttpClientProperties.DeadlineConfiguration deadline = properties.getDeadline();
+        if (deadline.isEnable()) {
+            interceptors.add(new DeadlineInterceptor(deadline.isPropagate()));
+        }
         interceptors.add(createLoggingInterceptor());
         HttpClientProperties.AuthorizationConfiguration auth = properties.getAuthorization();
         if (auth != null && auth.isEnable()) {
@@ -140,6 +274,85 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
         return interceptors;
     }
 
+    /**
+     * @return balancer over the {@code baseServiceUrls} of the service, or null for a single base service url
+     */
+    protected LoadBalancer createLoadBalancer(P properties) {
+        return LoadBalancer.create(properties);
+    }
+
+    /**
+     * @return retry policy of the service bound to the retry metrics, or null when retries are disabled
+     */
+    protected RetryExecutor createRetryExecutor(P properties) {
+        if (!properties.getRetry().isEnable()) {
+            return null;
+        }
+        RetryExecutor retryExecutor = new RetryExecutor(properties.getRetry());
+        retryExecutor.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return retryExecutor;
+    }
+
+    /**
+     * @return hedging policy of the service bound to the hedging metrics, or null when hedging is disabled
+     */
+    protected HedgingExecutor createHedgingExecutor(P properties) {
+        if (!properties.getHedge().isEnable()) {
+            return null;
+        }
+        HedgingExecutor hedgingExecutor = new HedgingExecutor(properties.getHedge(), InvocationExecutors.createPool(
+                getExternalServiceName() + "-hedge", properties.getHedge().getMaxThreads()));
+        hedgingExecutor.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return hedgingExecutor;
+    }
+
+    /**
+     * @return adaptive concurrency limit of the service bound to the limit metrics, or null when disabled
+     */
+    protected AdaptiveConcurrencyLimiter createConcurrencyLimiter(P properties) {
+        if (!properties.getConcurrencyLimit().isEnable()) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getConcurrencyLimit());
+        concurrencyLimiter.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return circuit breaker of the service bound to the circuit breaker metrics, or null when disabled
+     */
+    protected CircuitBreaker createCircuitBreaker(P properties) {
+        if (!properties.getCircuitBreaker().isEnable()) {
+            return null;
+        }
+        CircuitBreaker circuitBreaker = new CircuitBreaker(getExternalServiceName(), properties.getCircuitBreaker());
+        circuitBreaker.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return circuitBreaker;
+    }
+
+    /**
+     * @return bulkhead of the service bound to the bulkhead metrics, or null when disabled
+     */
+    protected Bulkhead createBulkhead(P properties) {
+        if (!properties.getBulkhead().isEnable()) {
+            return null;
+        }
+        Bulkhead bulkhead = new Bulkhead(getExternalServiceName(), properties.getBulkhead(),
+                CallTimeouts.callTimeout(properties));
+        bulkhead.bindTo(getMeterRegistry(), Tags.of(ConnectionPoolMetrics.CLIENT_NAME_TAG, getExternalServiceName()));
+        return bulkhead;
+    }
+
+    /**
+     * Publishes the balancer to the actuator view and binds its endpoint metrics.
+     */
+    protected void registerLoadBalancer(LoadBalancer loadBalancer) {
+        if (loadBalancerRegistry != null) {
+            loadBalancerRegistry.register(getExternalServiceName(), loadBalancer);
+        }
+        new LoadBalancerMetrics(getExternalServiceName(), loadBalancer).bindTo(getMeterRegistry());
+    }
+
     protected void configureMessageConverters(HttpMessageConverters.ClientBuilder converters) {
         converters.addCustomConverter(new JacksonJsonHttpMessageConverter());
     }
@@ -160,11 +373,13 @@ public abstract class AbstractRestClientConfiguration<P extends HttpClientProper
     public final ExternalServiceInvoker createServiceInvoker(Environment environment) {
         P properties = loadHttpClientProperties(environment);
         validateProperties(properties);
-        return new ExternalServiceInvoker(createClientService(properties), properties);
+        return new ExternalServiceInvoker(createClientService(properties), properties,
+                createInvocationExecutor(properties));
     }
 
     public final ExternalServiceInvoker createServiceInvoker(P properties) {
         validateProperties(properties);
-        return new ExternalServiceInvoker(createClientService(properties), properties);
+        return new ExternalServiceInvoker(createClientService(properties), properties,
+                createInvocationExecutor(properties));
     }
 }
@@ -1,6 +1,8 @@
 package com.tosan.client.http.restclient.starter.configuration;
 
+import com.tosan.client.http.core.timing.RequestTimings;
 import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.client.observation.ClientHttpObservationDocumentation;
 import org.springframework.http.client.observation.ClientRequestObservationContext;
@@ -38,6 +40,11 @@ public class TosanHttpClientObservationConvention extends DefaultClientRequestOb
         return KeyValue.of(URI, KeyValue.NONE_VALUE);
     }
 
+    @Override
+    public KeyValues getHighCardinalityKeyValues(ClientRequestObservationContext context) {
+        return super.getHighCardinalityKeyValues(context).and(RequestTimings.toKeyValues(RequestTimings.current()));
+    }
+
     @Override
     protected KeyValue clientName(ClientRequestObservationContext context) {
         if (context.getCarrier() != null) {
@@ -1,19 +1,60 @@
 package com.tosan.client.http.restclient.starter.impl;
 
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.util.List;
+
 public class ClientService {
     private final RestClient restClient;
-    private final HttpComponentsClientHttpRequestFactory httpComponentsClientHttpRequestFactory;
+    private final ClientHttpRequestFactory requestFactory;
+    private final List<ClientHttpRequestInterceptor> interceptors;
+
+    public ClientService(RestClient restClient, ClientHttpRequestFactory requestFactory) {
+        this(restClient, requestFactory, List.of());
+    }
 
-    public ClientService(RestClient restClient, HttpComponentsClientHttpRequestFactory httpComponentsClientHttpRequestFactory) {
+    /**
+     * @param interceptors interceptors created for the client, the {@link AutoCloseable} ones are closed with it
+     */
+    public ClientService(RestClient restClient, ClientHttpRequestFactory requestFactory,
+                         List<ClientHttpRequestInterceptor> interceptors) {
         this.restClient = restClient;
-        this.httpComponentsClientHttpRequestFactory = httpComponentsClientHttpRequestFactory;
+        this.requestFactory = requestFactory;
+        this.interceptors = interceptors;
     }
 
+    /**
+     * @return classic request factory
+     * @throws IllegalStateException when the client uses the async transport, see
+     *                               {@link #getHttpComponentsAsyncClientHttpRequestFactory()}
+     */
     public HttpComponentsClientHttpRequestFactory getHttpComponentsClientHttpRequestFactory() {
-        return httpComponentsClientHttpRequestFactory;
+        if (requestFactory instanceof HttpComponentsClientHttpRequestFactory factory) {
+            return factory;
+        }
+        throw new IllegalStateException("Client uses the async transport, no classic request factory available");
+    }
+
+    /**
+     * @return async request factory
+     * @throws IllegalStateException when the client uses the classic transport
+     */
+    public HttpComponentsAsyncClientHttpRequestFactory getHttpComponentsAsyncClientHttpRequestFactory() {
+        if (requestFactory instanceof HttpComponentsAsyncClientHttpRequestFactory factory) {
+            return factory;
+        }
+        throw new IllegalStateException("Client uses the classic transport, no async request factory available");
+    }
+
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    public List<ClientHttpRequestInterceptor> getInterceptors() {
+        return interceptors;
     }
 
     public RestClient getRestClient() {
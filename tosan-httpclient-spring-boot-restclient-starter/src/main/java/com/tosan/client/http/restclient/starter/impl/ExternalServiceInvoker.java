@@ -1,27 +1,52 @@
 package com.tosan.client.http.restclient.starter.impl;
 
 import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
 import org.springframework.beans.factory.DisposableBean;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * @author Ali Alimohammadi
  * @since 8/6/2022
  */
 public class ExternalServiceInvoker implements DisposableBean {
+    private static final String DEFAULT_EXECUTOR_NAME = "rest-client";
     private final HttpClientProperties httpClientProperties;
     private final ClientService clientService;
+    private final AsyncTaskExecutor invocationExecutor;
 
     public ExternalServiceInvoker(ClientService clientService, HttpClientProperties httpClientProperties) {
+        this(clientService, httpClientProperties, InvocationExecutors.create(DEFAULT_EXECUTOR_NAME,
+                httpClientProperties.getConnection().isVirtualThreads()));
+    }
+
+    /**
+     * @param invocationExecutor executor running {@link #invokeAsync(Function)} tasks, closed on destroy
+     */
+    public ExternalServiceInvoker(ClientService clientService, HttpClientProperties httpClientProperties,
+                                  AsyncTaskExecutor invocationExecutor) {
         this.clientService = clientService;
         this.httpClientProperties = httpClientProperties;
+        this.invocationExecutor = invocationExecutor;
     }
 
     public RestClient getClient() {
         return this.clientService.getRestClient();
     }
 
+    /**
+     * Runs a blocking call on the invocation executor (virtual threads by default) so the caller does not wait
+     * for the response. The caller's MDC is propagated to the executing thread.
+     */
+    public <R> CompletableFuture<R> invokeAsync(Function<RestClient, R> invocation) {
+        return this.invocationExecutor.submitCompletable(() -> invocation.apply(getClient()));
+    }
+
     public String generateUrl(String path) {
         String baseUrl = this.httpClientProperties.getBaseServiceUrl();
         if (path == null || path.isBlank()) {
@@ -38,6 +63,16 @@ public class ExternalServiceInvoker implements DisposableBean {
 
     @Override
     public void destroy() throws Exception {
-        clientService.getHttpComponentsClientHttpRequestFactory().destroy();
+        if (invocationExecutor instanceof AutoCloseable closeableExecutor) {
+            closeableExecutor.close();
+        }
+        for (ClientHttpRequestInterceptor interceptor : clientService.getInterceptors()) {
+            if (interceptor instanceof AutoCloseable closeableInterceptor) {
+                closeableInterceptor.close();
+            }
+        }
+        if (clientService.getRequestFactory() instanceof DisposableBean disposableRequestFactory) {
+            disposableRequestFactory.destroy();
+        }
     }
 }
@@ -0,0 +1,172 @@
+package com.tosan.client.http.restclient.starter.impl;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.AbstractBufferingClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link ClientHttpRequestFactory} executing requests on a non-blocking {@link CloseableHttpAsyncClient}.
+ * Request and response bodies are buffered in memory.
+ * <p>
+ * The {@code RestClient} API is synchronous, so the calling thread still waits for each response; the async
+ * transport multiplexes socket IO on the reactor threads and HTTP/2 streams on shared connections, it does not free
+ * the caller. The wait is bounded by {@code responseWait}, after which the exchange is cancelled. Use
+ * {@link ExternalServiceInvoker#invokeAsync} to take calls off the caller thread.
+ */
+public class HttpComponentsAsyncClientHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+    private final CloseableHttpAsyncClient httpAsyncClient;
+    private final Timeout responseWait;
+
+    public HttpComponentsAsyncClientHttpRequestFactory(CloseableHttpAsyncClient httpAsyncClient) {
+        this(httpAsyncClient, null);
+    }
+
+    /**
+     * @param responseWait longest wait of the caller for a complete response, null or disabled to wait for the
+     *                     timeouts of the transport only
+     */
+    public HttpComponentsAsyncClientHttpRequestFactory(CloseableHttpAsyncClient httpAsyncClient, Timeout responseWait) {
+        this.httpAsyncClient = httpAsyncClient;
+        this.responseWait = responseWait;
+        if (httpAsyncClient.getStatus() == IOReactorStatus.INACTIVE) {
+            httpAsyncClient.start();
+        }
+    }
+
+    public CloseableHttpAsyncClient getHttpAsyncClient() {
+        return httpAsyncClient;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new AsyncClientHttpRequest(uri, httpMethod);
+    }
+
+    @Override
+    public void destroy() {
+        httpAsyncClient.close(CloseMode.GRACEFUL);
+    }
+
+    private class AsyncClientHttpRequest extends AbstractBufferingClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+
+        private AsyncClientHttpRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers, byte[] body) throws IOException {
+            Future<SimpleHttpResponse> future = httpAsyncClient.execute(createRequest(headers, body), null);
+            try {
+                return new AsyncClientHttpResponse(awaitResponse(future));
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                throw new SocketTimeoutException("No response within " + responseWait + ": " + uri);
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IOException("Request interrupted: " + uri, ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage(), ex.getCause());
+            }
+        }
+
+        private SimpleHttpResponse awaitResponse(Future<SimpleHttpResponse> future)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (responseWait == null || responseWait.isDisabled()) {
+                return future.get();
+            }
+            return future.get(responseWait.getDuration(), responseWait.getTimeUnit());
+        }
+
+        private SimpleHttpRequest createRequest(HttpHeaders headers, byte[] body) {
+            SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.create(method.name()).setUri(uri);
+            headers.forEach((name, values) -> {
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                        && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                    values.forEach(value -> requestBuilder.addHeader(name, value));
+                }
+            });
+            if (body.length > 0) {
+                String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+                requestBuilder.setBody(body, contentType != null ? ContentType.parse(contentType) : null);
+            }
+            return requestBuilder.build();
+        }
+    }
+
+    private static class AsyncClientHttpResponse implements ClientHttpResponse {
+        private final SimpleHttpResponse response;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private AsyncClientHttpResponse(SimpleHttpResponse response) {
+            this.response = response;
+            for (Header header : response.getHeaders()) {
+                headers.add(header.getName(), header.getValue());
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(response.getCode());
+        }
+
+        @Override
+        public String getStatusText() {
+            return response.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            byte[] body = response.getBodyBytes();
+            return new ByteArrayInputStream(body != null ? body : new byte[0]);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.concurrent.Bulkhead;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Runs requests within the {@link Bulkhead} of the service. Added first to the interceptor chain so a request holds
+ * one slot across its retries and hedges.
+ */
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor {
+    private final Bulkhead bulkhead;
+
+    public BulkheadInterceptor(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        return bulkhead.execute(() -> execution.execute(request, body));
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Guards requests by the {@link CircuitBreaker} of the service. Added right after {@link RetryInterceptor} so every
+ * retry is recorded, and a retry of an opened circuit fails fast; a hedged request is recorded once.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakerInterceptor(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long start = circuitBreaker.acquirePermission();
+        ClientHttpResponse response;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getStatusCode().value();
+        } catch (DeadlineExceededException e) {
+            circuitBreaker.onCancel(start);
+            throw e;
+        } catch (Throwable e) {
+            circuitBreaker.onError(start);
+            throw e;
+        }
+        circuitBreaker.onResult(start, status);
+        return response;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Admits requests by the {@link AdaptiveConcurrencyLimiter} of the service. Added after {@link RetryInterceptor} and
+ * {@link HedgingInterceptor} so every attempt takes its own permit and samples its own response time.
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (Throwable e) {
+            permit.failure(e);
+            throw e;
+        }
+        permit.success();
+        return response;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+}
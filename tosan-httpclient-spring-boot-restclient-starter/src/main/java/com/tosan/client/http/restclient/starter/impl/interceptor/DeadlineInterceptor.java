@@ -0,0 +1,54 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.Constants;
+import com.tosan.client.http.core.deadline.Deadline;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+
+/**
+ * Sends the remaining budget of the {@link DeadlineContext deadline} of the calling thread in the
+ * {@value Constants#X_REQUEST_TIMEOUT} header, and fails requests whose deadline has passed without sending them.
+ * Added after {@link LoadBalancingInterceptor} so every retry and hedge sends its own remaining budget; the header is
+ * set on a copy of the headers, as hedged attempts share the headers of the request.
+ */
+public class DeadlineInterceptor implements ClientHttpRequestInterceptor {
+    private final boolean propagate;
+
+    /**
+     * @param propagate send the remaining budget downstream
+     */
+    public DeadlineInterceptor(boolean propagate) {
+        this.propagate = propagate;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded before sending the request");
+            }
+            if (propagate) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.putAll(request.getHeaders());
+                headers.set(Constants.X_REQUEST_TIMEOUT, String.valueOf(deadline.getRemainingMillis()));
+                return execution.execute(new HttpRequestWrapper(request) {
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return headers;
+                    }
+                }, body);
+            }
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Hedges slow requests by the {@link HedgingExecutor} of the service. Added after {@link RetryInterceptor} and
+ * {@link CircuitBreakerInterceptor} so every retry may be hedged, and the hedge runs {@link LoadBalancingInterceptor}
+ * again, which favours an endpoint other than the one still serving the first attempt.
+ */
+public class HedgingInterceptor implements ClientHttpRequestInterceptor, AutoCloseable {
+    private final HedgingExecutor hedgingExecutor;
+
+    public HedgingInterceptor(HedgingExecutor hedgingExecutor) {
+        this.hedgingExecutor = hedgingExecutor;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        return hedgingExecutor.execute(request.getMethod().name(), attempt -> execution.execute(request, body),
+                ClientHttpResponse::close);
+    }
+
+    /**
+     * Shuts down the executor of the hedged attempts, called when the client is destroyed.
+     */
+    @Override
+    public void close() {
+        hedgingExecutor.close();
+    }
+
+    public HedgingExecutor getHedgingExecutor() {
+        return hedgingExecutor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tosan.client.http.restclient.starter.impl.interceptor;
 
+import com.tosan.client.http.core.timing.RequestTimings;
 import com.tosan.client.http.restclient.starter.exception.HttpClientRequestExecuteException;
 import com.tosan.client.http.restclient.starter.impl.interceptor.wrapper.HttpResponseWrapper;
 import com.tosan.client.http.restclient.starter.util.HttpLoggingInterceptorUtil;
@@ -11,6 +12,7 @@ import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Ali Alimohammadi
@@ -32,13 +34,14 @@ public class HttpLoggingInterceptor implements ClientHttpRequestInterceptor {
             log.info(httpLoggingInterceptorUtil.getRequestDetailContent(request, requestBody, webServiceName));
         }
         ClientHttpResponse response;
-        long startTime = System.currentTimeMillis();
+        RequestTimings.clear();
+        long startTime = System.nanoTime();
         try {
             response = ex.execute(request, requestBody);
             if (log.isInfoEnabled()) {
                 HttpResponseWrapper responseWrapper = new HttpResponseWrapper(response);
                 log.info(httpLoggingInterceptorUtil.getResponseDetailContent(responseWrapper, webServiceName,
-                        System.currentTimeMillis() - startTime));
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
                 return responseWrapper;
             } else {
                 return response;
@@ -46,7 +49,7 @@ public class HttpLoggingInterceptor implements ClientHttpRequestInterceptor {
         } catch (IOException e) {
             if (log.isInfoEnabled()) {
                 log.info(httpLoggingInterceptorUtil.getExceptionDetailContent(e, webServiceName,
-                        System.currentTimeMillis() - startTime));
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
             }
             throw new HttpClientRequestExecuteException(e.getMessage(), e);
         }
@@ -0,0 +1,62 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.ServiceEndpoint;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Sends each request to the endpoint selected by the {@link LoadBalancer} of the service, rewriting the base service
+ * url of the request url. Runs after the resilience interceptors, such as {@link RetryInterceptor} and
+ * {@link HedgingInterceptor}, so every retry and hedge selects an endpoint of its own, and before the deadline,
+ * logging and basic auth interceptors, which see the selected url.
+ */
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+    private final LoadBalancer loadBalancer;
+
+    public LoadBalancingInterceptor(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ServiceEndpoint endpoint = loadBalancer.choose(request.getURI().toString(), request.getHeaders()::getFirst);
+        URI uri = loadBalancer.rewrite(request.getURI(), endpoint);
+        HttpRequest balancedRequest = uri == request.getURI() ? request : new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+        };
+        long start = endpoint.start();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(balancedRequest, body);
+        } catch (DeadlineExceededException e) {
+            endpoint.cancel(start);
+            throw e;
+        } catch (Throwable e) {
+            endpoint.complete(start, false);
+            throw e;
+        }
+        boolean serverError = false;
+        try {
+            serverError = response.getStatusCode().is5xxServerError();
+        } finally {
+            endpoint.complete(start, true, serverError);
+        }
+        return response;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+}
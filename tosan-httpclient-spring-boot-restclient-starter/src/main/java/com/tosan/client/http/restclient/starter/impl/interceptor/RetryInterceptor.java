@@ -0,0 +1,41 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.retry.RetryExecutor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Retries requests by the {@link RetryExecutor} of the service. Added at the head of the interceptor chain, after
+ * {@link BulkheadInterceptor} only, so every attempt runs the following interceptors again, and
+ * {@link LoadBalancingInterceptor} selects an endpoint per attempt.
+ */
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+    private final RetryExecutor retryExecutor;
+
+    public RetryInterceptor(RetryExecutor retryExecutor) {
+        this.retryExecutor = retryExecutor;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        return retryExecutor.execute(request.getMethod().name(), attempt -> execution.execute(request, body),
+                RetryInterceptor::getStatusCode, ClientHttpResponse::close);
+    }
+
+    private static int getStatusCode(ClientHttpResponse response) {
+        try {
+            return response.getStatusCode().value();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    public RetryExecutor getRetryExecutor() {
+        return retryExecutor;
+    }
+}
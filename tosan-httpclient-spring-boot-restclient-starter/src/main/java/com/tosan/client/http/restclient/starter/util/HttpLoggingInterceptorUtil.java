@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.util.RawValue;
+import com.tosan.client.http.core.timing.RequestTimings;
 import com.tosan.tools.mask.starter.dto.JsonReplaceResultDto;
 import com.tosan.tools.mask.starter.replace.JsonReplaceHelperDecider;
 import org.apache.commons.lang3.StringUtils;
@@ -82,6 +83,7 @@ public class HttpLoggingInterceptorUtil {
             String securedBody = replaceHelperDecider.replace(responseBody);
             responseData.put("body", new RawValue(securedBody));
         }
+        putTimings(responseData);
         return toJson(responseData);
     }
 
@@ -91,9 +93,17 @@ public class HttpLoggingInterceptorUtil {
         exceptionData.put("duration", elapsedTime / 1000.0 + "s");
         exceptionData.put("exception", exception.getClass().getSimpleName());
         exceptionData.put("message", exception.getMessage());
+        putTimings(exceptionData);
         return toJson(exceptionData);
     }
 
+    private void putTimings(Map<String, Object> data) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            data.put("timings", timings.toMap());
+        }
+    }
+
     private HttpHeaders getMaskedHeaders(HttpHeaders headers) {
         HttpHeaders securedHeaders = new HttpHeaders();
         for (Map.Entry<String, List<String>> entry : headers.headerSet()) {
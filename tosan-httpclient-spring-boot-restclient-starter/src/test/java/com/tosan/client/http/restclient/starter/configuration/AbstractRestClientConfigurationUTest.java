@@ -0,0 +1,127 @@
+package com.tosan.client.http.restclient.starter.configuration;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.restclient.starter.impl.interceptor.BulkheadInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.CircuitBreakerInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.ConcurrencyLimitInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.DeadlineInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.HedgingInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.HttpLoggingInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.LoadBalancingInterceptor;
+import com.tosan.client.http.restclient.starter.impl.interceptor.RetryInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AbstractRestClientConfigurationUTest {
+
+    private final TestRestClientConfiguration underTest = new TestRestClientConfiguration();
+
+    @Test
+    public void createInterceptors_defaults_loggingOnly() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl("http://localhost:8080");
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(HttpLoggingInterceptor.class);
+    }
+
+    @Test
+    public void createInterceptors_retry_endpointSelectedPerAttempt() {
+        HttpClientProperties properties = createBalancedProperties();
+        properties.getRetry().setEnable(true);
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(RetryInterceptor.class,
+                LoadBalancingInterceptor.class, HttpLoggingInterceptor.class);
+    }
+
+    @Test
+    public void createInterceptors_hedge_hedgeRetriedAndBalanced() {
+        HttpClientProperties properties = createBalancedProperties();
+        properties.getRetry().setEnable(true);
+        properties.getHedge().setEnable(true);
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(RetryInterceptor.class,
+                HedgingInterceptor.class, LoadBalancingInterceptor.class, HttpLoggingInterceptor.class);
+    }
+
+    @Test
+    public void createInterceptors_concurrencyLimit_permitPerAttempt() {
+        HttpClientProperties properties = createBalancedProperties();
+        properties.getRetry().setEnable(true);
+        properties.getHedge().setEnable(true);
+        properties.getConcurrencyLimit().setEnable(true);
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(RetryInterceptor.class,
+                HedgingInterceptor.class, ConcurrencyLimitInterceptor.class, LoadBalancingInterceptor.class,
+                HttpLoggingInterceptor.class);
+    }
+
+    @Test
+    public void createInterceptors_circuitBreaker_everyRetryRecordedHedgeOnce() {
+        HttpClientProperties properties = createBalancedProperties();
+        properties.getRetry().setEnable(true);
+        properties.getHedge().setEnable(true);
+        properties.getCircuitBreaker().setEnable(true);
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(RetryInterceptor.class,
+                CircuitBreakerInterceptor.class, HedgingInterceptor.class, LoadBalancingInterceptor.class,
+                HttpLoggingInterceptor.class);
+    }
+
+    @Test
+    public void createInterceptors_allEnabled_chainOrder() {
+        HttpClientProperties properties = createBalancedProperties();
+        properties.getBulkhead().setEnable(true);
+        properties.getRetry().setEnable(true);
+        properties.getCircuitBreaker().setEnable(true);
+        properties.getHedge().setEnable(true);
+        properties.getConcurrencyLimit().setEnable(true);
+        properties.getDeadline().setEnable(true);
+        properties.getAuthorization().setEnable(true);
+        properties.getAuthorization().setUsername("user");
+        properties.getAuthorization().setPassword("password");
+
+        List<ClientHttpRequestInterceptor> interceptors = underTest.createInterceptors(properties);
+
+        assertThat(interceptors).extracting(Object::getClass).containsExactly(BulkheadInterceptor.class,
+                RetryInterceptor.class, CircuitBreakerInterceptor.class, HedgingInterceptor.class,
+                ConcurrencyLimitInterceptor.class, LoadBalancingInterceptor.class, DeadlineInterceptor.class,
+                HttpLoggingInterceptor.class, BasicAuthenticationInterceptor.class);
+    }
+
+    private static HttpClientProperties createBalancedProperties() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setBaseServiceUrl("http://localhost:8080");
+        properties.setBaseServiceUrls(List.of("http://10.0.0.1:8080", "http://10.0.0.2:8080"));
+        return properties;
+    }
+
+    private static class TestRestClientConfiguration extends AbstractRestClientConfiguration<HttpClientProperties> {
+
+        TestRestClientConfiguration() {
+            super("test", HttpClientProperties.class, RestClient.builder(), ObservationRegistry.NOOP, null);
+        }
+
+        @Override
+        protected ResponseErrorHandler createResponseErrorHandler() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tosan.client.http.restclient.starter.impl;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpComponentsAsyncClientHttpRequestFactoryUTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private HttpComponentsAsyncClientHttpRequestFactory underTest;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("X-Method", exchange.getRequestMethod());
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (underTest != null) {
+            underTest.destroy();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void createRequest_execute_bufferedResponse() throws Exception {
+        underTest = new HttpComponentsAsyncClientHttpRequestFactory(HttpAsyncClients.createDefault(),
+                Timeout.ofSeconds(5));
+        ClientHttpRequest request = underTest.createRequest(uri("/echo"), HttpMethod.POST);
+        request.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        request.getBody().write("hello".getBytes(StandardCharsets.UTF_8));
+
+        try (ClientHttpResponse response = request.execute()) {
+            assertThat(response.getStatusCode().value()).isEqualTo(201);
+            assertThat(response.getHeaders().getFirst("X-Method")).isEqualTo("POST");
+            assertThat(response.getBody()).hasContent("hello");
+        }
+    }
+
+    @Test
+    public void createRequest_noResponseWithinWait_timeout() {
+        underTest = new HttpComponentsAsyncClientHttpRequestFactory(HttpAsyncClients.createDefault(),
+                Timeout.ofMilliseconds(100));
+        ClientHttpRequest request = underTest.createRequest(uri("/slow"), HttpMethod.GET);
+
+        assertThatThrownBy(request::execute).isInstanceOf(SocketTimeoutException.class);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,36 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.concurrent.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitInterceptorUTest {
+
+    @Test
+    public void intercept_timedOut_permitReleasedAndLimitLowered() {
+        HttpClientProperties.ConcurrencyLimitConfiguration configuration =
+                new HttpClientProperties.ConcurrencyLimitConfiguration();
+        configuration.setEnable(true);
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(configuration);
+        ConcurrencyLimitInterceptor underTest = new ConcurrencyLimitInterceptor(concurrencyLimiter);
+        int initialLimit = concurrencyLimiter.getLimit();
+
+        assertThatThrownBy(() -> underTest.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080/api")), new byte[0],
+                (request, body) -> {
+                    assertThat(concurrencyLimiter.getInFlight()).isEqualTo(1);
+                    throw new SocketTimeoutException("Read timed out");
+                })).isInstanceOf(SocketTimeoutException.class);
+
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+        assertThat(concurrencyLimiter.getLimit()).isLessThan(initialLimit);
+    }
+}
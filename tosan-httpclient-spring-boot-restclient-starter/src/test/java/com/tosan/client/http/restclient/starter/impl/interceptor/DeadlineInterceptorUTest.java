@@ -0,0 +1,89 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.Constants;
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.balancer.LoadBalancer;
+import com.tosan.client.http.core.balancer.ServiceEndpoint;
+import com.tosan.client.http.core.circuit.CircuitBreaker;
+import com.tosan.client.http.core.deadline.Deadline;
+import com.tosan.client.http.core.deadline.DeadlineContext;
+import com.tosan.client.http.core.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeadlineInterceptorUTest {
+
+    private static final String URL = "http://10.0.0.1:8080";
+
+    @Test
+    public void intercept_deadlineExpired_endpointAndCircuitUntouched() throws Exception {
+        HttpClientProperties.CircuitBreakerConfiguration circuitConfiguration =
+                new HttpClientProperties.CircuitBreakerConfiguration();
+        circuitConfiguration.setMinimumCalls(1);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", circuitConfiguration);
+        HttpClientProperties.LoadBalancerConfiguration balancerConfiguration =
+                new HttpClientProperties.LoadBalancerConfiguration();
+        balancerConfiguration.getOutlierDetection().setEnable(true);
+        balancerConfiguration.getOutlierDetection().setConsecutiveFailures(1);
+        LoadBalancer loadBalancer = new LoadBalancer(URL, List.of(URL), balancerConfiguration);
+        AtomicInteger sent = new AtomicInteger();
+        ClientHttpRequestFactory requestFactory = new InterceptingClientHttpRequestFactory((uri, method) -> {
+            sent.incrementAndGet();
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+            return request;
+        }, List.of(new CircuitBreakerInterceptor(circuitBreaker), new LoadBalancingInterceptor(loadBalancer),
+                new DeadlineInterceptor(true)));
+
+        ClientHttpRequest request = requestFactory.createRequest(URI.create(URL + "/api"), HttpMethod.GET);
+        DeadlineContext.Scope scope = DeadlineContext.open(Deadline.after(0));
+        try {
+            assertThatThrownBy(request::execute).isInstanceOf(DeadlineExceededException.class);
+        } finally {
+            scope.close();
+        }
+
+        ServiceEndpoint endpoint = loadBalancer.getEndpoints().get(0);
+        assertThat(sent).hasValue(0);
+        assertThat(endpoint.isEjected()).isFalse();
+        assertThat(endpoint.getConsecutiveFailures()).isZero();
+        assertThat(endpoint.getInFlight()).isZero();
+        assertThat(circuitBreaker.getFailureRate()).isEqualTo(-1);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void intercept_propagate_headersOfRequestUnchanged() throws Exception {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create(URL + "/api"));
+        request.getHeaders().set(Constants.X_REQUEST_TIMEOUT, "60000");
+        AtomicReference<HttpHeaders> sentHeaders = new AtomicReference<>();
+
+        DeadlineContext.Scope scope = DeadlineContext.open(Deadline.after(500));
+        try {
+            new DeadlineInterceptor(true).intercept(request, new byte[0], (sentRequest, body) -> {
+                sentHeaders.set(sentRequest.getHeaders());
+                return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+            });
+        } finally {
+            scope.close();
+        }
+
+        assertThat(Long.parseLong(sentHeaders.get().getFirst(Constants.X_REQUEST_TIMEOUT))).isBetween(0L, 500L);
+        assertThat(request.getHeaders().getFirst(Constants.X_REQUEST_TIMEOUT)).isEqualTo("60000");
+    }
+}
@@ -0,0 +1,81 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.concurrent.InvocationExecutors;
+import com.tosan.client.http.core.retry.HedgingExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class HedgingInterceptorUTest {
+
+    @Test
+    public void intercept_hedgeWins_lateResponseDiscarded() throws Exception {
+        HttpClientProperties.HedgeConfiguration configuration = new HttpClientProperties.HedgeConfiguration();
+        configuration.setEnable(true);
+        configuration.setDelay(20);
+        HedgingInterceptor underTest = new HedgingInterceptor(
+                new HedgingExecutor(configuration, new SimpleAsyncTaskExecutor("hedge-")));
+        ClientHttpResponse late = mock(ClientHttpResponse.class);
+        ClientHttpResponse hedged = mock(ClientHttpResponse.class);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        ClientHttpResponse response = underTest.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080/api")), new byte[0],
+                (request, body) -> {
+                    if (attempts.incrementAndGet() > 1) {
+                        return hedged;
+                    }
+                    awaitUninterruptibly(release);
+                    return late;
+                });
+        release.countDown();
+
+        assertThat(response).isSameAs(hedged);
+        verify(late, timeout(2000)).close();
+        verify(hedged, never()).close();
+    }
+
+    @Test
+    public void close_hedgingPoolShutDown() {
+        ThreadPoolTaskExecutor pool = InvocationExecutors.createPool("test-hedge", 2);
+        HedgingInterceptor underTest = new HedgingInterceptor(
+                new HedgingExecutor(new HttpClientProperties.HedgeConfiguration(), pool));
+
+        underTest.close();
+
+        assertThat(pool.getThreadPoolExecutor().isShutdown()).isTrue();
+    }
+
+    /**
+     * Keeps the first attempt running after the race cancels it, as a request blocked on the socket would.
+     */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tosan.client.http.restclient.starter.impl.interceptor;
+
+import com.tosan.client.http.core.HttpClientProperties;
+import com.tosan.client.http.core.retry.RetryExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryInterceptorUTest {
+
+    @Test
+    public void intercept_retriedStatus_responseDiscarded() throws Exception {
+        HttpClientProperties.RetryConfiguration configuration = new HttpClientProperties.RetryConfiguration();
+        configuration.setEnable(true);
+        configuration.setInitialBackoff(1);
+        RetryInterceptor underTest = new RetryInterceptor(new RetryExecutor(configuration));
+        ClientHttpResponse unavailable = mockResponse(HttpStatus.SERVICE_UNAVAILABLE);
+        ClientHttpResponse ok = mockResponse(HttpStatus.OK);
+        List<ClientHttpResponse> responses = List.of(unavailable, ok);
+        AtomicInteger attempts = new AtomicInteger();
+
+        ClientHttpResponse response = underTest.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:8080/api")), new byte[0],
+                (request, body) -> responses.get(attempts.getAndIncrement()));
+
+        assertThat(response).isSameAs(ok);
+        assertThat(attempts).hasValue(2);
+        verify(unavailable).close();
+        verify(ok, never()).close();
+    }
+
+    private static ClientHttpResponse mockResponse(HttpStatus status) throws Exception {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        return response;
+    }
+}